@@ -0,0 +1,15 @@
+package com.priti.accountReactiveService;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@SpringBootApplication
+@EnableScheduling
+public class AccountReactiveServiceApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(AccountReactiveServiceApplication.class, args);
+	}
+
+}
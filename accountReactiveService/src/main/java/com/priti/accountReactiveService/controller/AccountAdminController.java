@@ -0,0 +1,30 @@
+package com.priti.accountReactiveService.controller;
+
+import com.priti.accountReactiveService.dto.BulkDeleteResponse;
+import com.priti.accountReactiveService.service.AccountAdminService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+// Outside /account/** on purpose: the gateway doesn't route these, only services reaching us directly can
+@RestController
+@RequestMapping("/admin/account")
+public class AccountAdminController {
+    @Autowired
+    private AccountAdminService accountAdminService;
+
+    @DeleteMapping
+    public Mono<BulkDeleteResponse> deleteAccountsInRange(@RequestParam Long fromId, @RequestParam Long toId) {
+        return this.accountAdminService.deleteAccountsInRange(fromId, toId);
+    }
+
+    @DeleteMapping("/customer/{customerId}")
+    public Mono<BulkDeleteResponse> deleteAccountsOfCustomer(@PathVariable Long customerId) {
+        return this.accountAdminService.deleteAccountsOfCustomer(customerId);
+    }
+
+    @DeleteMapping("/all")
+    public Mono<BulkDeleteResponse> deleteAllAccounts() {
+        return this.accountAdminService.deleteAllAccounts();
+    }
+}
@@ -0,0 +1,160 @@
+package com.priti.accountReactiveService.controller;
+
+import com.priti.accountReactiveService.dto.BulkCreateResponse;
+import com.priti.accountReactiveService.dto.CursorPage;
+import com.priti.accountReactiveService.dto.TransferRequest;
+import com.priti.accountReactiveService.dto.TransferResult;
+import com.priti.accountReactiveService.idempotency.IdempotencyStore;
+import com.priti.accountReactiveService.model.Account;
+import com.priti.accountReactiveService.service.AccountService;
+import com.priti.accountReactiveService.service.TransferService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+// Same routes and payloads as accountService's AccountController
+@RestController
+@RequestMapping("/account")
+public class AccountController {
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final MediaType CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @GetMapping
+    public Flux<Account> getAccount() {
+        return this.accountService.getAllAccounts();
+    }
+
+    @GetMapping("/count")
+    public Mono<Long> countAccounts() {
+        return this.accountService.countAccounts();
+    }
+
+    @GetMapping("/page")
+    public Mono<CursorPage<Account>> getAccountsPage(@RequestParam(defaultValue = "0") Long afterId,
+                                                     @RequestParam(defaultValue = "500") int size) {
+        return this.accountService.getAccountsPage(afterId, size);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Account> streamAccounts() {
+        return this.accountService.streamAllAccounts();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<Account> getAccountById(@PathVariable Long id) {
+        return this.accountService.getAccountById(id);
+    }
+
+    @GetMapping("/number/{accountNumber}")
+    public Mono<Account> getAccountByAccountNumber(@PathVariable String accountNumber) {
+        return this.accountService.getAccountByAccountNumber(accountNumber);
+    }
+
+    @GetMapping("/customer/{customerId}")
+    public Flux<Account> getAccountsOfCustomer(@PathVariable Long customerId) {
+        return this.accountService.getAccountsOfCustomer(customerId);
+    }
+
+    // Rows are written as they arrive from the driver, with backpressure, whatever the statement size
+    @GetMapping("/customer/{customerId}/statement")
+    public ResponseEntity<Flux<?>> getStatement(@PathVariable Long customerId,
+                                                @RequestParam(defaultValue = "csv") String format) {
+        boolean csv = format.equalsIgnoreCase("csv");
+        if (!csv && !format.equalsIgnoreCase("ndjson")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be csv or ndjson");
+        }
+        Flux<Account> accounts = this.accountService.streamAccountsOfCustomer(customerId);
+        Flux<?> body = csv
+                ? Flux.concat(Mono.just("id,accountNumber,accountType,balance,customerId,createdAt\n"), accounts.map(AccountController::csvLine))
+                : accounts;
+        return ResponseEntity.ok()
+                .contentType(csv ? CSV : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("statement-" + customerId + (csv ? ".csv" : ".ndjson")).build().toString())
+                .body(body);
+    }
+
+    @PostMapping("/customer/batch")
+    public Mono<Map<Long, List<Account>>> getAccountsOfCustomers(@RequestBody List<Long> customerIds) {
+        return this.accountService.getAccountsOfCustomers(customerIds);
+    }
+
+    @PostMapping
+    public Mono<Account> createAccount(@RequestBody Account account,
+                                       @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return this.idempotencyStore.execute("POST", "/account", idempotencyKey, account,
+                () -> this.accountService.createAccount(account));
+    }
+
+    @PostMapping("/bulk")
+    public Mono<BulkCreateResponse> createAccounts(@RequestBody List<Account> accounts,
+                                                   @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return this.idempotencyStore.execute("POST", "/account/bulk", idempotencyKey, accounts,
+                () -> this.accountService.createAccounts(accounts));
+    }
+
+    @PutMapping("/{id}/{balance}")
+    public Mono<Account> updateAccountBalance(@PathVariable Long id, @PathVariable BigDecimal balance) {
+        return this.accountService.updateAccountBalance(id, balance);
+    }
+
+    @PostMapping("/{id}/credit")
+    public Mono<Account> creditAccount(@PathVariable Long id, @RequestParam BigDecimal amount) {
+        return this.accountService.creditAccount(id, amount);
+    }
+
+    @PostMapping("/{id}/debit")
+    public Mono<Account> debitAccount(@PathVariable Long id, @RequestParam BigDecimal amount) {
+        return this.accountService.debitAccount(id, amount);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<Void> deleteAccount(@PathVariable Long id) {
+        return this.accountService.deleteAccount(id);
+    }
+
+    @PostMapping("/transfer")
+    public Mono<TransferResult> transfer(@RequestBody TransferRequest request) {
+        return this.transferService.transfer(request);
+    }
+
+    private static String csvLine(Account account) {
+        return account.getId() + "," +
+                csvField(account.getAccountNumber()) + "," +
+                csvField(account.getAccountType()) + "," +
+                (account.getBalance() == null ? "" : account.getBalance().toPlainString()) + "," +
+                (account.getCustomerId() == null ? "" : String.valueOf(account.getCustomerId())) + "," +
+                (account.getCreatedAt() == null ? "" : account.getCreatedAt().toString()) + "\n";
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
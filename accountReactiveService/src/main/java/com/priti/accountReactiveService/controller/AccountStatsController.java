@@ -0,0 +1,36 @@
+package com.priti.accountReactiveService.controller;
+
+import com.priti.accountReactiveService.dto.BalanceStats;
+import com.priti.accountReactiveService.dto.PortfolioStats;
+import com.priti.accountReactiveService.service.AccountStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/account/stats")
+public class AccountStatsController {
+    @Autowired
+    private AccountStatsService accountStatsService;
+
+    @GetMapping
+    public Mono<PortfolioStats> getStats() {
+        return this.accountStatsService.getStats();
+    }
+
+    @GetMapping("/type/{accountType}")
+    public Mono<BalanceStats> getAccountTypeStats(@PathVariable String accountType) {
+        return this.accountStatsService.getAccountTypeStats(accountType);
+    }
+
+    @GetMapping("/customer/{customerId}")
+    public Mono<BalanceStats> getCustomerStats(@PathVariable Long customerId) {
+        return this.accountStatsService.getCustomerStats(customerId);
+    }
+
+    // Stats are computed per call here, so reconciling is just reading them
+    @PostMapping("/reconcile")
+    public Mono<PortfolioStats> reconcile() {
+        return this.accountStatsService.getStats();
+    }
+}
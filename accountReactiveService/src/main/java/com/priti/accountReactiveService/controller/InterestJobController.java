@@ -0,0 +1,42 @@
+package com.priti.accountReactiveService.controller;
+
+import com.priti.accountReactiveService.job.InterestAccrualJob;
+import com.priti.accountReactiveService.model.InterestPartition;
+import com.priti.accountReactiveService.model.InterestRun;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/admin/account/interest")
+public class InterestJobController {
+    @Autowired
+    private InterestAccrualJob interestAccrualJob;
+
+    @PostMapping("/runs")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public Mono<InterestRun> startRun(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate businessDate) {
+        return this.interestAccrualJob.start(businessDate);
+    }
+
+    @PostMapping("/runs/{id}/resume")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public Mono<InterestRun> resumeRun(@PathVariable Long id) {
+        return this.interestAccrualJob.resume(id);
+    }
+
+    @GetMapping("/runs/{id}")
+    public Mono<InterestRun> getRun(@PathVariable Long id) {
+        return this.interestAccrualJob.getRun(id);
+    }
+
+    @GetMapping("/runs/{id}/partitions")
+    public Flux<InterestPartition> getPartitions(@PathVariable Long id) {
+        return this.interestAccrualJob.getPartitions(id);
+    }
+}
@@ -0,0 +1,14 @@
+package com.priti.accountReactiveService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkCreateResult {
+    private int index; // position of the item in the request body
+    private Long id;
+    private String error;
+}
@@ -0,0 +1,17 @@
+package com.priti.accountReactiveService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PortfolioStats {
+    private BalanceStats total;
+    private Map<String, BalanceStats> byAccountType;
+    private Instant reconciledAt; // null until the first reconciliation has finished
+}
@@ -0,0 +1,84 @@
+package com.priti.accountReactiveService.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Same contract as accountService's invalidator: changed customer ids are coalesced and every CUSTOMER-SERVICE
+// instance is told to drop their cached accounts in one call per flush
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "account.customer-cache-invalidation.enabled", havingValue = "true", matchIfMissing = true)
+public class CustomerCacheInvalidator {
+    @Autowired
+    private ReactiveDiscoveryClient discoveryClient;
+
+    @Value("${account.customer-cache-invalidation.service-id:CUSTOMER-SERVICE}")
+    private String customerServiceId;
+
+    @Value("${account.customer-cache-invalidation.timeout:1s}")
+    private Duration timeout;
+
+    private final WebClient webClient = WebClient.create();
+    private final Set<Long> pendingCustomerIds = ConcurrentHashMap.newKeySet();
+
+    public void invalidate(Long customerId) {
+        if (customerId != null) {
+            this.pendingCustomerIds.add(customerId);
+        }
+    }
+
+    // A reset may touch every customer, so the whole cache is dropped instead of listing them
+    public void invalidateAll() {
+        this.pendingCustomerIds.clear();
+        this.discoveryClient.getInstances(this.customerServiceId)
+                .flatMap(instance -> this.webClient.delete()
+                        .uri(instance.getUri() + "/admin/customer/cache/accounts")
+                        .retrieve()
+                        .toBodilessEntity()
+                        .timeout(this.timeout)
+                        .onErrorResume(e -> {
+                            log.warn("Could not clear accounts cache on {}: {}", instance.getUri(), e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @Scheduled(fixedDelayString = "${account.customer-cache-invalidation.flush-interval:200ms}")
+    public void flush() {
+        if (this.pendingCustomerIds.isEmpty()) {
+            return;
+        }
+        List<Long> customerIds = new ArrayList<>();
+        for (Long customerId : this.pendingCustomerIds) {
+            this.pendingCustomerIds.remove(customerId);
+            customerIds.add(customerId);
+        }
+        this.discoveryClient.getInstances(this.customerServiceId)
+                .flatMap(instance -> this.webClient.post()
+                        .uri(instance.getUri() + "/admin/customer/cache/accounts/evict")
+                        .bodyValue(customerIds)
+                        .retrieve()
+                        .toBodilessEntity()
+                        .timeout(this.timeout)
+                        // The customer-side TTL bounds staleness if an instance cannot be reached
+                        .onErrorResume(e -> {
+                            log.warn("Could not invalidate accounts cache of {} customers on {}: {}",
+                                    customerIds.size(), instance.getUri(), e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+}
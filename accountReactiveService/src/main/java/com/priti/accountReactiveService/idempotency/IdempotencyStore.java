@@ -0,0 +1,149 @@
+package com.priti.accountReactiveService.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Bounded, expiring Idempotency-Key -> response store. Keys are spread over independently locked shards; each shard
+// is an insertion-ordered map, so expired and overflowing entries are always at its head.
+// Keys are scoped to the endpoint they were sent to, and a reused key must come with the same body (compared by the
+// SHA-256 of its JSON form). A retry that arrives while the first attempt is still running subscribes to that
+// attempt's result instead of running again.
+@Component
+public class IdempotencyStore {
+    private final ObjectMapper objectMapper;
+    private final Shard[] shards;
+    private final long ttlNanos;
+    private final Duration waitTimeout;
+
+    public IdempotencyStore(ObjectMapper objectMapper,
+                            @Value("${account.idempotency.max-entries:100000}") int maxEntries,
+                            @Value("${account.idempotency.shards:16}") int shardCount,
+                            @Value("${account.idempotency.ttl:10m}") Duration ttl,
+                            @Value("${account.idempotency.wait-timeout:10s}") Duration waitTimeout) {
+        this.objectMapper = objectMapper;
+        this.ttlNanos = ttl.toNanos();
+        this.waitTimeout = waitTimeout;
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            this.shards[i] = new Shard(Math.max(1, maxEntries / shardCount));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> execute(String method, String path, String idempotencyKey, Object request, Supplier<Mono<T>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        String key = method + " " + path + " " + idempotencyKey;
+        byte[] fingerprint = fingerprint(request);
+        Shard shard = shards[(key.hashCode() & Integer.MAX_VALUE) % shards.length];
+        Entry entry;
+        boolean owner = false;
+        shard.lock.lock();
+        try {
+            long now = System.nanoTime();
+            shard.expire(now);
+            entry = shard.entries.get(key);
+            if (entry == null) {
+                entry = new Entry(fingerprint, now + ttlNanos);
+                shard.entries.put(key, entry);
+                shard.trim();
+                owner = true;
+            } else if (!MessageDigest.isEqual(entry.fingerprint, fingerprint)) {
+                return Mono.error(new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Idempotency-Key was already used for a different request"));
+            }
+        } finally {
+            shard.lock.unlock();
+        }
+        Entry ownEntry = entry;
+        if (owner) {
+            // Failed or abandoned attempts are not remembered, so the client's retry runs again
+            return action.get()
+                    .doOnSuccess(result -> ownEntry.response.complete(result))
+                    .doOnError(e -> forget(shard, key, ownEntry, e))
+                    .doOnCancel(() -> forget(shard, key, ownEntry, new CancellationException("Original request was cancelled")));
+        }
+        return Mono.fromFuture(entry.response, true)
+                .map(result -> (T) result)
+                .timeout(waitTimeout)
+                .onErrorMap(TimeoutException.class, e -> new ResponseStatusException(HttpStatus.CONFLICT,
+                        "A request with this Idempotency-Key is still in progress"));
+    }
+
+    private static void forget(Shard shard, String key, Entry entry, Throwable failure) {
+        shard.lock.lock();
+        try {
+            shard.entries.remove(key, entry);
+        } finally {
+            shard.lock.unlock();
+        }
+        entry.response.completeExceptionally(failure);
+    }
+
+    private byte[] fingerprint(Object request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(this.objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request body cannot be fingerprinted", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Shard {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+        private final int maxEntries;
+
+        private Shard(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        private void expire(long now) {
+            Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext() && iterator.next().getValue().expiresAt - now <= 0) {
+                iterator.remove();
+            }
+        }
+
+        // Entries whose first attempt is still running are kept, or a retry would run the action again; they are
+        // few (one per request in flight) and are trimmed once they complete
+        private void trim() {
+            Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+            while (entries.size() > maxEntries && iterator.hasNext()) {
+                if (iterator.next().getValue().response.isDone()) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final byte[] fingerprint;
+        private final long expiresAt;
+        private final CompletableFuture<Object> response = new CompletableFuture<>();
+
+        private Entry(byte[] fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package com.priti.accountReactiveService.job;
+
+import com.priti.accountReactiveService.event.CustomerCacheInvalidator;
+import com.priti.accountReactiveService.model.InterestPartition;
+import com.priti.accountReactiveService.model.InterestRun;
+import com.priti.accountReactiveService.repository.InterestPartitionRepository;
+import com.priti.accountReactiveService.repository.InterestRunRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+// Same runs, partitions and checkpoints as accountService's interest job, so a deployment that switches editions can
+// resume a run the other one started. Partitions are processed with bounded concurrency; each chunk locks its checkpoint and rows,
+// posts interest and advances the checkpoint in one transaction, so a resumed run never accrues an account twice.
+@Component
+@Slf4j
+public class InterestAccrualJob {
+    private static final MathContext RATE_CONTEXT = MathContext.DECIMAL64;
+    private static final int MONEY_SCALE = 2;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    @Autowired
+    private InterestRunRepository interestRunRepository;
+
+    @Autowired
+    private InterestPartitionRepository interestPartitionRepository;
+
+    // Absent when account.customer-cache-invalidation.enabled=false
+    @Autowired(required = false)
+    private CustomerCacheInvalidator customerCacheInvalidator;
+
+    @Value("${account.interest.partitions:64}")
+    private int partitionCount;
+
+    @Value("${account.interest.parallelism:8}")
+    private int parallelism;
+
+    @Value("${account.interest.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${account.interest.days-per-year:365}")
+    private int daysPerYear;
+
+    // How long a claimed partition stays with its worker without a checkpoint; must outlast the slowest chunk
+    @Value("${account.interest.lease:2m}")
+    private Duration lease;
+
+    private final Map<String, BigDecimal> annualRates;
+    // Executions are run one at a time, in the order they were asked for
+    private final Sinks.Many<Execution> executions = Sinks.many().unicast().onBackpressureBuffer();
+    private Disposable executor;
+
+    private record Execution(Long runId, Sinks.One<InterestRun> done) {
+    }
+
+    public InterestAccrualJob(@Value("${account.interest.rates:SAVINGS:0.035,FIXED_DEPOSIT:0.065}") String rates) {
+        Map<String, BigDecimal> parsed = new LinkedHashMap<>();
+        for (String rate : rates.split(",")) {
+            String[] parts = rate.trim().split(":");
+            parsed.put(parts[0].trim(), new BigDecimal(parts[1].trim()));
+        }
+        this.annualRates = Collections.unmodifiableMap(parsed);
+    }
+
+    @PostConstruct
+    public void startExecutor() {
+        this.executor = this.executions.asFlux()
+                .concatMap(execution -> execute(execution.runId())
+                        .doOnNext(run -> execution.done().tryEmitValue(run))
+                        .onErrorResume(e -> {
+                            log.warn("Interest run {} failed: {}", execution.runId(), e.getMessage());
+                            execution.done().tryEmitError(e);
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.executor.dispose();
+    }
+
+    @Scheduled(cron = "${account.interest.cron:-}")
+    public void runNightly() {
+        start(LocalDate.now().minusDays(1)).subscribe();
+    }
+
+    // Creates (or finds) the run for the date and processes it in the background
+    public Mono<InterestRun> start(LocalDate businessDate) {
+        return prepare(businessDate).doOnNext(run -> {
+            if (run.getStatus() != InterestRun.Status.COMPLETED) {
+                submit(run.getId());
+            }
+        });
+    }
+
+    // Partitions left RUNNING by a process that died are handed out again once their lease has run out; a partition
+    // a live worker is still checkpointing stays with it
+    public Mono<InterestRun> resume(Long runId) {
+        return getRun(runId).flatMap(run -> run.getStatus() == InterestRun.Status.COMPLETED ? Mono.just(run)
+                : this.interestPartitionRepository.releaseExpired(runId, LocalDateTime.now())
+                        .then(start(run.getBusinessDate())));
+    }
+
+    public Mono<InterestRun> run(LocalDate businessDate) {
+        return prepare(businessDate).flatMap(run -> submit(run.getId()).asMono());
+    }
+
+    public Mono<InterestRun> getRun(Long runId) {
+        return this.interestRunRepository.findById(runId)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Interest run not found")));
+    }
+
+    public Flux<InterestPartition> getPartitions(Long runId) {
+        return this.interestPartitionRepository.findByRunIdOrderByPartitionIndex(runId);
+    }
+
+    private Sinks.One<InterestRun> submit(Long runId) {
+        Sinks.One<InterestRun> done = Sinks.one();
+        this.executions.emitNext(new Execution(runId, done), Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1)));
+        return done;
+    }
+
+    private Mono<InterestRun> prepare(LocalDate businessDate) {
+        return this.interestRunRepository.findByBusinessDate(businessDate)
+                .switchIfEmpty(Mono.defer(() -> createRun(businessDate).as(this.transactionalOperator::transactional))
+                        // Another instance created the run first
+                        .onErrorResume(DataIntegrityViolationException.class, e ->
+                                this.interestRunRepository.findByBusinessDate(businessDate).switchIfEmpty(Mono.error(e))));
+    }
+
+    private Mono<InterestRun> createRun(LocalDate businessDate) {
+        return this.databaseClient.sql("select coalesce(min(id), 1) as min_id, coalesce(max(id), 0) as max_id from account")
+                .map(row -> new long[]{row.get("min_id", Long.class), row.get("max_id", Long.class)})
+                .one()
+                .flatMap(bounds -> {
+                    long minId = bounds[0];
+                    long maxId = bounds[1];
+                    int partitions = (int) Math.max(1, Math.min(partitionCount, maxId - minId + 1));
+                    long span = Math.max(1, (maxId - minId + partitions) / partitions);
+
+                    InterestRun run = new InterestRun();
+                    run.setBusinessDate(businessDate);
+                    run.setStatus(InterestRun.Status.RUNNING);
+                    run.setPartitions(partitions);
+                    run.setInterestPosted(BigDecimal.ZERO);
+                    run.setStartedAt(LocalDateTime.now());
+                    return this.interestRunRepository.save(run).flatMap(saved -> {
+                        List<InterestPartition> ranges = new ArrayList<>(partitions);
+                        for (int i = 0; i < partitions; i++) {
+                            InterestPartition partition = new InterestPartition();
+                            partition.setRunId(saved.getId());
+                            partition.setPartitionIndex(i);
+                            partition.setFromId(minId + i * span);
+                            // The last partition is open-ended, so accounts created while the run is prepared are still covered
+                            partition.setToId(i == partitions - 1 ? Long.MAX_VALUE : minId + (i + 1) * span - 1);
+                            partition.setLastProcessedId(partition.getFromId() - 1);
+                            partition.setInterestPosted(BigDecimal.ZERO);
+                            partition.setStatus(InterestPartition.Status.PENDING);
+                            partition.setUpdatedAt(LocalDateTime.now());
+                            ranges.add(partition);
+                        }
+                        return this.interestPartitionRepository.saveAll(ranges).then(Mono.just(saved));
+                    });
+                });
+    }
+
+    private Mono<InterestRun> execute(Long runId) {
+        return getRun(runId).flatMap(run -> {
+            if (run.getStatus() == InterestRun.Status.COMPLETED) {
+                return Mono.just(run);
+            }
+            long started = System.nanoTime();
+            return getPartitions(runId).collectList().flatMap(before -> {
+                long processedBefore = before.stream().mapToLong(InterestPartition::getAccountsProcessed).sum();
+                LocalDateTime now = LocalDateTime.now();
+                List<InterestPartition> claimable = before.stream()
+                        .filter(partition -> partition.getStatus() == InterestPartition.Status.PENDING
+                                || partition.getStatus() == InterestPartition.Status.FAILED
+                                || (partition.getStatus() == InterestPartition.Status.RUNNING
+                                    && partition.getLeaseUntil() != null && partition.getLeaseUntil().isBefore(now)))
+                        .toList();
+                return Flux.fromIterable(claimable)
+                        .flatMap(this::processPartition, parallelism)
+                        .then(getPartitions(runId).collectList())
+                        .flatMap(partitions -> {
+                            long processed = partitions.stream().mapToLong(InterestPartition::getAccountsProcessed).sum();
+                            boolean complete = partitions.stream().allMatch(partition -> partition.getStatus() == InterestPartition.Status.COMPLETED);
+                            long elapsedMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+                            run.setAccountsProcessed(processed);
+                            run.setInterestPosted(partitions.stream().map(InterestPartition::getInterestPosted).reduce(BigDecimal.ZERO, BigDecimal::add));
+                            run.setDurationMillis(elapsedMillis);
+                            run.setAccountsPerSecond((processed - processedBefore) * 1000.0 / elapsedMillis);
+                            run.setStatus(complete ? InterestRun.Status.COMPLETED : InterestRun.Status.FAILED);
+                            run.setFinishedAt(LocalDateTime.now());
+                            return this.interestRunRepository.save(run);
+                        })
+                        .doOnNext(saved -> log.info("Interest run for {} {}: {} accounts, {} posted, {} ms ({} accounts/s)",
+                                saved.getBusinessDate(), saved.getStatus(), saved.getAccountsProcessed(), saved.getInterestPosted(),
+                                saved.getDurationMillis(), Math.round(saved.getAccountsPerSecond())));
+            });
+        });
+    }
+
+    private Mono<Void> processPartition(InterestPartition partition) {
+        String owner = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        return this.interestPartitionRepository.claim(partition.getId(), owner, now.plus(lease), now)
+                .flatMap(claimed -> claimed == 0 ? Mono.empty() : Mono.defer(() -> processChunk(partition, owner)
+                                .as(this.transactionalOperator::transactional)
+                                // The checkpoint is committed, so the customers' cached accounts are stale now
+                                .doOnNext(chunk -> chunk.customerIds().forEach(this::invalidate)))
+                        .repeat()
+                        .takeUntil(chunk -> chunk.rows() < chunkSize)
+                        .then(updateStatus(partition, owner, InterestPartition.Status.COMPLETED)))
+                .onErrorResume(LeaseLostException.class, e -> {
+                    log.warn("Interest partition {} of run {} was taken over by another worker",
+                            partition.getPartitionIndex(), partition.getRunId());
+                    return Mono.empty();
+                })
+                .onErrorResume(e -> {
+                    log.warn("Interest partition {} of run {} failed at its last checkpoint: {}",
+                            partition.getPartitionIndex(), partition.getRunId(), e.getMessage());
+                    return updateStatus(partition, owner, InterestPartition.Status.FAILED);
+                });
+    }
+
+    private Mono<Void> updateStatus(InterestPartition partition, String owner, InterestPartition.Status status) {
+        return this.interestPartitionRepository.updateStatus(partition.getId(), owner, status.name(), LocalDateTime.now()).then();
+    }
+
+    // Runs inside one transaction: lock the checkpoint, lock the chunk, post interest, advance the checkpoint. The
+    // checkpoint is read under its row lock rather than carried over from the last chunk, so a worker that lost its
+    // lease to another one stops instead of posting the same range again.
+    private Mono<ChunkResult> processChunk(InterestPartition partition, String owner) {
+        return this.databaseClient.sql("select last_processed_id from interest_partition where id = :id " +
+                        "and lease_owner = :owner and status = 'RUNNING' for update")
+                .bind("id", partition.getId())
+                .bind("owner", owner)
+                .map(row -> row.get("last_processed_id", Long.class))
+                .one()
+                .switchIfEmpty(Mono.error(LeaseLostException::new))
+                .flatMap(afterId -> this.databaseClient.sql("select id, customer_id, account_type, balance from account " +
+                                "where id > :afterId and id <= :toId and account_type in (:accountTypes) order by id limit :limit for update")
+                        .bind("afterId", afterId)
+                        .bind("toId", partition.getToId())
+                        .bind("accountTypes", List.copyOf(annualRates.keySet()))
+                        .bind("limit", chunkSize)
+                        .map(row -> new AccountRow(row.get("id", Long.class), row.get("customer_id", Long.class),
+                                row.get("account_type", String.class), row.get("balance", BigDecimal.class)))
+                        .all()
+                        .collectList())
+                .flatMap(rows -> rows.isEmpty() ? Mono.just(new ChunkResult(0, Set.of())) : postInterest(partition, owner, rows));
+    }
+
+    private Mono<ChunkResult> postInterest(InterestPartition partition, String owner, List<AccountRow> rows) {
+        Set<Long> customerIds = new HashSet<>();
+        List<Mono<Long>> updates = new ArrayList<>(rows.size());
+        BigDecimal posted = BigDecimal.ZERO;
+        for (AccountRow row : rows) {
+            BigDecimal interest = dailyInterest(row.balance(), annualRates.get(row.accountType()));
+            if (interest.signum() <= 0) {
+                continue;
+            }
+            posted = posted.add(interest);
+            if (row.customerId() != null) {
+                customerIds.add(row.customerId());
+            }
+            updates.add(this.databaseClient.sql("update account set balance = :balance, version = version + 1 where id = :id")
+                    .bind("balance", row.balance().add(interest))
+                    .bind("id", row.id())
+                    .fetch()
+                    .rowsUpdated());
+        }
+        long lastId = rows.get(rows.size() - 1).id();
+        // Every checkpoint also renews the lease
+        LocalDateTime now = LocalDateTime.now();
+        Mono<Long> checkpoint = this.databaseClient.sql("update interest_partition set last_processed_id = :lastId, " +
+                        "accounts_processed = accounts_processed + :rows, interest_posted = interest_posted + :posted, " +
+                        "lease_until = :leaseUntil, updated_at = :now where id = :id and lease_owner = :owner")
+                .bind("lastId", lastId)
+                .bind("rows", rows.size())
+                .bind("posted", posted)
+                .bind("leaseUntil", now.plus(lease))
+                .bind("now", now)
+                .bind("id", partition.getId())
+                .bind("owner", owner)
+                .fetch()
+                .rowsUpdated();
+        return Flux.concat(updates).then(checkpoint).thenReturn(new ChunkResult(rows.size(), customerIds));
+    }
+
+    private record AccountRow(Long id, Long customerId, String accountType, BigDecimal balance) {
+    }
+
+    private record ChunkResult(int rows, Set<Long> customerIds) {
+    }
+
+    private static class LeaseLostException extends RuntimeException {
+    }
+
+    private void invalidate(Long customerId) {
+        if (this.customerCacheInvalidator != null) {
+            this.customerCacheInvalidator.invalidate(customerId);
+        }
+    }
+
+    private BigDecimal dailyInterest(BigDecimal balance, BigDecimal annualRate) {
+        if (balance == null || annualRate == null || balance.signum() <= 0) {
+            return BigDecimal.ZERO;
+        }
+        return balance.multiply(annualRate, RATE_CONTEXT)
+                .divide(BigDecimal.valueOf(daysPerYear), RATE_CONTEXT)
+                .setScale(MONEY_SCALE, RoundingMode.HALF_EVEN);
+    }
+}
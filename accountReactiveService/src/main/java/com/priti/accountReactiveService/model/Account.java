@@ -0,0 +1,32 @@
+package com.priti.accountReactiveService.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Same table and columns as the JPA entity of accountService, so a deployment can switch editions on its database
+@Table("account")
+@Data
+public class Account {
+    public static final String ID_GENERATOR_TABLE = "account_id_generator";
+    public static final int ID_ALLOCATION_SIZE = 100;
+
+    // Assigned from the shared pooled id table before insert (see AccountIdAllocator)
+    @Id
+    private Long id;
+    private String accountNumber;
+    private String accountType; // e.g., SAVINGS, CURRENT
+    private BigDecimal balance;
+
+    private Long customerId; // Foreign key to Customer
+
+    // Optimistic locking; a null version marks the entity as new, so inserts work with a pre-assigned id
+    @Version
+    private Long version;
+
+    private LocalDateTime createdAt;
+}
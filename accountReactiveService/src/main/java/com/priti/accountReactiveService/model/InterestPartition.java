@@ -0,0 +1,31 @@
+package com.priti.accountReactiveService.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// An id range of one run; lastProcessedId is committed together with each chunk's balance updates
+@Table("interest_partition")
+@Data
+public class InterestPartition {
+    public enum Status { PENDING, RUNNING, COMPLETED, FAILED }
+
+    @Id
+    private Long id;
+    private Long runId;
+    private int partitionIndex;
+    private long fromId;
+    private long toId;
+    private long lastProcessedId;
+    private long accountsProcessed;
+    private BigDecimal interestPosted;
+    private Status status;
+    // The worker that claimed it; its lease is extended with every chunk and a partition whose lease ran out
+    // (the worker died) can be claimed again
+    private String leaseOwner;
+    private LocalDateTime leaseUntil;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,28 @@
+package com.priti.accountReactiveService.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Same table as accountService's InterestRun entity; the unique business date keeps a day from being accrued twice
+@Table("interest_run")
+@Data
+public class InterestRun {
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    @Id
+    private Long id;
+    private LocalDate businessDate;
+    private Status status;
+    private int partitions;
+    private long accountsProcessed;
+    private BigDecimal interestPosted;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private Long durationMillis; // of the last execution, which may have resumed earlier work
+    private Double accountsPerSecond;
+}
@@ -0,0 +1,43 @@
+package com.priti.accountReactiveService.repository;
+
+import com.priti.accountReactiveService.model.Account;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+// Reactive counterpart of accountService's AccountRepository; Flux results are streamed from the driver with backpressure
+public interface AccountRepository extends ReactiveCrudRepository<Account, Long> {
+    Flux<Account> findByCustomerId(Long customerId);
+    Flux<Account> findByCustomerIdIn(Collection<Long> customerIds);
+    Flux<Account> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+    Mono<Account> findByAccountNumber(String accountNumber);
+    Mono<Boolean> existsByAccountNumber(String accountNumber);
+
+    @Query("select account_number from account where account_number in (:accountNumbers)")
+    Flux<String> findExistingAccountNumbers(Collection<String> accountNumbers);
+
+    // Locks are taken in id order, so two transfers between the same accounts cannot deadlock
+    @Query("select * from account where id in (:ids) order by id for update")
+    Flux<Account> findAllByIdForUpdate(Collection<Long> ids);
+
+    Flux<Account> findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(Long afterId, Long toId, Limit limit);
+    Flux<Account> findByCustomerIdAndIdGreaterThanOrderByIdAsc(Long customerId, Long afterId, Limit limit);
+
+    @Query("select * from account order by id")
+    Flux<Account> streamAll();
+
+    @Query("select * from account where customer_id = :customerId order by id")
+    Flux<Account> streamByCustomerId(Long customerId);
+
+    // Single conditional UPDATE: no lost updates, and the balance can never go negative
+    @Modifying
+    @Query("update account set balance = balance + :delta, version = version + 1 " +
+            "where id = :id and balance + :delta >= 0")
+    Mono<Integer> applyBalanceDelta(Long id, BigDecimal delta);
+}
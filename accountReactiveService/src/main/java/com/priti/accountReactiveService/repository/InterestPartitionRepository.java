@@ -0,0 +1,33 @@
+package com.priti.accountReactiveService.repository;
+
+import com.priti.accountReactiveService.model.InterestPartition;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+public interface InterestPartitionRepository extends ReactiveCrudRepository<InterestPartition, Long> {
+    Flux<InterestPartition> findByRunIdOrderByPartitionIndex(Long runId);
+
+    // Atomic claim, so instances working on the same run never process a partition twice. A RUNNING partition is
+    // only taken over once its owner stopped renewing the lease.
+    @Modifying
+    @Query("update interest_partition set status = 'RUNNING', lease_owner = :owner, lease_until = :leaseUntil, " +
+            "updated_at = :now where id = :id and (status in ('PENDING', 'FAILED') " +
+            "or (status = 'RUNNING' and lease_until < :now))")
+    Mono<Integer> claim(Long id, String owner, LocalDateTime leaseUntil, LocalDateTime now);
+
+    // Only the current owner may finish a partition; a worker that lost its lease leaves it alone
+    @Modifying
+    @Query("update interest_partition set status = :status, updated_at = :now where id = :id and lease_owner = :owner")
+    Mono<Integer> updateStatus(Long id, String owner, String status, LocalDateTime now);
+
+    // For resuming after a crash: partitions left RUNNING by a dead process, whose lease ran out, become claimable
+    @Modifying
+    @Query("update interest_partition set status = 'PENDING' where run_id = :runId and status = 'RUNNING' " +
+            "and lease_until < :now")
+    Mono<Integer> releaseExpired(Long runId, LocalDateTime now);
+}
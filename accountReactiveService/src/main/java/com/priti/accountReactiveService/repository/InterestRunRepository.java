@@ -0,0 +1,11 @@
+package com.priti.accountReactiveService.repository;
+
+import com.priti.accountReactiveService.model.InterestRun;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+public interface InterestRunRepository extends ReactiveCrudRepository<InterestRun, Long> {
+    Mono<InterestRun> findByBusinessDate(LocalDate businessDate);
+}
@@ -0,0 +1,10 @@
+package com.priti.accountReactiveService.service;
+
+import com.priti.accountReactiveService.dto.BulkDeleteResponse;
+import reactor.core.publisher.Mono;
+
+public interface AccountAdminService {
+    Mono<BulkDeleteResponse> deleteAccountsInRange(Long fromId, Long toId);
+    Mono<BulkDeleteResponse> deleteAccountsOfCustomer(Long customerId);
+    Mono<BulkDeleteResponse> deleteAllAccounts();
+}
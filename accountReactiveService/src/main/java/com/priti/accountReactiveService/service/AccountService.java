@@ -0,0 +1,29 @@
+package com.priti.accountReactiveService.service;
+import com.priti.accountReactiveService.dto.BulkCreateResponse;
+import com.priti.accountReactiveService.dto.CursorPage;
+import com.priti.accountReactiveService.model.Account;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface AccountService {
+    Mono<Account> createAccount(Account account);
+    Mono<BulkCreateResponse> createAccounts(List<Account> accounts);
+    Mono<Account> getAccountById(Long id);
+    Mono<Account> getAccountByAccountNumber(String accountNumber);
+    Flux<Account> getAllAccounts();
+    Mono<Long> countAccounts();
+    Mono<CursorPage<Account>> getAccountsPage(Long afterId, int size);
+    Flux<Account> streamAllAccounts();
+    Flux<Account> getAccountsOfCustomer(Long customerId);
+    Flux<Account> streamAccountsOfCustomer(Long customerId);
+    Mono<Map<Long, List<Account>>> getAccountsOfCustomers(Collection<Long> customerIds);
+    Mono<Account> updateAccountBalance(Long id, BigDecimal balance);
+    Mono<Account> creditAccount(Long id, BigDecimal amount);
+    Mono<Account> debitAccount(Long id, BigDecimal amount);
+    Mono<Void> deleteAccount(Long id);
+}
@@ -0,0 +1,11 @@
+package com.priti.accountReactiveService.service;
+
+import com.priti.accountReactiveService.dto.BalanceStats;
+import com.priti.accountReactiveService.dto.PortfolioStats;
+import reactor.core.publisher.Mono;
+
+public interface AccountStatsService {
+    Mono<PortfolioStats> getStats();
+    Mono<BalanceStats> getAccountTypeStats(String accountType);
+    Mono<BalanceStats> getCustomerStats(Long customerId);
+}
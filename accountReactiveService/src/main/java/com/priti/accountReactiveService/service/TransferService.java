@@ -0,0 +1,9 @@
+package com.priti.accountReactiveService.service;
+
+import com.priti.accountReactiveService.dto.TransferRequest;
+import com.priti.accountReactiveService.dto.TransferResult;
+import reactor.core.publisher.Mono;
+
+public interface TransferService {
+    Mono<TransferResult> transfer(TransferRequest request);
+}
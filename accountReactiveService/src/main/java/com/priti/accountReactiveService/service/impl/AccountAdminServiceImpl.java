@@ -0,0 +1,95 @@
+package com.priti.accountReactiveService.service.impl;
+
+import com.priti.accountReactiveService.dto.BulkDeleteResponse;
+import com.priti.accountReactiveService.event.CustomerCacheInvalidator;
+import com.priti.accountReactiveService.model.Account;
+import com.priti.accountReactiveService.repository.AccountRepository;
+import com.priti.accountReactiveService.service.AccountAdminService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+// Same set-based deletes as accountService's admin endpoints: range and customer deletes run one short transaction
+// per chunk, so they never hold locks on the whole table; a full reset truncates.
+@Service
+@Slf4j
+public class AccountAdminServiceImpl implements AccountAdminService {
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    // Absent when account.customer-cache-invalidation.enabled=false
+    @Autowired(required = false)
+    private CustomerCacheInvalidator customerCacheInvalidator;
+
+    @Value("${account.admin.delete-chunk-size:5000}")
+    private int deleteChunkSize;
+
+    @Override
+    public Mono<BulkDeleteResponse> deleteAccountsInRange(Long fromId, Long toId) {
+        if (fromId == null || toId == null || fromId > toId) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "fromId must not be greater than toId"));
+        }
+        return deleteInChunks(fromId - 1, afterId ->
+                this.accountRepository.findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(afterId, toId, Limit.of(deleteChunkSize)));
+    }
+
+    @Override
+    public Mono<BulkDeleteResponse> deleteAccountsOfCustomer(Long customerId) {
+        return deleteInChunks(0L, afterId ->
+                this.accountRepository.findByCustomerIdAndIdGreaterThanOrderByIdAsc(customerId, afterId, Limit.of(deleteChunkSize)));
+    }
+
+    @Override
+    public Mono<BulkDeleteResponse> deleteAllAccounts() {
+        return this.accountRepository.count()
+                .flatMap(count -> this.databaseClient.sql("truncate table account").then()
+                        .then(Mono.fromRunnable(() -> {
+                            // A reset may touch every customer, so their whole cache is dropped
+                            if (this.customerCacheInvalidator != null) {
+                                this.customerCacheInvalidator.invalidateAll();
+                            }
+                            log.info("Truncated account table ({} accounts)", count);
+                        }))
+                        .thenReturn(new BulkDeleteResponse(count)));
+    }
+
+    private Mono<BulkDeleteResponse> deleteInChunks(long afterId, LongFunction<Flux<Account>> nextChunk) {
+        AtomicLong cursor = new AtomicLong(afterId);
+        return Mono.defer(() -> nextChunk.apply(cursor.get()).collectList())
+                .flatMap(chunk -> chunk.isEmpty() ? Mono.just(0) : deleteChunk(chunk).doOnSuccess(done ->
+                        cursor.set(chunk.get(chunk.size() - 1).getId())).thenReturn(chunk.size()))
+                .repeat()
+                .takeUntil(deleted -> deleted < deleteChunkSize)
+                .reduce(0L, Long::sum)
+                .map(BulkDeleteResponse::new);
+    }
+
+    private Mono<Void> deleteChunk(List<Account> chunk) {
+        return this.accountRepository.deleteAllById(chunk.stream().map(Account::getId).toList())
+                .as(this.transactionalOperator::transactional)
+                // Only once committed, same as single deletes
+                .doOnSuccess(done -> {
+                    if (this.customerCacheInvalidator != null) {
+                        chunk.forEach(account -> this.customerCacheInvalidator.invalidate(account.getCustomerId()));
+                    }
+                });
+    }
+}
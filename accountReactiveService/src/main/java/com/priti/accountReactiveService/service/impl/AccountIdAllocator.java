@@ -0,0 +1,89 @@
+package com.priti.accountReactiveService.service.impl;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.priti.accountReactiveService.model.Account.ID_ALLOCATION_SIZE;
+import static com.priti.accountReactiveService.model.Account.ID_GENERATOR_TABLE;
+
+// Hands out ids from the same table and in the same blocks as Hibernate's pooled generator in accountService
+// (read next_val, bump it by the allocation size, use the block ending at the value read), so both editions
+// can share a database. Concurrent refills each take their own block; unused ids only leave a gap.
+@Component
+public class AccountIdAllocator {
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final AtomicReference<IdBlock> current = new AtomicReference<>(new IdBlock(1, 0));
+
+    public AccountIdAllocator(DatabaseClient databaseClient, ReactiveTransactionManager transactionManager) {
+        this.databaseClient = databaseClient;
+        // Own short transaction, like Hibernate's table generator, so a long bulk insert doesn't hold the row lock
+        this.transactionalOperator = TransactionalOperator.create(transactionManager,
+                new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+    }
+
+    public Mono<Long> nextId() {
+        return Mono.defer(() -> {
+            long id = this.current.get().next();
+            if (id != IdBlock.EXHAUSTED) {
+                return Mono.just(id);
+            }
+            return fetchBlock().map(block -> {
+                long first = block.next();
+                this.current.set(block);
+                return first;
+            });
+        });
+    }
+
+    private Mono<IdBlock> fetchBlock() {
+        return this.databaseClient.sql("select next_val from " + ID_GENERATOR_TABLE + " where sequence_name = 'account' for update")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .flatMap(nextVal -> this.databaseClient.sql("update " + ID_GENERATOR_TABLE + " set next_val = :nextVal where sequence_name = 'account'")
+                        .bind("nextVal", nextVal + ID_ALLOCATION_SIZE)
+                        .fetch()
+                        .rowsUpdated()
+                        .thenReturn(new IdBlock(nextVal - ID_ALLOCATION_SIZE + 1, nextVal)))
+                .as(this.transactionalOperator::transactional)
+                .switchIfEmpty(Mono.defer(() -> initialize().then(fetchBlock())));
+    }
+
+    // Fresh database: start past any existing ids, like accountService's IdGeneratorAligner
+    private Mono<Void> initialize() {
+        return this.databaseClient.sql("select coalesce(max(id), 0) from account")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .flatMap(maxId -> this.databaseClient.sql("insert into " + ID_GENERATOR_TABLE + " (sequence_name, next_val) values ('account', :nextVal)")
+                        .bind("nextVal", maxId + ID_ALLOCATION_SIZE + 1)
+                        .then())
+                // Another instance initialized it first
+                .onErrorResume(DataIntegrityViolationException.class, e -> Mono.empty());
+    }
+
+    private static class IdBlock {
+        static final long EXHAUSTED = Long.MIN_VALUE;
+
+        private final AtomicLong next;
+        private final long last;
+
+        IdBlock(long first, long last) {
+            this.next = new AtomicLong(first);
+            this.last = last;
+        }
+
+        long next() {
+            long id = this.next.getAndIncrement();
+            return id <= this.last ? id : EXHAUSTED;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.priti.accountReactiveService.service.impl;
+
+import com.priti.accountReactiveService.dto.BulkCreateResponse;
+import com.priti.accountReactiveService.dto.BulkCreateResult;
+import com.priti.accountReactiveService.dto.CursorPage;
+import com.priti.accountReactiveService.event.CustomerCacheInvalidator;
+import com.priti.accountReactiveService.model.Account;
+import com.priti.accountReactiveService.repository.AccountRepository;
+import com.priti.accountReactiveService.service.AccountService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class AccountServiceImpl implements AccountService {
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountIdAllocator accountIdAllocator;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    @Autowired
+    private BalanceUpdateRetry balanceUpdateRetry;
+
+    // Absent when account.customer-cache-invalidation.enabled=false
+    @Autowired(required = false)
+    private CustomerCacheInvalidator customerCacheInvalidator;
+
+    @Value("${account.bulk.max-size:10000}")
+    private int bulkMaxSize;
+
+    @Value("${account.bulk.lookup-chunk-size:500}")
+    private int lookupChunkSize;
+
+
+    @Override
+    public Mono<Account> createAccount(Account account) {
+        Mono<Boolean> exists = account.getAccountNumber() == null ? Mono.just(false)
+                : this.accountRepository.existsByAccountNumber(account.getAccountNumber());
+        return exists
+                .flatMap(duplicate -> duplicate ? Mono.error(accountNumberExists()) : insert(account))
+                // Lost a race with a concurrent create: the unique index has the final word
+                .onErrorMap(DuplicateKeyException.class, e -> accountNumberExists())
+                .doOnNext(saved -> invalidate(saved.getCustomerId()));
+    }
+
+    @Override
+    public Mono<BulkCreateResponse> createAccounts(List<Account> accounts) {
+        if (accounts.size() > bulkMaxSize) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + bulkMaxSize + " accounts per request"));
+        }
+        List<String> numbers = accounts.stream().map(Account::getAccountNumber).filter(Objects::nonNull).toList();
+        // Reject duplicate account numbers up front so one bad row doesn't roll back the whole batch
+        return Flux.range(0, (numbers.size() + lookupChunkSize - 1) / lookupChunkSize)
+                .concatMap(chunk -> this.accountRepository.findExistingAccountNumbers(
+                        numbers.subList(chunk * lookupChunkSize, Math.min((chunk + 1) * lookupChunkSize, numbers.size()))))
+                .collect(Collectors.<String, Set<String>>toCollection(HashSet::new))
+                .flatMapMany(existingNumbers -> Flux.range(0, accounts.size()).concatMap(i -> {
+                    Account account = accounts.get(i);
+                    if (account.getAccountNumber() != null && !existingNumbers.add(account.getAccountNumber())) {
+                        return Mono.just(new BulkCreateResult(i, null, "Account number already exists"));
+                    }
+                    return insert(account).map(saved -> new BulkCreateResult(i, saved.getId(), null));
+                }))
+                .collectList()
+                .map(results -> {
+                    long failed = results.stream().filter(result -> result.getError() != null).count();
+                    return new BulkCreateResponse(accounts.size(), (int) (accounts.size() - failed), (int) failed, results);
+                })
+                .as(this.transactionalOperator::transactional)
+                // Only once the batch is committed, so a customer-side reload cannot miss the new accounts
+                .doOnNext(response -> response.getResults().stream().filter(result -> result.getError() == null)
+                        .forEach(result -> invalidate(accounts.get(result.getIndex()).getCustomerId())));
+    }
+
+    private Mono<Account> insert(Account account) {
+        return this.accountIdAllocator.nextId().flatMap(id -> {
+            account.setId(id);
+            account.setVersion(null);
+            account.setCreatedAt(LocalDateTime.now());
+            return this.accountRepository.save(account);
+        });
+    }
+
+    @Override
+    public Mono<Account> getAccountById(Long id) {
+        return this.accountRepository.findById(id).switchIfEmpty(Mono.error(() -> new RuntimeException("Account not found")));
+    }
+
+    @Override
+    public Mono<Account> getAccountByAccountNumber(String accountNumber) {
+        return this.accountRepository.findByAccountNumber(accountNumber)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Account not found")));
+    }
+
+    @Override
+    public Flux<Account> getAllAccounts() {
+        return this.accountRepository.findAll();
+    }
+
+    @Override
+    public Mono<Long> countAccounts() {
+        return this.accountRepository.count();
+    }
+
+    @Override
+    public Mono<CursorPage<Account>> getAccountsPage(Long afterId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return this.accountRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(pageSize))
+                .collectList()
+                .map(accounts -> new CursorPage<>(accounts,
+                        accounts.size() < pageSize ? null : accounts.get(accounts.size() - 1).getId()));
+    }
+
+    @Override
+    public Flux<Account> streamAllAccounts() {
+        return this.accountRepository.streamAll();
+    }
+
+    @Override
+    public Flux<Account> getAccountsOfCustomer(Long customerId) {
+        return this.accountRepository.findByCustomerId(customerId);
+    }
+
+    @Override
+    public Flux<Account> streamAccountsOfCustomer(Long customerId) {
+        return this.accountRepository.streamByCustomerId(customerId);
+    }
+
+    @Override
+    public Mono<Map<Long, List<Account>>> getAccountsOfCustomers(Collection<Long> customerIds) {
+        if (customerIds.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        // One IN query for the whole batch, grouped by owner
+        return this.accountRepository.findByCustomerIdIn(customerIds).collect(Collectors.groupingBy(Account::getCustomerId));
+    }
+
+    @Override
+    public Mono<Account> updateAccountBalance(Long id, BigDecimal balance) {
+        return this.accountRepository.findById(id)
+                .flatMap(account -> {
+                    account.setBalance(balance);
+                    // The version check turns a concurrent write into a retry instead of a lost update
+                    return this.accountRepository.save(account);
+                })
+                .retryWhen(this.balanceUpdateRetry.spec())
+                .doOnNext(saved -> invalidate(saved.getCustomerId()));
+    }
+
+    @Override
+    public Mono<Account> creditAccount(Long id, BigDecimal amount) {
+        return requirePositive(amount).flatMap(delta -> applyBalanceDelta(id, delta));
+    }
+
+    @Override
+    public Mono<Account> debitAccount(Long id, BigDecimal amount) {
+        return requirePositive(amount).flatMap(delta -> applyBalanceDelta(id, delta.negate()));
+    }
+
+    private Mono<Account> applyBalanceDelta(Long id, BigDecimal delta) {
+        return this.accountRepository.applyBalanceDelta(id, delta)
+                .retryWhen(this.balanceUpdateRetry.spec())
+                .flatMap(updated -> updated > 0 ? getAccountById(id) : this.accountRepository.existsById(id)
+                        .flatMap(exists -> Mono.error(exists
+                                ? new ResponseStatusException(HttpStatus.CONFLICT, "Insufficient funds")
+                                : new RuntimeException("Account not found"))))
+                .doOnNext(account -> invalidate(account.getCustomerId()));
+    }
+
+    private Mono<BigDecimal> requirePositive(BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Amount must be positive"));
+        }
+        return Mono.just(amount);
+    }
+
+    @Override
+    public Mono<Void> deleteAccount(Long id) {
+        return this.accountRepository.findById(id)
+                .flatMap(account -> this.accountRepository.delete(account)
+                        .doOnSuccess(done -> invalidate(account.getCustomerId())));
+    }
+
+    private void invalidate(Long customerId) {
+        if (this.customerCacheInvalidator != null) {
+            this.customerCacheInvalidator.invalidate(customerId);
+        }
+    }
+
+    private static ResponseStatusException accountNumberExists() {
+        return new ResponseStatusException(HttpStatus.CONFLICT, "Account number already exists");
+    }
+}
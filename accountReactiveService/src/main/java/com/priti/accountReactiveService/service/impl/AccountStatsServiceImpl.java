@@ -0,0 +1,101 @@
+package com.priti.accountReactiveService.service.impl;
+
+import com.priti.accountReactiveService.dto.BalanceStats;
+import com.priti.accountReactiveService.dto.PortfolioStats;
+import com.priti.accountReactiveService.service.AccountStatsService;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Same payloads as accountService's stats, but computed with aggregate queries on every call instead of kept in
+// memory: there is nothing to reconcile, so every answer is as of its own read
+@Service
+public class AccountStatsServiceImpl implements AccountStatsService {
+    private static final String UNSPECIFIED_TYPE = "UNSPECIFIED";
+    private static final String AGGREGATES = "count(*) as accounts, coalesce(sum(balance), 0) as total, " +
+            "min(balance) as min_balance, max(balance) as max_balance from account";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Override
+    public Mono<PortfolioStats> getStats() {
+        return this.databaseClient.sql("select account_type, " + AGGREGATES + " group by account_type")
+                .map(row -> Map.entry(typeOf(row.get("account_type", String.class)), toStats(row)))
+                .all()
+                .collectList()
+                .map(rows -> {
+                    Map<String, BalanceStats> byType = new TreeMap<>();
+                    BalanceStats total = emptyStats();
+                    for (Map.Entry<String, BalanceStats> row : rows) {
+                        byType.merge(row.getKey(), row.getValue(), AccountStatsServiceImpl::combine);
+                        total = combine(total, row.getValue());
+                    }
+                    return new PortfolioStats(total, byType, Instant.now());
+                });
+    }
+
+    @Override
+    public Mono<BalanceStats> getAccountTypeStats(String accountType) {
+        // Accounts without a type are reported as UNSPECIFIED, so that is also how they are asked for
+        if (UNSPECIFIED_TYPE.equals(accountType)) {
+            return aggregate(this.databaseClient.sql("select " + AGGREGATES + " where account_type is null"));
+        }
+        return aggregate(this.databaseClient.sql("select " + AGGREGATES + " where account_type = :accountType")
+                .bind("accountType", accountType));
+    }
+
+    @Override
+    public Mono<BalanceStats> getCustomerStats(Long customerId) {
+        return aggregate(this.databaseClient.sql("select " + AGGREGATES + " where customer_id = :customerId")
+                .bind("customerId", customerId));
+    }
+
+    private Mono<BalanceStats> aggregate(DatabaseClient.GenericExecuteSpec query) {
+        return query.map(AccountStatsServiceImpl::toStats).one().defaultIfEmpty(emptyStats());
+    }
+
+    private static BalanceStats toStats(Readable row) {
+        long accounts = row.get("accounts", Long.class);
+        if (accounts == 0) {
+            return emptyStats();
+        }
+        return new BalanceStats(accounts, row.get("total", BigDecimal.class),
+                row.get("min_balance", BigDecimal.class), row.get("max_balance", BigDecimal.class));
+    }
+
+    private static BalanceStats combine(BalanceStats a, BalanceStats b) {
+        if (a.getCount() == 0) {
+            return b;
+        }
+        if (b.getCount() == 0) {
+            return a;
+        }
+        return new BalanceStats(a.getCount() + b.getCount(), a.getSum().add(b.getSum()),
+                min(a.getMin(), b.getMin()), max(a.getMax(), b.getMax()));
+    }
+
+    // Accounts without a balance count but have no min or max
+    private static BigDecimal min(BigDecimal a, BigDecimal b) {
+        return a == null ? b : b == null ? a : a.min(b);
+    }
+
+    private static BigDecimal max(BigDecimal a, BigDecimal b) {
+        return a == null ? b : b == null ? a : a.max(b);
+    }
+
+    private static String typeOf(String accountType) {
+        return accountType == null ? UNSPECIFIED_TYPE : accountType;
+    }
+
+    private static BalanceStats emptyStats() {
+        return new BalanceStats(0L, new BigDecimal("0.00"), null, null);
+    }
+}
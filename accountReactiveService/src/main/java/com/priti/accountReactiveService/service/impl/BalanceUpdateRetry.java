@@ -0,0 +1,24 @@
+package com.priti.accountReactiveService.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+// Optimistic-lock conflicts, lock wait timeouts and deadlocks, with jittered exponential backoff
+@Component
+public class BalanceUpdateRetry {
+    @Value("${account.balance.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${account.balance.retry-backoff:10ms}")
+    private Duration backoff;
+
+    public Retry spec() {
+        return Retry.backoff(this.maxAttempts - 1, this.backoff)
+                .filter(ConcurrencyFailureException.class::isInstance)
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+}
@@ -0,0 +1,109 @@
+package com.priti.accountReactiveService.service.impl;
+
+import com.priti.accountReactiveService.dto.TransferRequest;
+import com.priti.accountReactiveService.dto.TransferResult;
+import com.priti.accountReactiveService.event.CustomerCacheInvalidator;
+import com.priti.accountReactiveService.model.Account;
+import com.priti.accountReactiveService.repository.AccountRepository;
+import com.priti.accountReactiveService.service.TransferService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+// Same contract as accountService's transfers: both accounts are locked in id order inside one transaction. There is
+// no batching here; concurrent transfers are just concurrent transactions on the connection pool.
+@Service
+public class TransferServiceImpl implements TransferService {
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    @Autowired
+    private BalanceUpdateRetry balanceUpdateRetry;
+
+    // Absent when account.customer-cache-invalidation.enabled=false
+    @Autowired(required = false)
+    private CustomerCacheInvalidator customerCacheInvalidator;
+
+    @Override
+    public Mono<TransferResult> transfer(TransferRequest request) {
+        ResponseStatusException invalid = validate(request);
+        if (invalid != null) {
+            return Mono.error(invalid);
+        }
+        return Mono.defer(() -> execute(request))
+                .as(this.transactionalOperator::transactional)
+                .retryWhen(this.balanceUpdateRetry.spec())
+                .flatMap(outcome -> {
+                    TransferResult result = outcome.result();
+                    return switch (result.getStatus()) {
+                        case ACCOUNT_NOT_FOUND -> Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Account not found"));
+                        case INSUFFICIENT_FUNDS -> Mono.error(new ResponseStatusException(HttpStatus.CONFLICT, "Insufficient funds"));
+                        default -> {
+                            // Only once committed, so a customer-side reload cannot miss the new balances
+                            outcome.changedAccounts().forEach(account -> invalidate(account.getCustomerId()));
+                            yield Mono.just(result);
+                        }
+                    };
+                });
+    }
+
+    private record Outcome(TransferResult result, List<Account> changedAccounts) {
+    }
+
+    private Mono<Outcome> execute(TransferRequest request) {
+        return this.accountRepository.findAllByIdForUpdate(List.of(request.getFromAccountId(), request.getToAccountId()))
+                .collectMap(Account::getId)
+                .flatMap(accounts -> apply(request, accounts));
+    }
+
+    private Mono<Outcome> apply(TransferRequest request, Map<Long, Account> accounts) {
+        Account from = accounts.get(request.getFromAccountId());
+        Account to = accounts.get(request.getToAccountId());
+        if (from == null || to == null) {
+            return Mono.just(new Outcome(rejected(request, TransferResult.Status.ACCOUNT_NOT_FOUND), List.of()));
+        }
+        if (from.getBalance() == null || from.getBalance().compareTo(request.getAmount()) < 0) {
+            return Mono.just(new Outcome(rejected(request, TransferResult.Status.INSUFFICIENT_FUNDS), List.of()));
+        }
+        from.setBalance(from.getBalance().subtract(request.getAmount()));
+        to.setBalance(to.getBalance() == null ? request.getAmount() : to.getBalance().add(request.getAmount()));
+        return Flux.concat(this.accountRepository.save(from), this.accountRepository.save(to))
+                .collectList()
+                .map(saved -> new Outcome(new TransferResult(request.getFromAccountId(), request.getToAccountId(),
+                        request.getAmount(), TransferResult.Status.COMPLETED, from.getBalance(), to.getBalance()), saved));
+    }
+
+    private ResponseStatusException validate(TransferRequest request) {
+        if (request.getFromAccountId() == null || request.getToAccountId() == null) {
+            return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Both account ids are required");
+        }
+        if (request.getFromAccountId().equals(request.getToAccountId())) {
+            return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot transfer to the same account");
+        }
+        if (request.getAmount() == null || request.getAmount().signum() <= 0) {
+            return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Amount must be positive");
+        }
+        return null;
+    }
+
+    private TransferResult rejected(TransferRequest request, TransferResult.Status status) {
+        return new TransferResult(request.getFromAccountId(), request.getToAccountId(), request.getAmount(),
+                status, null, null);
+    }
+
+    private void invalidate(Long customerId) {
+        if (this.customerCacheInvalidator != null) {
+            this.customerCacheInvalidator.invalidate(customerId);
+        }
+    }
+}
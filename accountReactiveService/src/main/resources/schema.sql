@@ -0,0 +1,51 @@
+-- Same layout Hibernate creates for accountService's Account entity; a no-op when the tables already exist
+create table if not exists account (
+    id bigint not null,
+    account_number varchar(255),
+    account_type varchar(255),
+    balance decimal(38, 2),
+    customer_id bigint,
+    version bigint default 0 not null,
+    created_at datetime(6),
+    primary key (id),
+    unique key idx_account_number (account_number),
+    key idx_account_customer_id (customer_id)
+);
+
+create table if not exists account_id_generator (
+    sequence_name varchar(255) not null,
+    next_val bigint,
+    primary key (sequence_name)
+);
+
+create table if not exists interest_run (
+    id bigint not null auto_increment,
+    business_date date,
+    status varchar(255),
+    partitions integer not null,
+    accounts_processed bigint not null,
+    interest_posted decimal(38, 2),
+    started_at datetime(6),
+    finished_at datetime(6),
+    duration_millis bigint,
+    accounts_per_second float(53),
+    primary key (id),
+    unique key uk_interest_run_business_date (business_date)
+);
+
+create table if not exists interest_partition (
+    id bigint not null auto_increment,
+    run_id bigint,
+    partition_index integer not null,
+    from_id bigint not null,
+    to_id bigint not null,
+    last_processed_id bigint not null,
+    accounts_processed bigint not null,
+    interest_posted decimal(38, 2),
+    status varchar(255),
+    lease_owner varchar(255),
+    lease_until datetime(6),
+    updated_at datetime(6),
+    primary key (id),
+    key idx_interest_partition_run_id (run_id)
+);
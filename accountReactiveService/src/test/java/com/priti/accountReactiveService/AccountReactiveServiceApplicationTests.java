@@ -0,0 +1,15 @@
+package com.priti.accountReactiveService;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountReactiveServiceApplicationTests {
+
+	@Test
+	void contextLoads() {
+	}
+
+}
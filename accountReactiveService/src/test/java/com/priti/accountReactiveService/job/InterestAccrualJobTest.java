@@ -0,0 +1,61 @@
+package com.priti.accountReactiveService.job;
+
+import com.priti.accountReactiveService.model.Account;
+import com.priti.accountReactiveService.model.InterestPartition;
+import com.priti.accountReactiveService.model.InterestRun;
+import com.priti.accountReactiveService.repository.AccountRepository;
+import com.priti.accountReactiveService.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {"account.interest.partitions=4", "account.interest.chunk-size=3"})
+@ActiveProfiles("test")
+class InterestAccrualJobTest {
+    @Autowired
+    private InterestAccrualJob interestAccrualJob;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void accruesEligibleAccountsOncePerBusinessDate() {
+        accountRepository.deleteAll().block();
+        for (int i = 0; i < 30; i++) {
+            String type = i % 3 == 0 ? "SAVINGS" : i % 3 == 1 ? "FIXED_DEPOSIT" : "CURRENT";
+            accountService.createAccount(account("INT" + i, type, type.equals("FIXED_DEPOSIT") ? "365.00" : "1000.00")).block();
+        }
+        LocalDate businessDate = LocalDate.of(2026, 1, 15);
+
+        InterestRun run = interestAccrualJob.run(businessDate).block();
+        assertEquals(InterestRun.Status.COMPLETED, run.getStatus());
+        assertEquals(20, run.getAccountsProcessed());
+        // 10 x 1000.00 * 3.5% / 365 = 0.10 each, 10 x 365.00 * 6.5% / 365 = 0.065 -> 0.06 each
+        assertEquals(0, new BigDecimal("1.60").compareTo(run.getInterestPosted()));
+        interestAccrualJob.getPartitions(run.getId()).toIterable()
+                .forEach(partition -> assertEquals(InterestPartition.Status.COMPLETED, partition.getStatus()));
+
+        // Running the same date again must not accrue twice
+        assertEquals(InterestRun.Status.COMPLETED, interestAccrualJob.start(businessDate).block().getStatus());
+        BigDecimal total = accountRepository.findAll().map(Account::getBalance).reduce(BigDecimal.ZERO, BigDecimal::add).block();
+        assertEquals(0, new BigDecimal("23651.60").compareTo(total));
+    }
+
+    private static Account account(String number, String type, String balance) {
+        Account account = new Account();
+        account.setAccountNumber(number);
+        account.setAccountType(type);
+        account.setCustomerId(1L);
+        account.setBalance(new BigDecimal(balance));
+        return account;
+    }
+}
@@ -0,0 +1,133 @@
+package com.priti.accountReactiveService.service.impl;
+
+import com.priti.accountReactiveService.dto.BalanceStats;
+import com.priti.accountReactiveService.dto.PortfolioStats;
+import com.priti.accountReactiveService.dto.TransferRequest;
+import com.priti.accountReactiveService.dto.TransferResult;
+import com.priti.accountReactiveService.model.Account;
+import com.priti.accountReactiveService.repository.AccountRepository;
+import com.priti.accountReactiveService.service.AccountAdminService;
+import com.priti.accountReactiveService.service.AccountService;
+import com.priti.accountReactiveService.service.AccountStatsService;
+import com.priti.accountReactiveService.service.TransferService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Transfers, stats and admin deletes, the routes this edition shares with accountService
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "account.admin.delete-chunk-size=3")
+class AccountOperationsTest {
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private AccountStatsService accountStatsService;
+
+    @Autowired
+    private AccountAdminService accountAdminService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @BeforeEach
+    void clear() {
+        this.accountRepository.deleteAll().block();
+    }
+
+    @Test
+    void transfersMoveMoneyAtomicallyAndNeverOverdraw() {
+        Long from = create("T1", 1L, "SAVINGS", "100.00");
+        Long to = create("T2", 2L, "CURRENT", "0.00");
+
+        TransferResult result = this.transferService.transfer(new TransferRequest(from, to, new BigDecimal("30.00"))).block();
+        assertEquals(TransferResult.Status.COMPLETED, result.getStatus());
+        assertEquals(0, new BigDecimal("70.00").compareTo(result.getFromBalance()));
+        assertEquals(0, new BigDecimal("30.00").compareTo(result.getToBalance()));
+
+        expectStatus(this.transferService.transfer(new TransferRequest(from, to, new BigDecimal("70.01"))), 409);
+        expectStatus(this.transferService.transfer(new TransferRequest(from, -1L, BigDecimal.ONE)), 404);
+        expectStatus(this.transferService.transfer(new TransferRequest(from, from, BigDecimal.ONE)), 400);
+        expectStatus(this.transferService.transfer(new TransferRequest(from, to, BigDecimal.ZERO)), 400);
+
+        // Both directions at once: locks are taken in id order, and the total is conserved
+        Flux.range(0, 100).flatMap(i -> this.transferService.transfer(i % 2 == 0
+                        ? new TransferRequest(from, to, BigDecimal.ONE) : new TransferRequest(to, from, BigDecimal.ONE))
+                .onErrorResume(ResponseStatusException.class, e -> Mono.empty()), 8).blockLast();
+        BigDecimal total = this.accountService.getAccountById(from).block().getBalance()
+                .add(this.accountService.getAccountById(to).block().getBalance());
+        assertEquals(0, new BigDecimal("100.00").compareTo(total));
+    }
+
+    @Test
+    void statsAggregateByTypeAndCustomer() {
+        create("S1", 1L, "SAVINGS", "10.00");
+        create("S2", 1L, "SAVINGS", "30.00");
+        create("S3", 2L, "CURRENT", "5.50");
+        create("S4", 2L, null, "1.00");
+
+        PortfolioStats stats = this.accountStatsService.getStats().block();
+        assertEquals(4, stats.getTotal().getCount());
+        assertEquals(0, new BigDecimal("46.50").compareTo(stats.getTotal().getSum()));
+        assertEquals(0, new BigDecimal("1.00").compareTo(stats.getTotal().getMin()));
+        assertEquals(0, new BigDecimal("30.00").compareTo(stats.getTotal().getMax()));
+        assertEquals(Set.of("CURRENT", "SAVINGS", "UNSPECIFIED"), stats.getByAccountType().keySet());
+        assertNotNull(stats.getReconciledAt());
+
+        BalanceStats savings = this.accountStatsService.getAccountTypeStats("SAVINGS").block();
+        assertEquals(2, savings.getCount());
+        assertEquals(0, new BigDecimal("40.00").compareTo(savings.getSum()));
+        assertEquals(1, this.accountStatsService.getAccountTypeStats("UNSPECIFIED").block().getCount());
+        assertEquals(2, this.accountStatsService.getCustomerStats(2L).block().getCount());
+
+        BalanceStats none = this.accountStatsService.getCustomerStats(99L).block();
+        assertEquals(0, none.getCount());
+        assertNull(none.getMin());
+    }
+
+    @Test
+    void adminDeletesInChunksAndTruncates() {
+        for (int i = 0; i < 8; i++) {
+            create("D" + i, i < 5 ? 1L : 2L, "SAVINGS", "1.00");
+        }
+        Long firstId = this.accountRepository.findAll().map(Account::getId).sort().blockFirst();
+
+        expectStatus(this.accountAdminService.deleteAccountsInRange(firstId + 1, firstId), 400);
+        assertEquals(4, this.accountAdminService.deleteAccountsInRange(firstId, firstId + 3).block().getDeleted());
+        assertEquals(1, this.accountAdminService.deleteAccountsOfCustomer(1L).block().getDeleted());
+        assertEquals(3L, this.accountService.countAccounts().block());
+        assertEquals(3, this.accountAdminService.deleteAllAccounts().block().getDeleted());
+        assertEquals(0L, this.accountService.countAccounts().block());
+    }
+
+    private Long create(String number, Long customerId, String type, String balance) {
+        Account account = new Account();
+        account.setAccountNumber(number);
+        account.setAccountType(type);
+        account.setCustomerId(customerId);
+        account.setBalance(new BigDecimal(balance));
+        return this.accountService.createAccount(account).block().getId();
+    }
+
+    private static void expectStatus(Mono<?> call, int status) {
+        StepVerifier.create(call)
+                .expectErrorMatches(e -> e instanceof ResponseStatusException rse && rse.getStatusCode().value() == status)
+                .verify();
+    }
+}
@@ -0,0 +1,101 @@
+package com.priti.accountReactiveService.service.impl;
+
+import com.priti.accountReactiveService.dto.BulkCreateResponse;
+import com.priti.accountReactiveService.model.Account;
+import com.priti.accountReactiveService.repository.AccountRepository;
+import com.priti.accountReactiveService.service.AccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountServiceImplTest {
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @BeforeEach
+    void clear() {
+        this.accountRepository.deleteAll().block();
+    }
+
+    @Test
+    void createsAccountsWithUniqueIdsAndRejectsDuplicateNumbers() {
+        Account created = this.accountService.createAccount(account("ACC1", 1L, "100.00")).block();
+        assertNotNull(created.getId());
+        assertEquals(0L, created.getVersion());
+
+        StepVerifier.create(this.accountService.createAccount(account("ACC1", 2L, "5.00")))
+                .expectErrorMatches(e -> e instanceof ResponseStatusException rse && rse.getStatusCode().value() == 409)
+                .verify();
+
+        BulkCreateResponse response = this.accountService.createAccounts(List.of(
+                account("ACC2", 1L, "1.00"), account("ACC1", 1L, "1.00"), account("ACC3", 2L, "1.00"),
+                account("ACC2", 2L, "1.00"))).block();
+        assertEquals(2, response.getCreated());
+        assertEquals(2, response.getFailed());
+        assertNotNull(response.getResults().get(0).getId());
+        assertEquals("Account number already exists", response.getResults().get(1).getError());
+        assertEquals("Account number already exists", response.getResults().get(3).getError());
+
+        // Concurrent creates draw from the shared id blocks without handing out an id twice
+        List<Account> accounts = Flux.range(0, 250)
+                .flatMap(i -> this.accountService.createAccount(account("PAR" + i, 3L, "1.00")), 32)
+                .collectList().block();
+        Set<Long> ids = new HashSet<>();
+        accounts.forEach(account -> assertTrue(ids.add(account.getId())));
+        assertEquals(253L, this.accountService.countAccounts().block());
+        assertEquals(2, this.accountService.getAccountsOfCustomers(List.of(1L, 2L)).block().size());
+    }
+
+    @Test
+    void creditAndDebitNeverOverdraw() {
+        Long id = this.accountService.createAccount(account("ACC9", 1L, "100.00")).block().getId();
+
+        assertEquals(0, new BigDecimal("150.00").compareTo(
+                this.accountService.creditAccount(id, new BigDecimal("50")).block().getBalance()));
+        StepVerifier.create(this.accountService.debitAccount(id, new BigDecimal("150.01")))
+                .expectErrorMatches(e -> e instanceof ResponseStatusException rse && rse.getStatusCode().value() == 409)
+                .verify();
+        StepVerifier.create(this.accountService.debitAccount(id, BigDecimal.ZERO))
+                .expectErrorMatches(e -> e instanceof ResponseStatusException rse && rse.getStatusCode().value() == 400)
+                .verify();
+        StepVerifier.create(this.accountService.creditAccount(-1L, BigDecimal.ONE))
+                .expectErrorMessage("Account not found")
+                .verify();
+
+        Flux.range(0, 100).flatMap(i -> this.accountService.debitAccount(id, BigDecimal.ONE)
+                .onErrorResume(ResponseStatusException.class, e -> Mono.empty()), 16).blockLast();
+        assertEquals(0, new BigDecimal("50.00").compareTo(this.accountService.getAccountById(id).block().getBalance()));
+
+        Account updated = this.accountService.updateAccountBalance(id, new BigDecimal("7.00")).block();
+        assertEquals(0, new BigDecimal("7.00").compareTo(updated.getBalance()));
+        this.accountService.deleteAccount(id).block();
+        StepVerifier.create(this.accountService.getAccountById(id)).expectErrorMessage("Account not found").verify();
+    }
+
+    private static Account account(String number, Long customerId, String balance) {
+        Account account = new Account();
+        account.setAccountNumber(number);
+        account.setAccountType("SAVINGS");
+        account.setCustomerId(customerId);
+        account.setBalance(new BigDecimal(balance));
+        return account;
+    }
+}
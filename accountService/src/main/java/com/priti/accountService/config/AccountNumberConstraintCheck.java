@@ -0,0 +1,69 @@
+package com.priti.accountService.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// The unique index on account_number is what turns a duplicate create into a 409 and keeps lookups by number to one
+// row. ddl-auto only logs it when it cannot create the index (duplicates already in the table), so it is checked
+// before the web server accepts requests: created when missing, and startup fails, listing the duplicates, if it
+// cannot be. Duplicates hold balances, so they are left for an operator to merge rather than deleted here.
+@Component
+@Slf4j
+public class AccountNumberConstraintCheck implements SmartInitializingSingleton {
+    static final String INDEX_NAME = "idx_account_number";
+    private static final int REPORTED_DUPLICATES = 20;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AccountNumberConstraintCheck(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (hasUniqueIndex()) {
+            return;
+        }
+        List<String> duplicates = this.jdbcTemplate.query(
+                "select account_number, count(*) as copies from account where account_number is not null " +
+                        "group by account_number having count(*) > 1 order by account_number limit " + REPORTED_DUPLICATES,
+                (rs, rowNum) -> rs.getString("account_number") + " (" + rs.getLong("copies") + " accounts)");
+        if (!duplicates.isEmpty()) {
+            throw new IllegalStateException("Unique index " + INDEX_NAME + " is missing and the account table has " +
+                    "duplicate account numbers, first " + duplicates.size() + ": " + String.join(", ", duplicates) +
+                    ". Merge or renumber them, then restart.");
+        }
+        this.jdbcTemplate.execute("create unique index " + INDEX_NAME + " on account (account_number)");
+        log.info("Created missing unique index {} on account.account_number", INDEX_NAME);
+    }
+
+    private boolean hasUniqueIndex() {
+        return Boolean.TRUE.equals(this.jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String table = metaData.storesUpperCaseIdentifiers() ? "ACCOUNT" : "account";
+            Map<String, List<String>> columnsByIndex = new HashMap<>();
+            try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), table, true, false)) {
+                while (indexes.next()) {
+                    String index = indexes.getString("INDEX_NAME");
+                    String column = indexes.getString("COLUMN_NAME");
+                    if (index != null && column != null) {
+                        columnsByIndex.computeIfAbsent(index, name -> new ArrayList<>()).add(column);
+                    }
+                }
+            }
+            // Any unique index on exactly this column will do, whatever it is called
+            return columnsByIndex.values().stream()
+                    .anyMatch(columns -> columns.size() == 1 && columns.get(0).equalsIgnoreCase("account_number"));
+        }));
+    }
+}
@@ -0,0 +1,64 @@
+package com.priti.accountService.config;
+
+import com.priti.accountService.datasource.ReadWriteRoutingDataSource;
+import com.priti.accountService.datasource.ReadYourWritesFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Only active when replicas are configured; otherwise Boot's single data source is used unchanged
+@Configuration
+@ConditionalOnExpression("!'${account.datasource.replica-urls:}'.isBlank()")
+public class DataSourceRoutingConfig {
+    @Value("${account.datasource.replica-urls}")
+    private List<String> replicaUrls;
+
+    @Value("${account.datasource.replica-health-check-interval:5s}")
+    private Duration healthCheckInterval;
+
+    @Value("${account.datasource.read-your-writes-window:2s}")
+    private Duration readYourWritesWindow;
+
+    @Bean(destroyMethod = "close")
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            // Replicas share the primary's credentials and driver
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replicaUrls.get(i).trim())
+                    .username(properties.determineUsername())
+                    .password(properties.determinePassword())
+                    .driverClassName(properties.determineDriverClassName())
+                    .build();
+            replica.setPoolName("replica-" + i);
+            replicas.add(replica);
+        }
+        return new ReadWriteRoutingDataSource(primary, replicas, healthCheckInterval, readYourWritesWindow);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter() {
+        return new FilterRegistrationBean<>(new ReadYourWritesFilter());
+    }
+}
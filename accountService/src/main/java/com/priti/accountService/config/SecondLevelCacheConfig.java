@@ -0,0 +1,119 @@
+package com.priti.accountService.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.priti.accountService.model.Account;
+import com.priti.accountService.repository.AccountRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.function.Function;
+
+// Hibernate second-level cache regions on a local Caffeine JCache. Every region is bounded and expires its entries,
+// except the update-timestamps region that query cache invalidation relies on. Region names are fixed, and a
+// region that is not created here fails startup instead of silently becoming an unbounded cache.
+// With read replicas configured the cache is off: a miss would be loaded from a lagging replica and cached as if it
+// were current, serving a stale balance to every reader until the entry expires.
+@Configuration
+@Slf4j
+public class SecondLevelCacheConfig {
+    // Per-table last-modified timestamps; losing one would let a stale cached query result through
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+    private static final String DEFAULT_QUERY_RESULTS_REGION = "default-query-results-region";
+
+    @Value("${account.cache.account.max-size:100000}")
+    private long accountMaxSize;
+
+    @Value("${account.cache.account.ttl:10m}")
+    private Duration accountTtl;
+
+    @Value("${account.cache.accounts-by-customer.max-size:50000}")
+    private long accountsByCustomerMaxSize;
+
+    @Value("${account.cache.accounts-by-customer.ttl:5m}")
+    private Duration accountsByCustomerTtl;
+
+    @Value("${account.datasource.replica-urls:}")
+    private String replicaUrls;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager() {
+        // One manager per application context, so contexts with different settings never share regions
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("account-l2-" + UUID.randomUUID()), getClass().getClassLoader());
+        cacheManager.createCache(Account.CACHE_REGION, region(accountMaxSize, accountTtl));
+        cacheManager.createCache(AccountRepository.ACCOUNTS_BY_CUSTOMER_REGION, region(accountsByCustomerMaxSize, accountsByCustomerTtl));
+        cacheManager.createCache(DEFAULT_QUERY_RESULTS_REGION, region(accountsByCustomerMaxSize, accountsByCustomerTtl));
+        CaffeineConfiguration<Object, Object> timestamps = new CaffeineConfiguration<>();
+        timestamps.setStoreByValue(false);
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, timestamps);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        if (!replicaUrls.isBlank()) {
+            log.info("Read replicas are configured, so the second-level and query caches are disabled");
+            return properties -> {
+                properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+                properties.put(AvailableSettings.USE_QUERY_CACHE, false);
+            };
+        }
+        return properties -> {
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    // Hit ratios per region, next to the hit/miss counters bound from Hibernate's statistics
+    @Bean
+    public MeterBinder secondLevelCacheHitRatios(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (!replicaUrls.isBlank()) {
+            return registry -> { };
+        }
+        return registry -> {
+            hitRatio("hibernate.second.level.cache.hit.ratio", Account.CACHE_REGION,
+                    statistics, s -> s.getDomainDataRegionStatistics(Account.CACHE_REGION)).register(registry);
+            hitRatio("hibernate.cache.query.hit.ratio", AccountRepository.ACCOUNTS_BY_CUSTOMER_REGION,
+                    statistics, s -> s.getQueryRegionStatistics(AccountRepository.ACCOUNTS_BY_CUSTOMER_REGION)).register(registry);
+        };
+    }
+
+    private static Gauge.Builder<Statistics> hitRatio(String name, String region, Statistics statistics,
+                                                      Function<Statistics, CacheRegionStatistics> regionStatistics) {
+        return Gauge.builder(name, statistics, s -> {
+                    CacheRegionStatistics stats = regionStatistics.apply(s);
+                    long requests = stats == null ? 0 : stats.getHitCount() + stats.getMissCount();
+                    return requests == 0 ? Double.NaN : (double) stats.getHitCount() / requests;
+                })
+                .tag("region", region);
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Hibernate caches immutable disassembled state, so copying entries on every access would only cost
+        configuration.setStoreByValue(false);
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        return configuration;
+    }
+}
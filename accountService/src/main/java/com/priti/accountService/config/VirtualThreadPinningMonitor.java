@@ -0,0 +1,70 @@
+package com.priti.accountService.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+// In virtual-thread mode, logs every virtual thread that stays pinned to its carrier (blocking inside a
+// synchronized block or a native frame) for longer than the threshold, with the frames that pinned it
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadPinningMonitor {
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+
+    @Value("${account.virtual-threads.pinned-threshold:20ms}")
+    private Duration threshold;
+
+    private final LongAdder pinnedCount = new LongAdder();
+    private RecordingStream stream;
+
+    @PostConstruct
+    public void start() {
+        if (Runtime.version().feature() < 21) {
+            log.warn("spring.threads.virtual.enabled is set but the service runs on Java {}; requests stay on platform threads",
+                    Runtime.version().feature());
+            return;
+        }
+        this.stream = new RecordingStream();
+        this.stream.enable(PINNED_EVENT).withThreshold(this.threshold).withStackTrace();
+        this.stream.onEvent(PINNED_EVENT, this::onPinned);
+        this.stream.startAsync();
+        log.info("Logging virtual threads pinned for more than {}", this.threshold);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (this.stream != null) {
+            this.stream.close();
+        }
+    }
+
+    public long getPinnedCount() {
+        return this.pinnedCount.sum();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        this.pinnedCount.increment();
+        String frames = "";
+        if (event.getStackTrace() != null) {
+            List<RecordedFrame> top = event.getStackTrace().getFrames();
+            frames = top.stream().limit(LOGGED_FRAMES)
+                    .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                            + ":" + frame.getLineNumber())
+                    .collect(Collectors.joining("\n\tat ", "\n\tat ", ""));
+        }
+        log.warn("Virtual thread pinned for {} ms{}", event.getDuration().toMillis(), frames);
+    }
+}
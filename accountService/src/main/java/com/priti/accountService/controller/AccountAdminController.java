@@ -0,0 +1,29 @@
+package com.priti.accountService.controller;
+
+import com.priti.accountService.dto.BulkDeleteResponse;
+import com.priti.accountService.service.AccountAdminService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+// Outside /account/** on purpose: the gateway doesn't route these, only services reaching us directly can
+@RestController
+@RequestMapping("/admin/account")
+public class AccountAdminController {
+    @Autowired
+    private AccountAdminService accountAdminService;
+
+    @DeleteMapping
+    public BulkDeleteResponse deleteAccountsInRange(@RequestParam Long fromId, @RequestParam Long toId) {
+        return this.accountAdminService.deleteAccountsInRange(fromId, toId);
+    }
+
+    @DeleteMapping("/customer/{customerId}")
+    public BulkDeleteResponse deleteAccountsOfCustomer(@PathVariable Long customerId) {
+        return this.accountAdminService.deleteAccountsOfCustomer(customerId);
+    }
+
+    @DeleteMapping("/all")
+    public BulkDeleteResponse deleteAllAccounts() {
+        return this.accountAdminService.deleteAllAccounts();
+    }
+}
@@ -1,37 +1,137 @@
 package com.priti.accountService.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.priti.accountService.dto.BulkCreateResponse;
+import com.priti.accountService.dto.CursorPage;
+import com.priti.accountService.dto.TransferRequest;
+import com.priti.accountService.dto.TransferResult;
+import com.priti.accountService.idempotency.IdempotencyStore;
 import com.priti.accountService.model.Account;
 import com.priti.accountService.service.AccountService;
+import com.priti.accountService.service.TransferService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.*;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/account")
 public class AccountController {
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final MediaType CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
     @Autowired
     private AccountService accountService;
 
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Value("${account.statement.buffer-size:65536}")
+    private int statementBufferSize;
+
     @GetMapping
     public List<Account> getAccount() {
         return this.accountService.getAllAccounts();
     }
 
+    @GetMapping("/count")
+    public long countAccounts() {
+        return this.accountService.countAccounts();
+    }
+
+    @GetMapping("/page")
+    public CursorPage<Account> getAccountsPage(@RequestParam(defaultValue = "0") Long afterId,
+                                               @RequestParam(defaultValue = "500") int size) {
+        return this.accountService.getAccountsPage(afterId, size);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAccounts() {
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter writer = this.objectMapper.writer()
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .withRootValueSeparator("\n")
+                    .writeValues(out)) {
+                this.accountService.streamAllAccounts(account -> {
+                    try {
+                        writer.write(account);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @GetMapping("/{id}")
     public Account getAccountById(@PathVariable Long id) {
         return this.accountService.getAccountById(id);
     }
 
+    @GetMapping("/number/{accountNumber}")
+    public Account getAccountByAccountNumber(@PathVariable String accountNumber) {
+        return this.accountService.getAccountByAccountNumber(accountNumber);
+    }
+
     @GetMapping("/customer/{customerId}")
     private List<Account> getAccountsOfCustomer(@PathVariable Long customerId) {
         return this.accountService.getAccountsOfCustomer(customerId);
     }
 
+    // Rows go from a database cursor through one fixed-size buffer to the response, whatever the statement size
+    @GetMapping("/customer/{customerId}/statement")
+    public ResponseEntity<StreamingResponseBody> getStatement(@PathVariable Long customerId,
+                                                              @RequestParam(defaultValue = "csv") String format) {
+        boolean csv = format.equalsIgnoreCase("csv");
+        if (!csv && !format.equalsIgnoreCase("ndjson")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be csv or ndjson");
+        }
+        StreamingResponseBody body = csv ? out -> writeCsvStatement(customerId, out) : out -> writeNdjsonStatement(customerId, out);
+        return ResponseEntity.ok()
+                .contentType(csv ? CSV : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("statement-" + customerId + (csv ? ".csv" : ".ndjson")).build().toString())
+                .body(body);
+    }
+
+    @PostMapping("/customer/batch")
+    public Map<Long, List<Account>> getAccountsOfCustomers(@RequestBody List<Long> customerIds) {
+        return this.accountService.getAccountsOfCustomers(customerIds);
+    }
+
     @PostMapping
-    public Account createAccount(@RequestBody Account account) {
-        return this.accountService.createAccount(account);
+    public Account createAccount(@RequestBody Account account,
+                                 @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return this.idempotencyStore.execute("POST", "/account", idempotencyKey, account,
+                () -> this.accountService.createAccount(account));
+    }
+
+    @PostMapping("/bulk")
+    public BulkCreateResponse createAccounts(@RequestBody List<Account> accounts,
+                                             @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return this.idempotencyStore.execute("POST", "/account/bulk", idempotencyKey, accounts,
+                () -> this.accountService.createAccounts(accounts));
     }
 
     @PutMapping("/{id}/{balance}")
@@ -39,6 +139,71 @@ public class AccountController {
         return this.accountService.updateAccountBalance(id, balance);
     }
 
+    @PostMapping("/{id}/credit")
+    public Account creditAccount(@PathVariable Long id, @RequestParam BigDecimal amount) {
+        return this.accountService.creditAccount(id, amount);
+    }
+
+    @PostMapping("/{id}/debit")
+    public Account debitAccount(@PathVariable Long id, @RequestParam BigDecimal amount) {
+        return this.accountService.debitAccount(id, amount);
+    }
+
+    @PostMapping("/transfer")
+    public TransferResult transfer(@RequestBody TransferRequest request) {
+        return this.transferService.transfer(request);
+    }
+
+    private void writeCsvStatement(Long customerId, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), statementBufferSize);
+        writer.write("id,accountNumber,accountType,balance,customerId,createdAt\n");
+        this.accountService.streamAccountsOfCustomer(customerId, account -> {
+            try {
+                writer.write(String.valueOf(account.getId()));
+                writer.write(',');
+                writer.write(csvField(account.getAccountNumber()));
+                writer.write(',');
+                writer.write(csvField(account.getAccountType()));
+                writer.write(',');
+                writer.write(account.getBalance() == null ? "" : account.getBalance().toPlainString());
+                writer.write(',');
+                writer.write(account.getCustomerId() == null ? "" : String.valueOf(account.getCustomerId()));
+                writer.write(',');
+                writer.write(account.getCreatedAt() == null ? "" : account.getCreatedAt().toString());
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    private void writeNdjsonStatement(Long customerId, OutputStream out) throws IOException {
+        OutputStream buffered = new BufferedOutputStream(out, statementBufferSize);
+        try (SequenceWriter writer = this.objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n")
+                .writeValues(buffered)) {
+            this.accountService.streamAccountsOfCustomer(customerId, account -> {
+                try {
+                    writer.write(account);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
     @DeleteMapping("/{id}")
     public void deleteAccount(@PathVariable Long id) {
         this.accountService.deleteAccount(id);
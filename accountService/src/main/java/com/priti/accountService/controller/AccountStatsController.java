@@ -0,0 +1,35 @@
+package com.priti.accountService.controller;
+
+import com.priti.accountService.dto.BalanceStats;
+import com.priti.accountService.dto.PortfolioStats;
+import com.priti.accountService.service.AccountStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/account/stats")
+public class AccountStatsController {
+    @Autowired
+    private AccountStatsService accountStatsService;
+
+    @GetMapping
+    public PortfolioStats getStats() {
+        return this.accountStatsService.getStats();
+    }
+
+    @GetMapping("/type/{accountType}")
+    public BalanceStats getAccountTypeStats(@PathVariable String accountType) {
+        return this.accountStatsService.getAccountTypeStats(accountType);
+    }
+
+    @GetMapping("/customer/{customerId}")
+    public BalanceStats getCustomerStats(@PathVariable Long customerId) {
+        return this.accountStatsService.getCustomerStats(customerId);
+    }
+
+    @PostMapping("/reconcile")
+    public PortfolioStats reconcile() {
+        this.accountStatsService.reconcile();
+        return this.accountStatsService.getStats();
+    }
+}
@@ -0,0 +1,41 @@
+package com.priti.accountService.controller;
+
+import com.priti.accountService.job.InterestAccrualJob;
+import com.priti.accountService.model.InterestPartition;
+import com.priti.accountService.model.InterestRun;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/account/interest")
+public class InterestJobController {
+    @Autowired
+    private InterestAccrualJob interestAccrualJob;
+
+    @PostMapping("/runs")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public InterestRun startRun(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate businessDate) {
+        return this.interestAccrualJob.start(businessDate);
+    }
+
+    @PostMapping("/runs/{id}/resume")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public InterestRun resumeRun(@PathVariable Long id) {
+        return this.interestAccrualJob.resume(id);
+    }
+
+    @GetMapping("/runs/{id}")
+    public InterestRun getRun(@PathVariable Long id) {
+        return this.interestAccrualJob.getRun(id);
+    }
+
+    @GetMapping("/runs/{id}/partitions")
+    public List<InterestPartition> getPartitions(@PathVariable Long id) {
+        return this.interestAccrualJob.getPartitions(id);
+    }
+}
@@ -0,0 +1,117 @@
+package com.priti.accountService.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Read-only transactions go to the replicas in round robin, skipping any that failed a connection or health check;
+// everything else, and reads pinned by ReadYourWrites, goes to the primary. Must sit behind a
+// LazyConnectionDataSourceProxy so the connection is fetched after the transaction's read-only flag is known.
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final AtomicBoolean[] healthy;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+    private final long readYourWritesMillis;
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration healthCheckInterval,
+                                      Duration readYourWritesWindow) {
+        this.primary = primary;
+        this.readYourWritesMillis = readYourWritesWindow.toMillis();
+        this.replicas = List.copyOf(replicas);
+        this.healthy = new AtomicBoolean[replicas.size()];
+        for (int i = 0; i < healthy.length; i++) {
+            healthy[i] = new AtomicBoolean(true);
+        }
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = healthCheckInterval.toMillis();
+        this.healthChecker.scheduleWithFixedDelay(this::checkReplicas, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(target -> target.getConnection(username, password));
+    }
+
+    public boolean isReplicaHealthy(int index) {
+        return healthy[index].get();
+    }
+
+    private Connection route(Connector connector) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                ReadYourWrites.recordWrite(readYourWritesMillis);
+            }
+            return connector.connect(primary);
+        }
+        if (!ReadYourWrites.isPinnedToPrimary()) {
+            for (int attempt = 0; attempt < replicas.size(); attempt++) {
+                int index = Math.floorMod(next.getAndIncrement(), replicas.size());
+                if (!healthy[index].get()) {
+                    continue;
+                }
+                try {
+                    return connector.connect(replicas.get(index));
+                } catch (SQLException e) {
+                    if (healthy[index].compareAndSet(true, false)) {
+                        log.warn("Replica {} is unavailable, routing its reads elsewhere: {}", index, e.getMessage());
+                    }
+                }
+            }
+        }
+        return connector.connect(primary);
+    }
+
+    void checkReplicas() {
+        for (int i = 0; i < replicas.size(); i++) {
+            boolean up;
+            try (Connection connection = replicas.get(i).getConnection()) {
+                up = connection.isValid(1);
+            } catch (SQLException e) {
+                up = false;
+            }
+            if (healthy[i].getAndSet(up) != up) {
+                log.info("Replica {} is {}", i, up ? "back in rotation" : "out of rotation");
+            }
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        healthChecker.shutdownNow();
+        for (DataSource dataSource : replicas) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private interface Connector {
+        Connection connect(DataSource target) throws SQLException;
+    }
+}
@@ -0,0 +1,17 @@
+package com.priti.accountService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BalanceStats {
+    private long count;
+    private BigDecimal sum;
+    private BigDecimal min; // null when there are no accounts
+    private BigDecimal max;
+}
@@ -0,0 +1,17 @@
+package com.priti.accountService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkCreateResponse {
+    private int requested;
+    private int created;
+    private int failed;
+    private List<BulkCreateResult> results;
+}
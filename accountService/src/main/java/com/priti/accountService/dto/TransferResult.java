@@ -0,0 +1,21 @@
+package com.priti.accountService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransferResult {
+    public enum Status { COMPLETED, ACCOUNT_NOT_FOUND, INSUFFICIENT_FUNDS }
+
+    private Long fromAccountId;
+    private Long toAccountId;
+    private BigDecimal amount;
+    private Status status;
+    private BigDecimal fromBalance; // balances after the transfer, null unless COMPLETED
+    private BigDecimal toBalance;
+}
@@ -0,0 +1,61 @@
+package com.priti.accountService.engine;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class BalanceCommand<T> {
+    enum Op { APPLY_DELTA, TRANSFER, SET, GET, GET_ALL, EVICT, EVICT_ALL, DRAIN_DIRTY, MARK_DIRTY }
+
+    private static final int PENDING = 0;
+    private static final int STARTED = 1;
+    private static final int CANCELLED = 2;
+
+    final Op op;
+    final long accountId;
+    // The credited account of a TRANSFER
+    final long targetId;
+    final long amount;
+    // The accounts read by a GET_ALL
+    final long[] accountIds;
+    final CompletableFuture<T> result = new CompletableFuture<>();
+    // The shard and a caller that gave up race for the command: either it is applied or it never will be
+    private final AtomicInteger state = new AtomicInteger(PENDING);
+    private volatile boolean applied;
+
+    BalanceCommand(Op op, long accountId, long amount) {
+        this(op, accountId, 0L, amount);
+    }
+
+    BalanceCommand(Op op, long accountId, long targetId, long amount) {
+        this.op = op;
+        this.accountId = accountId;
+        this.targetId = targetId;
+        this.amount = amount;
+        this.accountIds = null;
+    }
+
+    BalanceCommand(Op op, long[] accountIds) {
+        this.op = op;
+        this.accountId = 0L;
+        this.targetId = 0L;
+        this.amount = 0L;
+        this.accountIds = accountIds;
+    }
+
+    boolean start() {
+        return state.compareAndSet(PENDING, STARTED);
+    }
+
+    boolean cancel() {
+        return state.compareAndSet(PENDING, CANCELLED);
+    }
+
+    void markApplied() {
+        applied = true;
+    }
+
+    // True only when the command is known to have changed nothing: cancelled before the shard took it, or failed
+    boolean isKnownNotApplied() {
+        return state.get() == CANCELLED || (result.isCompletedExceptionally() && !applied);
+    }
+}
@@ -0,0 +1,248 @@
+package com.priti.accountService.engine;
+
+import com.priti.accountService.model.Account;
+import com.priti.accountService.repository.AccountRepository;
+import com.priti.accountService.util.LongLongMap;
+import com.priti.accountService.util.MinorUnits;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Optional in-memory owner of account balances. Accounts are partitioned by id across single-writer shards;
+// balances live in primitive maps and are written back to MySQL in coalesced batches by the flusher.
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "account.engine.enabled", havingValue = "true")
+public class BalanceEngine {
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BalanceShard[] shards;
+    private final Thread[] shardThreads;
+    private final long timeoutMillis;
+    private final int flushBatchSize;
+
+    public BalanceEngine(AccountRepository accountRepository,
+                         TransactionTemplate transactionTemplate,
+                         ApplicationEventPublisher eventPublisher,
+                         @Value("${account.engine.shards:8}") int shardCount,
+                         @Value("${account.engine.queue-capacity:65536}") int queueCapacity,
+                         @Value("${account.engine.expected-accounts-per-shard:65536}") int expectedAccounts,
+                         @Value("${account.engine.flush-batch-size:500}") int flushBatchSize,
+                         @Value("${account.engine.timeout:2s}") Duration timeout) {
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.timeoutMillis = timeout.toMillis();
+        this.flushBatchSize = flushBatchSize;
+        this.shards = new BalanceShard[shardCount];
+        this.shardThreads = new Thread[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            this.shards[i] = new BalanceShard(new ArrayBlockingQueue<>(queueCapacity),
+                    id -> accountRepository.findById(id).orElse(null), eventPublisher, expectedAccounts);
+            this.shardThreads[i] = new Thread(this.shards[i], "balance-shard-" + i);
+            this.shardThreads[i].setDaemon(true);
+            this.shardThreads[i].start();
+        }
+        log.info("Balance engine started with {} shards", shardCount);
+    }
+
+    // Returns the new balance in minor units; fails with 409 if it would go negative
+    public long applyDelta(long accountId, long deltaMinor) {
+        return submit(new BalanceCommand<Long>(BalanceCommand.Op.APPLY_DELTA, accountId, deltaMinor));
+    }
+
+    // Moves amountMinor between two accounts and returns both new balances. Across shards it is a debit then a
+    // credit; a credit known not to have been applied is refunded, so a timeout never creates or destroys money.
+    public long[] transfer(long fromAccountId, long toAccountId, long amountMinor) {
+        BalanceShard fromShard = shardFor(fromAccountId);
+        BalanceShard toShard = shardFor(toAccountId);
+        if (fromShard == toShard) {
+            return submit(fromShard, new BalanceCommand<long[]>(BalanceCommand.Op.TRANSFER, fromAccountId, toAccountId, amountMinor));
+        }
+        long fromBalance = applyDelta(fromAccountId, -amountMinor);
+        BalanceCommand<Long> credit = new BalanceCommand<>(BalanceCommand.Op.APPLY_DELTA, toAccountId, amountMinor);
+        try {
+            return new long[]{fromBalance, submit(toShard, credit)};
+        } catch (RuntimeException e) {
+            RuntimeException failure = e;
+            if (!credit.isKnownNotApplied()) {
+                // The shard already took the credit (the caller was interrupted): its outcome is the answer
+                try {
+                    return new long[]{fromBalance, awaitStarted(credit)};
+                } catch (RuntimeException creditFailure) {
+                    failure = creditFailure;
+                }
+            }
+            if (credit.isKnownNotApplied()) {
+                post(fromAccountId, amountMinor);
+            } else {
+                log.error("Transfer of {} from {} to {}: credit outcome unknown, not refunding", amountMinor, fromAccountId, toAccountId);
+            }
+            throw failure;
+        }
+    }
+
+    // Waits out a command the shard has started, whatever interrupts arrive meanwhile; the interrupt is kept
+    private static <T> T awaitStarted(BalanceCommand<T> command) {
+        boolean interrupted = Thread.interrupted();
+        try {
+            while (true) {
+                try {
+                    return command.result.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException runtimeException) {
+                        throw runtimeException;
+                    }
+                    throw new IllegalStateException("Balance engine command failed", e.getCause());
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public long set(long accountId, long balanceMinor) {
+        return submit(new BalanceCommand<Long>(BalanceCommand.Op.SET, accountId, balanceMinor));
+    }
+
+    // Balance held by the engine, or empty when the account is not resident (the database is then current)
+    public OptionalLong get(long accountId) {
+        long balance = submit(new BalanceCommand<Long>(BalanceCommand.Op.GET, accountId, 0L));
+        return balance == LongLongMap.MISSING ? OptionalLong.empty() : OptionalLong.of(balance);
+    }
+
+    // Balances of the given accounts that are resident, one command per shard; the rest are current in the database
+    public Map<Long, Long> getAll(Collection<Long> accountIds) {
+        Map<BalanceShard, List<Long>> byShard = new HashMap<>();
+        for (Long id : accountIds) {
+            byShard.computeIfAbsent(shardFor(id), shard -> new ArrayList<>()).add(id);
+        }
+        Map<Long, Long> resident = new HashMap<>();
+        byShard.forEach((shard, ids) -> {
+            long[] idArray = ids.stream().mapToLong(Long::longValue).toArray();
+            long[] values = submit(shard, new BalanceCommand<long[]>(BalanceCommand.Op.GET_ALL, idArray));
+            for (int i = 0; i < idArray.length; i++) {
+                if (values[i] != LongLongMap.MISSING) {
+                    resident.put(idArray[i], values[i]);
+                }
+            }
+        });
+        return resident;
+    }
+
+    public void evict(long accountId) {
+        submit(new BalanceCommand<Void>(BalanceCommand.Op.EVICT, accountId, 0L));
+    }
+
+    public void evictAll() {
+        for (BalanceShard shard : shards) {
+            submit(shard, new BalanceCommand<Void>(BalanceCommand.Op.EVICT_ALL, 0L, 0L));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${account.engine.flush-interval:100ms}")
+    public void flush() {
+        for (BalanceShard shard : shards) {
+            DirtyBalances dirty = submit(shard, new BalanceCommand<DirtyBalances>(BalanceCommand.Op.DRAIN_DIRTY, 0L, 0L));
+            for (int from = 0; from < dirty.accountIds().length; from += flushBatchSize) {
+                int to = Math.min(from + flushBatchSize, dirty.accountIds().length);
+                try {
+                    persist(dirty, from, to);
+                } catch (RuntimeException e) {
+                    log.warn("Balance flush of {} accounts failed, will retry: {}", to - from, e.getMessage());
+                    for (int i = from; i < to; i++) {
+                        submit(shard, new BalanceCommand<Void>(BalanceCommand.Op.MARK_DIRTY, dirty.accountIds()[i], 0L));
+                    }
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        flush();
+        for (Thread thread : shardThreads) {
+            thread.interrupt();
+        }
+    }
+
+    private void persist(DirtyBalances dirty, int from, int to) {
+        Map<Long, Long> balances = new HashMap<>(to - from);
+        for (int i = from; i < to; i++) {
+            balances.put(dirty.accountIds()[i], dirty.balances()[i]);
+        }
+        // Managed entities are flushed on commit as one batched UPDATE statement list
+        this.transactionTemplate.executeWithoutResult(status -> {
+            for (Account account : this.accountRepository.findAllById(balances.keySet())) {
+                account.setBalance(MinorUnits.fromMinor(balances.get(account.getId())));
+            }
+        });
+    }
+
+    // Applies a delta whose cause is already committed elsewhere (a refund, posted interest), so it is not given up
+    // on: it waits for a queue slot and for the shard. Returns false when the shard rejected it.
+    public boolean post(long accountId, long deltaMinor) {
+        BalanceCommand<Long> command = new BalanceCommand<>(BalanceCommand.Op.APPLY_DELTA, accountId, deltaMinor);
+        try {
+            shardFor(accountId).queue().put(command);
+            command.result.get();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while posting {} to account {}", deltaMinor, accountId);
+        } catch (ExecutionException e) {
+            log.error("Posting {} to account {} failed: {}", deltaMinor, accountId, e.getCause().getMessage());
+        }
+        return false;
+    }
+
+    private <T> T submit(BalanceCommand<T> command) {
+        return submit(shardFor(command.accountId), command);
+    }
+
+    private <T> T submit(BalanceShard shard, BalanceCommand<T> command) {
+        try {
+            if (!shard.queue().offer(command, timeoutMillis, TimeUnit.MILLISECONDS)) {
+                command.cancel();
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Balance engine is overloaded");
+            }
+            try {
+                return command.result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Cancelled while still queued, the shard skips it; once started, its outcome is the answer
+                if (command.cancel()) {
+                    throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Balance engine did not respond in time");
+                }
+                return command.result.get();
+            }
+        } catch (InterruptedException e) {
+            command.cancel();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for balance engine", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Balance engine command failed", e.getCause());
+        }
+    }
+
+    private BalanceShard shardFor(long accountId) {
+        long hash = accountId * 0x9E3779B97F4A7C15L;
+        return shards[(int) ((hash >>> 33) % shards.length)];
+    }
+}
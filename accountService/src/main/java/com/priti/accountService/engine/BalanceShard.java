@@ -0,0 +1,183 @@
+package com.priti.accountService.engine;
+
+import com.priti.accountService.event.AccountEvent;
+import com.priti.accountService.model.Account;
+import com.priti.accountService.util.LongLongMap;
+import com.priti.accountService.util.MinorUnits;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.LongFunction;
+
+// Single writer for its partition of accounts: only this shard's thread touches its maps, so nothing is locked
+@Slf4j
+final class BalanceShard implements Runnable {
+    private final BlockingQueue<BalanceCommand<?>> queue;
+    private final LongFunction<Account> loader;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LongLongMap balances;
+    private final LongLongMap owners;
+    // Index into accountTypeNames, so events carry the type without a map of strings per account; 0 is no type
+    private final LongLongMap accountTypes;
+    private final List<String> accountTypeNames = new ArrayList<>(List.of(""));
+    private final LongLongMap dirty;
+
+    BalanceShard(BlockingQueue<BalanceCommand<?>> queue, LongFunction<Account> loader,
+                 ApplicationEventPublisher eventPublisher, int expectedAccounts) {
+        this.queue = queue;
+        this.loader = loader;
+        this.eventPublisher = eventPublisher;
+        this.balances = new LongLongMap(expectedAccounts);
+        this.owners = new LongLongMap(expectedAccounts);
+        this.accountTypes = new LongLongMap(expectedAccounts);
+        this.dirty = new LongLongMap(1024);
+    }
+
+    BlockingQueue<BalanceCommand<?>> queue() {
+        return queue;
+    }
+
+    @Override
+    public void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            BalanceCommand<?> command;
+            try {
+                command = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            // Cancelled by a caller that timed out, which already reported it as not applied
+            if (!command.start()) {
+                continue;
+            }
+            try {
+                process(command);
+            } catch (RuntimeException e) {
+                command.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void process(BalanceCommand<?> command) {
+        long id = command.accountId;
+        switch (command.op) {
+            case APPLY_DELTA -> {
+                long balance = loadedBalance(id) + command.amount;
+                if (balance < 0) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, "Insufficient funds");
+                }
+                command.markApplied();
+                update(id, balance, command.amount);
+                ((BalanceCommand<Long>) command).result.complete(balance);
+            }
+            // Both accounts on this shard: debit and credit are applied together or not at all
+            case TRANSFER -> {
+                long fromBalance = loadedBalance(id) - command.amount;
+                long toBalance = loadedBalance(command.targetId) + command.amount;
+                if (fromBalance < 0) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, "Insufficient funds");
+                }
+                command.markApplied();
+                update(id, fromBalance, -command.amount);
+                update(command.targetId, toBalance, command.amount);
+                ((BalanceCommand<long[]>) command).result.complete(new long[]{fromBalance, toBalance});
+            }
+            case SET -> {
+                loadedBalance(id);
+                update(id, command.amount, LongLongMap.MISSING);
+                ((BalanceCommand<Long>) command).result.complete(command.amount);
+            }
+            // Reads never load: an account that is not resident has no unflushed writes, so the database is current
+            case GET -> ((BalanceCommand<Long>) command).result.complete(balances.get(id));
+            case GET_ALL -> {
+                long[] values = new long[command.accountIds.length];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = balances.get(command.accountIds[i]);
+                }
+                ((BalanceCommand<long[]>) command).result.complete(values);
+            }
+            case EVICT -> {
+                balances.remove(id);
+                owners.remove(id);
+                accountTypes.remove(id);
+                dirty.remove(id);
+                command.result.complete(null);
+            }
+            case EVICT_ALL -> {
+                balances.clear();
+                owners.clear();
+                accountTypes.clear();
+                dirty.clear();
+                command.result.complete(null);
+            }
+            case DRAIN_DIRTY -> {
+                long[] ids = new long[dirty.size()];
+                long[] values = new long[dirty.size()];
+                dirty.drainTo(ids, values);
+                ((BalanceCommand<DirtyBalances>) command).result.complete(new DirtyBalances(ids, values));
+            }
+            case MARK_DIRTY -> {
+                // A failed flush puts the account back, with whatever balance is current now
+                long balance = balances.get(id);
+                if (balance != LongLongMap.MISSING) {
+                    dirty.put(id, balance);
+                }
+                command.result.complete(null);
+            }
+        }
+    }
+
+    private long loadedBalance(long id) {
+        long balance = balances.get(id);
+        if (balance != LongLongMap.MISSING) {
+            return balance;
+        }
+        Account account = loader.apply(id);
+        if (account == null) {
+            throw new RuntimeException("Account not found");
+        }
+        balance = MinorUnits.toMinor(account.getBalance());
+        balances.put(id, balance);
+        owners.put(id, account.getCustomerId() == null ? 0L : account.getCustomerId());
+        accountTypes.put(id, accountTypeCode(account.getAccountType()));
+        return balance;
+    }
+
+    private long accountTypeCode(String accountType) {
+        if (accountType == null) {
+            return 0L;
+        }
+        int code = accountTypeNames.indexOf(accountType);
+        if (code < 0) {
+            accountTypeNames.add(accountType);
+            code = accountTypeNames.size() - 1;
+        }
+        return code;
+    }
+
+    private String accountTypeName(long code) {
+        return code <= 0L ? null : accountTypeNames.get((int) code);
+    }
+
+    private void update(long id, long balance, long delta) {
+        balances.put(id, balance);
+        dirty.put(id, balance);
+        long customerId = owners.get(id);
+        // The change is applied, so a failing listener must not turn the command into a reported failure
+        try {
+            eventPublisher.publishEvent(new AccountEvent(AccountEvent.Type.BALANCE_CHANGED, id,
+                    customerId == 0L || customerId == LongLongMap.MISSING ? null : customerId,
+                    accountTypeName(accountTypes.get(id)), MinorUnits.fromMinor(balance),
+                    delta == LongLongMap.MISSING ? null : MinorUnits.fromMinor(delta)));
+        } catch (RuntimeException e) {
+            log.warn("Listener failed for balance change of account {}: {}", id, e.getMessage());
+        }
+    }
+}
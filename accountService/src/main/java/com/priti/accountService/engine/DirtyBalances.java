@@ -0,0 +1,5 @@
+package com.priti.accountService.engine;
+
+// Coalesced balances drained from one shard: only the latest value per account is kept between flushes
+record DirtyBalances(long[] accountIds, long[] balances) {
+}
@@ -0,0 +1,20 @@
+package com.priti.accountService.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+// Published in-process on every account write; listeners fan it out to interested parties
+@Data
+@AllArgsConstructor
+public class AccountEvent {
+    public enum Type { CREATED, BALANCE_CHANGED, DELETED }
+
+    private Type type;
+    private Long accountId;
+    private Long customerId;
+    private String accountType; // null when the publisher doesn't know it
+    private BigDecimal balance; // balance after the change
+    private BigDecimal delta; // null when the balance was set rather than adjusted
+}
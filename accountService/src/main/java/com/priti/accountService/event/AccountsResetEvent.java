@@ -0,0 +1,11 @@
+package com.priti.accountService.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Published after the account table was truncated; per-account DELETED events are not sent for a reset
+@Data
+@AllArgsConstructor
+public class AccountsResetEvent {
+    private long deletedAccounts;
+}
@@ -0,0 +1,91 @@
+package com.priti.accountService.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Stand-in for a broker: tells every CUSTOMER-SERVICE instance to drop its cached accounts for changed customers.
+// Customer ids are coalesced and sent in one call per flush, so bulk writes don't turn into one call per account.
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "account.customer-cache-invalidation.enabled", havingValue = "true", matchIfMissing = true)
+public class CustomerCacheInvalidator {
+    @Autowired
+    private DiscoveryClient discoveryClient;
+
+    @Value("${account.customer-cache-invalidation.service-id:CUSTOMER-SERVICE}")
+    private String customerServiceId;
+
+    private final RestClient restClient;
+    private final Set<Long> pendingCustomerIds = ConcurrentHashMap.newKeySet();
+
+    public CustomerCacheInvalidator(@Value("${account.customer-cache-invalidation.timeout:1s}") Duration timeout) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountEvent(AccountEvent event) {
+        if (event.getCustomerId() != null) {
+            this.pendingCustomerIds.add(event.getCustomerId());
+        }
+    }
+
+    // A reset may touch every customer, so drop the whole cache instead of listing them
+    @EventListener(AccountsResetEvent.class)
+    public void onAccountsReset() {
+        this.pendingCustomerIds.clear();
+        for (ServiceInstance instance : this.discoveryClient.getInstances(this.customerServiceId)) {
+            try {
+                this.restClient.delete()
+                        .uri(instance.getUri() + "/admin/customer/cache/accounts")
+                        .retrieve()
+                        .toBodilessEntity();
+            } catch (Exception e) {
+                log.warn("Could not clear accounts cache on {}: {}", instance.getUri(), e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${account.customer-cache-invalidation.flush-interval:200ms}")
+    public void flush() {
+        if (this.pendingCustomerIds.isEmpty()) {
+            return;
+        }
+        List<Long> customerIds = new ArrayList<>();
+        for (Long customerId : this.pendingCustomerIds) {
+            this.pendingCustomerIds.remove(customerId);
+            customerIds.add(customerId);
+        }
+        for (ServiceInstance instance : this.discoveryClient.getInstances(this.customerServiceId)) {
+            try {
+                this.restClient.post()
+                        .uri(instance.getUri() + "/admin/customer/cache/accounts/evict")
+                        .body(customerIds)
+                        .retrieve()
+                        .toBodilessEntity();
+            } catch (Exception e) {
+                // The customer-side TTL bounds staleness if an instance cannot be reached
+                log.warn("Could not invalidate accounts cache of {} customers on {}: {}",
+                        customerIds.size(), instance.getUri(), e.getMessage());
+            }
+        }
+    }
+}
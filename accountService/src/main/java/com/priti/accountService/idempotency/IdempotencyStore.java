@@ -0,0 +1,156 @@
+package com.priti.accountService.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Bounded, expiring Idempotency-Key -> response store. Keys are spread over independently locked shards; each shard
+// is an insertion-ordered map, so expired and overflowing entries are always at its head.
+// Keys are scoped to the endpoint they were sent to, and a reused key must come with the same body (compared by the
+// SHA-256 of its JSON form). A retry that arrives while the first attempt is still running waits for that attempt's
+// result.
+@Component
+public class IdempotencyStore {
+    private final ObjectMapper objectMapper;
+    private final Shard[] shards;
+    private final long ttlNanos;
+    private final long waitMillis;
+
+    public IdempotencyStore(ObjectMapper objectMapper,
+                            @Value("${account.idempotency.max-entries:100000}") int maxEntries,
+                            @Value("${account.idempotency.shards:16}") int shardCount,
+                            @Value("${account.idempotency.ttl:10m}") Duration ttl,
+                            @Value("${account.idempotency.wait-timeout:10s}") Duration waitTimeout) {
+        this.objectMapper = objectMapper;
+        this.ttlNanos = ttl.toNanos();
+        this.waitMillis = waitTimeout.toMillis();
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            this.shards[i] = new Shard(Math.max(1, maxEntries / shardCount));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String method, String path, String idempotencyKey, Object request, Supplier<T> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        String key = method + " " + path + " " + idempotencyKey;
+        byte[] fingerprint = fingerprint(request);
+        Shard shard = shards[(key.hashCode() & Integer.MAX_VALUE) % shards.length];
+        Entry entry;
+        boolean owner = false;
+        shard.lock.lock();
+        try {
+            long now = System.nanoTime();
+            shard.expire(now);
+            entry = shard.entries.get(key);
+            if (entry == null) {
+                entry = new Entry(fingerprint, now + ttlNanos);
+                shard.entries.put(key, entry);
+                shard.trim();
+                owner = true;
+            } else if (!MessageDigest.isEqual(entry.fingerprint, fingerprint)) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Idempotency-Key was already used for a different request");
+            }
+        } finally {
+            shard.lock.unlock();
+        }
+        if (owner) {
+            try {
+                T result = action.get();
+                entry.response.complete(result);
+                return result;
+            } catch (RuntimeException e) {
+                // Failed attempts are not remembered, so the client's retry runs again
+                shard.lock.lock();
+                try {
+                    shard.entries.remove(key, entry);
+                } finally {
+                    shard.lock.unlock();
+                }
+                entry.response.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return (T) entry.response.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the original request", e);
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A request with this Idempotency-Key is still in progress");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Original request failed", e.getCause());
+        }
+    }
+
+    private byte[] fingerprint(Object request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(this.objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request body cannot be fingerprinted", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Shard {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+        private final int maxEntries;
+
+        private Shard(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        private void expire(long now) {
+            Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext() && iterator.next().getValue().expiresAt - now <= 0) {
+                iterator.remove();
+            }
+        }
+
+        // Entries whose first attempt is still running are kept, or a retry would run the action again; they are
+        // few (one per request in flight) and are trimmed once they complete
+        private void trim() {
+            Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+            while (entries.size() > maxEntries && iterator.hasNext()) {
+                if (iterator.next().getValue().response.isDone()) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final byte[] fingerprint;
+        private final long expiresAt;
+        private final CompletableFuture<Object> response = new CompletableFuture<>();
+
+        private Entry(byte[] fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
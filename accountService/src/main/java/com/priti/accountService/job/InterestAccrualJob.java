@@ -0,0 +1,347 @@
+package com.priti.accountService.job;
+
+import com.priti.accountService.engine.BalanceEngine;
+import com.priti.accountService.event.AccountEvent;
+import com.priti.accountService.model.Account;
+import com.priti.accountService.model.InterestPartition;
+import com.priti.accountService.model.InterestRun;
+import com.priti.accountService.repository.InterestPartitionRepository;
+import com.priti.accountService.repository.InterestRunRepository;
+import com.priti.accountService.util.MinorUnits;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Daily interest accrual. The id space is split into partitions that run in parallel; each partition walks its range
+// in chunks, and every chunk locks its rows, applies one JDBC batch of balance updates and advances the partition's
+// checkpoint in the same transaction, so a resumed run never accrues an account twice.
+@Component
+@Slf4j
+public class InterestAccrualJob {
+    private static final MathContext RATE_CONTEXT = MathContext.DECIMAL64;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private InterestRunRepository interestRunRepository;
+
+    @Autowired
+    private InterestPartitionRepository interestPartitionRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // With the engine enabled it owns balances, so accruals go through it instead of SQL
+    @Autowired(required = false)
+    private BalanceEngine balanceEngine;
+
+    @Value("${account.interest.partitions:64}")
+    private int partitionCount;
+
+    @Value("${account.interest.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${account.interest.days-per-year:365}")
+    private int daysPerYear;
+
+    // How long a claimed partition stays with its worker without a checkpoint; must outlast the slowest chunk
+    @Value("${account.interest.lease:2m}")
+    private Duration lease;
+
+    private final Map<String, BigDecimal> annualRates;
+    private final ForkJoinPool pool;
+    private final ReentrantLock runLock = new ReentrantLock();
+
+    public InterestAccrualJob(@Value("${account.interest.rates:SAVINGS:0.035,FIXED_DEPOSIT:0.065}") String rates,
+                              @Value("${account.interest.parallelism:8}") int parallelism) {
+        Map<String, BigDecimal> parsed = new LinkedHashMap<>();
+        for (String rate : rates.split(",")) {
+            String[] parts = rate.trim().split(":");
+            parsed.put(parts[0].trim(), new BigDecimal(parts[1].trim()));
+        }
+        this.annualRates = Collections.unmodifiableMap(parsed);
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    @Scheduled(cron = "${account.interest.cron:-}")
+    public void runNightly() {
+        start(LocalDate.now().minusDays(1));
+    }
+
+    // Creates (or finds) the run for the date and processes it in the background
+    public InterestRun start(LocalDate businessDate) {
+        InterestRun run = prepare(businessDate);
+        if (run.getStatus() != InterestRun.Status.COMPLETED) {
+            Thread runner = new Thread(() -> execute(run.getId()), "interest-accrual-" + businessDate);
+            runner.setDaemon(true);
+            runner.start();
+        }
+        return run;
+    }
+
+    // Partitions left RUNNING by a process that died are handed out again once their lease has run out; a partition
+    // a live worker is still checkpointing stays with it
+    public InterestRun resume(Long runId) {
+        InterestRun run = getRun(runId);
+        if (run.getStatus() == InterestRun.Status.COMPLETED) {
+            return run;
+        }
+        this.interestPartitionRepository.releaseExpired(runId, LocalDateTime.now());
+        return start(run.getBusinessDate());
+    }
+
+    public InterestRun run(LocalDate businessDate) {
+        return execute(prepare(businessDate).getId());
+    }
+
+    public InterestRun getRun(Long runId) {
+        return this.interestRunRepository.findById(runId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Interest run not found"));
+    }
+
+    public List<InterestPartition> getPartitions(Long runId) {
+        return this.interestPartitionRepository.findByRunIdOrderByPartitionIndex(runId);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        pool.shutdownNow();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private InterestRun prepare(LocalDate businessDate) {
+        Optional<InterestRun> existing = this.interestRunRepository.findByBusinessDate(businessDate);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        try {
+            return this.transactionTemplate.execute(status -> createRun(businessDate));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the run first
+            return this.interestRunRepository.findByBusinessDate(businessDate).orElseThrow(() -> e);
+        }
+    }
+
+    private InterestRun createRun(LocalDate businessDate) {
+        Map<String, Object> bounds = this.jdbcTemplate.queryForMap(
+                "select coalesce(min(id), 1) as min_id, coalesce(max(id), 0) as max_id from account");
+        long minId = ((Number) bounds.get("min_id")).longValue();
+        long maxId = ((Number) bounds.get("max_id")).longValue();
+        int partitions = (int) Math.max(1, Math.min(partitionCount, maxId - minId + 1));
+        long span = Math.max(1, (maxId - minId + partitions) / partitions);
+
+        InterestRun run = new InterestRun();
+        run.setBusinessDate(businessDate);
+        run.setStatus(InterestRun.Status.RUNNING);
+        run.setPartitions(partitions);
+        run.setInterestPosted(BigDecimal.ZERO);
+        run.setStartedAt(LocalDateTime.now());
+        this.interestRunRepository.saveAndFlush(run);
+
+        List<InterestPartition> ranges = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            InterestPartition partition = new InterestPartition();
+            partition.setRunId(run.getId());
+            partition.setPartitionIndex(i);
+            partition.setFromId(minId + i * span);
+            // The last partition is open-ended, so accounts created while the run is prepared are still covered
+            partition.setToId(i == partitions - 1 ? Long.MAX_VALUE : minId + (i + 1) * span - 1);
+            partition.setLastProcessedId(partition.getFromId() - 1);
+            partition.setInterestPosted(BigDecimal.ZERO);
+            partition.setStatus(InterestPartition.Status.PENDING);
+            partition.setUpdatedAt(LocalDateTime.now());
+            ranges.add(partition);
+        }
+        this.interestPartitionRepository.saveAll(ranges);
+        return run;
+    }
+
+    private InterestRun execute(Long runId) {
+        runLock.lock();
+        try {
+            InterestRun run = getRun(runId);
+            if (run.getStatus() == InterestRun.Status.COMPLETED) {
+                return run;
+            }
+            long started = System.nanoTime();
+            long processedBefore = getPartitions(runId).stream().mapToLong(InterestPartition::getAccountsProcessed).sum();
+            LocalDateTime now = LocalDateTime.now();
+            List<InterestPartition> claimable = getPartitions(runId).stream()
+                    .filter(partition -> partition.getStatus() == InterestPartition.Status.PENDING
+                            || partition.getStatus() == InterestPartition.Status.FAILED
+                            || (partition.getStatus() == InterestPartition.Status.RUNNING
+                                && partition.getLeaseUntil() != null && partition.getLeaseUntil().isBefore(now)))
+                    .toList();
+            pool.invokeAll(claimable.stream().map(partition -> (Callable<Void>) () -> {
+                processPartition(partition);
+                return null;
+            }).toList());
+
+            List<InterestPartition> partitions = getPartitions(runId);
+            long processed = partitions.stream().mapToLong(InterestPartition::getAccountsProcessed).sum();
+            boolean complete = partitions.stream().allMatch(partition -> partition.getStatus() == InterestPartition.Status.COMPLETED);
+            long elapsedMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+            run.setAccountsProcessed(processed);
+            run.setInterestPosted(partitions.stream().map(InterestPartition::getInterestPosted).reduce(BigDecimal.ZERO, BigDecimal::add));
+            run.setDurationMillis(elapsedMillis);
+            run.setAccountsPerSecond((processed - processedBefore) * 1000.0 / elapsedMillis);
+            run.setStatus(complete ? InterestRun.Status.COMPLETED : InterestRun.Status.FAILED);
+            run.setFinishedAt(LocalDateTime.now());
+            this.interestRunRepository.save(run);
+            // A read racing a chunk's commit can re-cache the pre-accrual balance after that chunk's eviction
+            secondLevelCache().evictEntityData(Account.class);
+            log.info("Interest run for {} {}: {} accounts, {} posted, {} ms ({} accounts/s)", run.getBusinessDate(),
+                    run.getStatus(), processed, run.getInterestPosted(), elapsedMillis, Math.round(run.getAccountsPerSecond()));
+            return run;
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    private void processPartition(InterestPartition partition) {
+        String owner = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        if (this.interestPartitionRepository.claim(partition.getId(), owner, now.plus(lease), now) == 0) {
+            return;
+        }
+        try {
+            ChunkResult chunk;
+            do {
+                chunk = this.transactionTemplate.execute(status -> processChunk(partition, owner));
+                // The batch update bypasses Hibernate, so the cached accounts are evicted once it is committed
+                Cache cache = secondLevelCache();
+                chunk.updatedIds().forEach(id -> cache.evictEntityData(Account.class, id));
+                // The checkpoint is committed, so the engine is only told now: a rolled back chunk never posts
+                chunk.deltas().forEach((id, deltaMinor) -> {
+                    if (!this.balanceEngine.post(id, deltaMinor)) {
+                        log.error("Interest of {} for account {} is checkpointed but was not posted", deltaMinor, id);
+                    }
+                });
+            } while (chunk.rows() == chunkSize && !Thread.currentThread().isInterrupted());
+            this.interestPartitionRepository.updateStatus(partition.getId(), owner, Thread.currentThread().isInterrupted()
+                    ? InterestPartition.Status.FAILED : InterestPartition.Status.COMPLETED, LocalDateTime.now());
+        } catch (LeaseLostException e) {
+            log.warn("Interest partition {} of run {} was taken over by another worker",
+                    partition.getPartitionIndex(), partition.getRunId());
+        } catch (RuntimeException e) {
+            log.warn("Interest partition {} of run {} failed at its last checkpoint: {}",
+                    partition.getPartitionIndex(), partition.getRunId(), e.getMessage());
+            this.interestPartitionRepository.updateStatus(partition.getId(), owner, InterestPartition.Status.FAILED, LocalDateTime.now());
+        }
+    }
+
+    // Runs inside one transaction: lock the checkpoint, lock the chunk, post interest, advance the checkpoint. The
+    // checkpoint is read under its row lock rather than carried over from the last chunk, so a worker that lost its
+    // lease to another one stops instead of posting the same range again.
+    private ChunkResult processChunk(InterestPartition partition, String owner) {
+        List<Long> checkpoint = this.jdbcTemplate.queryForList(
+                "select last_processed_id from interest_partition where id = ? and lease_owner = ? and status = 'RUNNING' for update",
+                Long.class, partition.getId(), owner);
+        if (checkpoint.isEmpty()) {
+            throw new LeaseLostException();
+        }
+        long afterId = checkpoint.get(0);
+        List<Object> args = new ArrayList<>(List.of(afterId, partition.getToId()));
+        args.addAll(annualRates.keySet());
+        args.add(chunkSize);
+        String placeholders = String.join(", ", Collections.nCopies(annualRates.size(), "?"));
+        List<Object[]> rows = this.jdbcTemplate.query(
+                "select id, customer_id, account_type, balance from account where id > ? and id <= ? " +
+                        "and account_type in (" + placeholders + ") order by id limit ? for update",
+                (rs, rowNum) -> new Object[]{rs.getLong(1), rs.getObject(2, Long.class), rs.getString(3), rs.getBigDecimal(4)},
+                args.toArray());
+        if (rows.isEmpty()) {
+            return new ChunkResult(0, List.of(), Map.of());
+        }
+        List<Object[]> updates = new ArrayList<>(rows.size());
+        List<AccountEvent> events = new ArrayList<>(rows.size());
+        Map<Long, Long> deltas = new LinkedHashMap<>();
+        BigDecimal posted = BigDecimal.ZERO;
+        for (Object[] row : rows) {
+            long id = (Long) row[0];
+            String accountType = (String) row[2];
+            BigDecimal balance = (BigDecimal) row[3];
+            if (this.balanceEngine != null) {
+                OptionalLong current = this.balanceEngine.get(id);
+                if (current.isPresent()) {
+                    balance = MinorUnits.fromMinor(current.getAsLong());
+                }
+            }
+            BigDecimal interest = dailyInterest(balance, annualRates.get(accountType));
+            if (interest.signum() <= 0) {
+                continue;
+            }
+            posted = posted.add(interest);
+            if (this.balanceEngine != null) {
+                // The engine applies the delta and publishes the change itself, after the chunk commits
+                deltas.put(id, MinorUnits.toMinor(interest));
+            } else {
+                BigDecimal newBalance = balance.add(interest);
+                updates.add(new Object[]{newBalance, id});
+                events.add(new AccountEvent(AccountEvent.Type.BALANCE_CHANGED, id, (Long) row[1], accountType, newBalance, interest));
+            }
+        }
+        if (!updates.isEmpty()) {
+            this.jdbcTemplate.batchUpdate("update account set balance = ?, version = version + 1 where id = ?", updates);
+        }
+        long lastId = (Long) rows.get(rows.size() - 1)[0];
+        // Every checkpoint also renews the lease
+        LocalDateTime now = LocalDateTime.now();
+        this.jdbcTemplate.update("update interest_partition set last_processed_id = ?, accounts_processed = accounts_processed + ?, " +
+                        "interest_posted = interest_posted + ?, lease_until = ?, updated_at = ? where id = ? and lease_owner = ?",
+                lastId, rows.size(), posted, now.plus(lease), now, partition.getId(), owner);
+        // Delivered to listeners after the chunk commits
+        events.forEach(this.eventPublisher::publishEvent);
+        return new ChunkResult(rows.size(), updates.stream().map(update -> (Long) update[1]).toList(), deltas);
+    }
+
+    private record ChunkResult(int rows, List<Long> updatedIds, Map<Long, Long> deltas) {
+    }
+
+    private static class LeaseLostException extends RuntimeException {
+    }
+
+    private Cache secondLevelCache() {
+        return this.entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    private BigDecimal dailyInterest(BigDecimal balance, BigDecimal annualRate) {
+        if (balance == null || annualRate == null || balance.signum() <= 0) {
+            return BigDecimal.ZERO;
+        }
+        return balance.multiply(annualRate, RATE_CONTEXT)
+                .divide(BigDecimal.valueOf(daysPerYear), RATE_CONTEXT)
+                .setScale(MinorUnits.SCALE, RoundingMode.HALF_EVEN);
+    }
+}
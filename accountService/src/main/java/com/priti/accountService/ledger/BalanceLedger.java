@@ -0,0 +1,381 @@
+package com.priti.accountService.ledger;
+
+import com.priti.accountService.event.AccountEvent;
+import com.priti.accountService.event.AccountsResetEvent;
+import com.priti.accountService.util.LongLongMap;
+import com.priti.accountService.util.MinorUnits;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+// Append-only journal of balance mutations. Records are fixed 48-byte slots in memory-mapped segment files:
+//   0 sequence | 8 timestamp | 16 accountId | 24 delta | 32 balance | 40 type (int) | 44 crc32c of bytes 0-43
+// A zero sequence marks the unwritten tail of a segment. Segments are named after their first sequence and
+// rolled over when full; snapshots hold every account's balance as of a sequence, so recovery loads the newest
+// snapshot and replays only the records after it.
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "account.ledger.enabled", havingValue = "true")
+public class BalanceLedger {
+    static final int RECORD_SIZE = 48;
+    private static final int CRC_OFFSET = 44;
+    private static final int SNAPSHOT_MAGIC = 0x4C534E50;
+    private static final String SEGMENT_PREFIX = "ledger-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final AccountEvent.Type[] TYPES = AccountEvent.Type.values();
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final CRC32C crc = new CRC32C();
+    // Balance of every live account as of the last appended record
+    private LongLongMap balances = new LongLongMap(1024);
+    private final List<Long> segmentStarts = new ArrayList<>();
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long lastSequence;
+    private long snapshotSequence;
+
+    public BalanceLedger(@Value("${account.ledger.directory:./ledger}") Path directory,
+                         @Value("${account.ledger.segment-size:64MB}") DataSize segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = (int) Math.max(RECORD_SIZE, segmentSize.toBytes() / RECORD_SIZE * RECORD_SIZE);
+        Files.createDirectories(directory);
+        recover();
+        log.info("Balance ledger recovered {} accounts up to sequence {} from {}", balances.size(), lastSequence, directory);
+    }
+
+    // Journals the change once it is committed; engine events carry no transaction and are journaled immediately
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountEvent(AccountEvent event) {
+        long balance = event.getBalance() == null ? 0L : MinorUnits.toMinor(event.getBalance());
+        long delta = event.getDelta() == null ? 0L : MinorUnits.toMinor(event.getDelta());
+        append(event.getType(), event.getAccountId(), delta, balance);
+    }
+
+    // Journals a delete for every account the ledger knows, so replay agrees with the truncated table
+    @EventListener(AccountsResetEvent.class)
+    public void onAccountsReset() {
+        lock.lock();
+        try {
+            long[] accountIds = new long[balances.size()];
+            int[] count = new int[1];
+            balances.forEach((accountId, balance) -> accountIds[count[0]++] = accountId);
+            for (long accountId : accountIds) {
+                append(AccountEvent.Type.DELETED, accountId, 0L, 0L);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long append(AccountEvent.Type type, long accountId, long delta, long balance) {
+        lock.lock();
+        try {
+            if (!segment.hasRemaining()) {
+                roll(lastSequence + 1);
+            }
+            long sequence = ++lastSequence;
+            int position = segment.position();
+            segment.putLong(position, sequence);
+            segment.putLong(position + 8, System.currentTimeMillis());
+            segment.putLong(position + 16, accountId);
+            segment.putLong(position + 24, delta);
+            segment.putLong(position + 32, balance);
+            segment.putInt(position + 40, type.ordinal());
+            segment.putInt(position + CRC_OFFSET, checksum(crc, segment, position));
+            segment.position(position + RECORD_SIZE);
+            apply(type, accountId, balance);
+            return sequence;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not roll ledger segment", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public OptionalLong balance(long accountId) {
+        lock.lock();
+        try {
+            long balance = balances.get(accountId);
+            return balance == LongLongMap.MISSING ? OptionalLong.empty() : OptionalLong.of(balance);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Records for one account in sequence order, starting after the given sequence
+    public List<LedgerRecord> history(long accountId, long afterSequence, int limit) throws IOException {
+        List<Long> starts;
+        long upTo;
+        lock.lock();
+        try {
+            starts = new ArrayList<>(segmentStarts);
+            upTo = lastSequence;
+        } finally {
+            lock.unlock();
+        }
+        List<LedgerRecord> records = new ArrayList<>();
+        for (int i = 0; i < starts.size() && records.size() < limit; i++) {
+            // Skip whole segments that end before the requested sequence
+            if (i + 1 < starts.size() && starts.get(i + 1) <= afterSequence + 1) {
+                continue;
+            }
+            scan(segmentPath(starts.get(i)), record -> {
+                if (record.accountId() == accountId && record.sequence() > afterSequence
+                        && record.sequence() <= upTo && records.size() < limit) {
+                    records.add(record);
+                }
+            });
+        }
+        return records;
+    }
+
+    public LedgerStatus status() {
+        lock.lock();
+        try {
+            return new LedgerStatus(lastSequence, snapshotSequence, segmentStarts.size(), balances.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Copies the balances under the lock and writes them out without holding it, so appends are only paused for the copy
+    @Scheduled(fixedDelayString = "${account.ledger.snapshot-interval:5m}", initialDelayString = "${account.ledger.snapshot-interval:5m}")
+    public long snapshot() throws IOException {
+        LongLongMap copy;
+        long sequence;
+        lock.lock();
+        try {
+            if (lastSequence == snapshotSequence) {
+                return snapshotSequence;
+            }
+            copy = balances.copy();
+            sequence = lastSequence;
+        } finally {
+            lock.unlock();
+        }
+        Path target = directory.resolve(snapshotName(sequence));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        try (CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)), new CRC32C());
+             DataOutputStream out = new DataOutputStream(checked)) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(sequence);
+            out.writeInt(copy.size());
+            IOException[] failure = new IOException[1];
+            copy.forEach((accountId, balance) -> {
+                try {
+                    out.writeLong(accountId);
+                    out.writeLong(balance);
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            out.writeInt((int) checked.getChecksum().getValue());
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        deleteOlderSnapshots(sequence);
+        lock.lock();
+        try {
+            snapshotSequence = Math.max(snapshotSequence, sequence);
+        } finally {
+            lock.unlock();
+        }
+        log.info("Ledger snapshot of {} accounts written at sequence {}", copy.size(), sequence);
+        return sequence;
+    }
+
+    // Mapped writes survive a process crash once appended; forcing them also covers an OS crash
+    @Scheduled(fixedDelayString = "${account.ledger.sync-interval:1s}")
+    public void sync() {
+        lock.lock();
+        try {
+            segment.force();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            segment.force();
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recover() throws IOException {
+        loadLatestSnapshot();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .forEach(segmentStarts::add);
+        }
+        lastSequence = snapshotSequence;
+        int tail = 0;
+        for (int i = 0; i < segmentStarts.size(); i++) {
+            boolean last = i == segmentStarts.size() - 1;
+            // Segments wholly covered by the snapshot need no replay
+            if (!last && segmentStarts.get(i + 1) <= snapshotSequence + 1) {
+                continue;
+            }
+            int[] end = new int[1];
+            boolean complete = scan(segmentPath(segmentStarts.get(i)), record -> {
+                end[0] += RECORD_SIZE;
+                if (record.sequence() > snapshotSequence) {
+                    apply(record.type(), record.accountId(), record.balance());
+                }
+                lastSequence = Math.max(lastSequence, record.sequence());
+            });
+            // Only the segment being written when the process stopped may end in a torn record
+            if (!complete && !last) {
+                throw new IllegalStateException("Ledger segment " + segmentPath(segmentStarts.get(i)) + " is corrupt");
+            }
+            tail = end[0];
+        }
+        if (segmentStarts.isEmpty()) {
+            roll(lastSequence + 1);
+        } else {
+            open(segmentStarts.get(segmentStarts.size() - 1), tail);
+        }
+    }
+
+    private void loadLatestSnapshot() throws IOException {
+        List<Path> snapshots;
+        try (Stream<Path> files = Files.list(directory)) {
+            snapshots = files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX);
+            }).sorted().toList();
+        }
+        // Newest first; a snapshot that fails its checksum falls back to the one before it
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            try (CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(Files.newInputStream(snapshots.get(i))), new CRC32C());
+                 DataInputStream in = new DataInputStream(checked)) {
+                if (in.readInt() != SNAPSHOT_MAGIC) {
+                    throw new IOException("bad magic");
+                }
+                long sequence = in.readLong();
+                int count = in.readInt();
+                LongLongMap loaded = new LongLongMap(Math.max(count, 1024));
+                for (int n = 0; n < count; n++) {
+                    loaded.put(in.readLong(), in.readLong());
+                }
+                int expected = (int) checked.getChecksum().getValue();
+                if (in.readInt() != expected) {
+                    throw new IOException("checksum mismatch");
+                }
+                balances = loaded;
+                snapshotSequence = sequence;
+                return;
+            } catch (IOException e) {
+                log.warn("Skipping unreadable ledger snapshot {}: {}", snapshots.get(i), e.getMessage());
+            }
+        }
+    }
+
+    // Calls the consumer for each valid record; returns false if the segment ends in a torn or corrupt record
+    private boolean scan(Path path, Consumer<LedgerRecord> consumer) throws IOException {
+        CRC32C scanCrc = new CRC32C();
+        try (FileChannel readChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+            for (int position = 0; position + RECORD_SIZE <= buffer.limit(); position += RECORD_SIZE) {
+                long sequence = buffer.getLong(position);
+                if (sequence == 0) {
+                    return true;
+                }
+                int type = buffer.getInt(position + 40);
+                if (buffer.getInt(position + CRC_OFFSET) != checksum(scanCrc, buffer, position) || type < 0 || type >= TYPES.length) {
+                    return false;
+                }
+                consumer.accept(new LedgerRecord(sequence, buffer.getLong(position + 8), buffer.getLong(position + 16),
+                        buffer.getLong(position + 24), buffer.getLong(position + 32), TYPES[type]));
+            }
+            return true;
+        }
+    }
+
+    private void roll(long firstSequence) throws IOException {
+        if (segment != null) {
+            segment.force();
+            channel.close();
+        }
+        segmentStarts.add(firstSequence);
+        open(firstSequence, 0);
+    }
+
+    private void open(long firstSequence, int position) throws IOException {
+        channel = FileChannel.open(segmentPath(firstSequence),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        // Clear a torn record so a later scan stops cleanly at the new tail
+        if (position + RECORD_SIZE <= segmentSize && segment.getLong(position) != 0) {
+            segment.putLong(position, 0L);
+        }
+        segment.position(position);
+    }
+
+    private void apply(AccountEvent.Type type, long accountId, long balance) {
+        if (type == AccountEvent.Type.DELETED) {
+            balances.remove(accountId);
+        } else {
+            balances.put(accountId, balance);
+        }
+    }
+
+    private static int checksum(CRC32C crc, MappedByteBuffer buffer, int position) {
+        crc.reset();
+        crc.update(buffer.slice(position, CRC_OFFSET));
+        return (int) crc.getValue();
+    }
+
+    private void deleteOlderSnapshots(long keepSequence) throws IOException {
+        String keep = snapshotName(keepSequence);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : files.toList()) {
+                String name = path.getFileName().toString();
+                if (name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX) && name.compareTo(keep) < 0) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    private Path segmentPath(long firstSequence) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+    }
+
+    private static String snapshotName(long sequence) {
+        return String.format("%s%020d%s", SNAPSHOT_PREFIX, sequence, SNAPSHOT_SUFFIX);
+    }
+}
@@ -0,0 +1,47 @@
+package com.priti.accountService.ledger;
+
+import com.priti.accountService.util.MinorUnits;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+
+@RestController
+@RequestMapping("/account/ledger")
+@ConditionalOnProperty(name = "account.ledger.enabled", havingValue = "true")
+public class LedgerController {
+    @Autowired
+    private BalanceLedger balanceLedger;
+
+    @GetMapping
+    public LedgerStatus getStatus() {
+        return this.balanceLedger.status();
+    }
+
+    @PostMapping("/snapshot")
+    public LedgerStatus snapshot() throws IOException {
+        this.balanceLedger.snapshot();
+        return this.balanceLedger.status();
+    }
+
+    // Balance rebuilt from the ledger, to compare against the account row
+    @GetMapping("/{accountId}/balance")
+    public ResponseEntity<BigDecimal> getBalance(@PathVariable Long accountId) {
+        return this.balanceLedger.balance(accountId).stream()
+                .mapToObj(MinorUnits::fromMinor)
+                .findFirst()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{accountId}/history")
+    public List<LedgerRecord> getHistory(@PathVariable Long accountId,
+                                         @RequestParam(defaultValue = "0") long afterSequence,
+                                         @RequestParam(defaultValue = "100") int limit) throws IOException {
+        return this.balanceLedger.history(accountId, afterSequence, Math.min(Math.max(limit, 1), 1000));
+    }
+}
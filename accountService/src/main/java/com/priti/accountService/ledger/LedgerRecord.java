@@ -0,0 +1,8 @@
+package com.priti.accountService.ledger;
+
+import com.priti.accountService.event.AccountEvent;
+
+// One journaled balance mutation; amounts are in minor units
+public record LedgerRecord(long sequence, long timestamp, long accountId, long delta, long balance,
+                           AccountEvent.Type type) {
+}
@@ -0,0 +1,4 @@
+package com.priti.accountService.ledger;
+
+public record LedgerStatus(long lastSequence, long snapshotSequence, int segments, int accounts) {
+}
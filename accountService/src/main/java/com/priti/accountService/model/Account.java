@@ -2,15 +2,30 @@ package com.priti.accountService.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_account_customer_id", columnList = "customerId"),
+        @Index(name = "idx_account_number", columnList = "accountNumber", unique = true)
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Account.CACHE_REGION)
 @Data
 public class Account {
+    public static final String ID_GENERATOR_TABLE = "account_id_generator";
+    public static final int ID_ALLOCATION_SIZE = 100;
+    public static final String CACHE_REGION = "account";
+
+    // Pooled table generator instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "account_id")
+    @TableGenerator(name = "account_id", table = ID_GENERATOR_TABLE, pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "account", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     private String accountNumber;
     private String accountType; // e.g., SAVINGS, CURRENT
@@ -18,6 +33,11 @@ public class Account {
 
     private Long customerId; // Foreign key to Customer
 
+    // Optimistic locking for read-modify-write updates; existing rows start at 0
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     private LocalDateTime createdAt;
     @PrePersist
     public void prePersist() {
@@ -0,0 +1,33 @@
+package com.priti.accountService.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// An id range of one run; lastProcessedId is committed together with each chunk's balance updates
+@Entity
+@Table(name = "interest_partition", indexes = @Index(name = "idx_interest_partition_run_id", columnList = "runId"))
+@Data
+public class InterestPartition {
+    public enum Status { PENDING, RUNNING, COMPLETED, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private Long runId;
+    private int partitionIndex;
+    private long fromId;
+    private long toId;
+    private long lastProcessedId;
+    private long accountsProcessed;
+    private BigDecimal interestPosted;
+    @Enumerated(EnumType.STRING)
+    private Status status;
+    // The worker that claimed it; its lease is extended with every chunk and a partition whose lease ran out
+    // (the worker died) can be claimed again
+    private String leaseOwner;
+    private LocalDateTime leaseUntil;
+    private LocalDateTime updatedAt;
+}
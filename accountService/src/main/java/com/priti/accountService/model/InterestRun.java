@@ -0,0 +1,30 @@
+package com.priti.accountService.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// One interest accrual per business date; the unique date keeps two instances from accruing the same day twice
+@Entity
+@Table(name = "interest_run", uniqueConstraints = @UniqueConstraint(name = "uk_interest_run_business_date", columnNames = "businessDate"))
+@Data
+public class InterestRun {
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private LocalDate businessDate;
+    @Enumerated(EnumType.STRING)
+    private Status status;
+    private int partitions;
+    private long accountsProcessed;
+    private BigDecimal interestPosted;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private Long durationMillis; // of the last execution, which may have resumed earlier work
+    private Double accountsPerSecond;
+}
@@ -0,0 +1,12 @@
+package com.priti.accountService.repository;
+
+import java.math.BigDecimal;
+
+// Projection for rebuilding aggregates and chunked deletes without loading whole entities
+public interface AccountBalanceEntry {
+    Long getId();
+    Long getCustomerId();
+    String getAccountNumber();
+    String getAccountType();
+    BigDecimal getBalance();
+}
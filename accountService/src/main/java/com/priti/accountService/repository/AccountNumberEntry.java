@@ -0,0 +1,7 @@
+package com.priti.accountService.repository;
+
+// Projection for warming the account number table without loading whole entities
+public interface AccountNumberEntry {
+    Long getId();
+    String getAccountNumber();
+}
@@ -1,10 +1,83 @@
 package com.priti.accountService.repository;
 
 import com.priti.accountService.model.Account;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.SpecHints.HINT_SPEC_CACHE_STORE_MODE;
+
+// Reads run in read-only transactions, so they can be served by a replica; writes are marked explicitly
+@Transactional(readOnly = true)
 public interface AccountRepository extends JpaRepository<Account, Long> {
+    // With useCursorFetch=true on the JDBC url, MySQL Connector/J reads through a server-side cursor in batches of this size
+    String STREAMING_FETCH_SIZE = "1000";
+    // Query cache region for findByCustomerId; it holds account ids, the rows themselves come from the entity region
+    String ACCOUNTS_BY_CUSTOMER_REGION = "accounts-by-customer";
+
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = ACCOUNTS_BY_CUSTOMER_REGION)})
     List<Account> findByCustomerId(Long customerId);
+    List<Account> findByCustomerIdIn(Collection<Long> customerIds);
+    List<Account> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+    Optional<Account> findByAccountNumber(String accountNumber);
+    boolean existsByAccountNumber(String accountNumber);
+
+    @Query("select a.accountNumber from Account a where a.accountNumber in :accountNumbers")
+    List<String> findExistingAccountNumbers(Collection<String> accountNumbers);
+
+    @Query("select a.id as id, a.accountNumber as accountNumber from Account a where a.id > :afterId order by a.id")
+    List<AccountNumberEntry> findAccountNumbersAfter(Long afterId, Limit limit);
+
+    String BALANCE_ENTRY = "select a.id as id, a.customerId as customerId, a.accountNumber as accountNumber, " +
+            "a.accountType as accountType, a.balance as balance from Account a ";
+
+    @Query(BALANCE_ENTRY + "where a.id > :afterId order by a.id")
+    List<AccountBalanceEntry> findBalancesAfter(Long afterId, Limit limit);
+
+    @Query(BALANCE_ENTRY + "where a.id > :afterId and a.id <= :toId order by a.id")
+    List<AccountBalanceEntry> findBalancesBetween(Long afterId, Long toId, Limit limit);
+
+    @Query(BALANCE_ENTRY + "where a.customerId = :customerId and a.id > :afterId order by a.id")
+    List<AccountBalanceEntry> findBalancesOfCustomerAfter(Long customerId, Long afterId, Limit limit);
+
+    // Single conditional UPDATE: no lost updates, and the balance can never go negative.
+    // Hibernate runs it as a bulk statement: the account region and the cached customer queries are dropped when it commits.
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Account a set a.balance = a.balance + :delta, a.version = a.version + 1 " +
+            "where a.id = :id and a.balance + :delta >= 0")
+    int applyBalanceDelta(Long id, BigDecimal delta);
+
+    // Rows are locked in primary key order, so concurrent callers can never deadlock on each other
+    @Transactional
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.id in :ids order by a.id")
+    List<Account> findAllByIdForUpdate(Collection<Long> ids);
+
+    // Streams read every row once, so they bypass the second-level cache instead of evicting the hot entries from it
+    @Query("select a from Account a order by a.id")
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE),
+            @QueryHint(name = HINT_SPEC_CACHE_STORE_MODE, value = "BYPASS")})
+    Stream<Account> streamAll();
+
+    @Query("select a from Account a where a.customerId = :customerId order by a.id")
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE),
+            @QueryHint(name = HINT_SPEC_CACHE_STORE_MODE, value = "BYPASS")})
+    Stream<Account> streamByCustomerId(Long customerId);
 }
@@ -0,0 +1,36 @@
+package com.priti.accountService.repository;
+
+import com.priti.accountService.model.InterestPartition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface InterestPartitionRepository extends JpaRepository<InterestPartition, Long> {
+    List<InterestPartition> findByRunIdOrderByPartitionIndex(Long runId);
+
+    // Atomic claim, so instances working on the same run never process a partition twice. A RUNNING partition is
+    // only taken over once its owner stopped renewing the lease.
+    @Transactional
+    @Modifying
+    @Query("update InterestPartition p set p.status = 'RUNNING', p.leaseOwner = :owner, p.leaseUntil = :leaseUntil, " +
+            "p.updatedAt = :now where p.id = :id and (p.status in ('PENDING', 'FAILED') " +
+            "or (p.status = 'RUNNING' and p.leaseUntil < :now))")
+    int claim(Long id, String owner, LocalDateTime leaseUntil, LocalDateTime now);
+
+    // Only the current owner may finish a partition; a worker that lost its lease leaves it alone
+    @Transactional
+    @Modifying
+    @Query("update InterestPartition p set p.status = :status, p.updatedAt = :now where p.id = :id and p.leaseOwner = :owner")
+    int updateStatus(Long id, String owner, InterestPartition.Status status, LocalDateTime now);
+
+    // For resuming after a crash: partitions left RUNNING by a dead process, whose lease ran out, become claimable
+    @Transactional
+    @Modifying
+    @Query("update InterestPartition p set p.status = 'PENDING' where p.runId = :runId and p.status = 'RUNNING' " +
+            "and p.leaseUntil < :now")
+    int releaseExpired(Long runId, LocalDateTime now);
+}
@@ -0,0 +1,11 @@
+package com.priti.accountService.repository;
+
+import com.priti.accountService.model.InterestRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+public interface InterestRunRepository extends JpaRepository<InterestRun, Long> {
+    Optional<InterestRun> findByBusinessDate(LocalDate businessDate);
+}
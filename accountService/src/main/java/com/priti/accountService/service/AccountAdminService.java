@@ -0,0 +1,9 @@
+package com.priti.accountService.service;
+
+import com.priti.accountService.dto.BulkDeleteResponse;
+
+public interface AccountAdminService {
+    BulkDeleteResponse deleteAccountsInRange(Long fromId, Long toId);
+    BulkDeleteResponse deleteAccountsOfCustomer(Long customerId);
+    BulkDeleteResponse deleteAllAccounts();
+}
@@ -1,14 +1,28 @@
 package com.priti.accountService.service;
+import com.priti.accountService.dto.BulkCreateResponse;
+import com.priti.accountService.dto.CursorPage;
 import com.priti.accountService.model.Account;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface AccountService {
     Account createAccount(Account account);
+    BulkCreateResponse createAccounts(List<Account> accounts);
     Account getAccountById(Long id);
+    Account getAccountByAccountNumber(String accountNumber);
     List<Account> getAllAccounts();
+    long countAccounts();
+    CursorPage<Account> getAccountsPage(Long afterId, int size);
+    void streamAllAccounts(Consumer<Account> consumer);
     List<Account> getAccountsOfCustomer(Long customerId);
+    void streamAccountsOfCustomer(Long customerId, Consumer<Account> consumer);
+    Map<Long, List<Account>> getAccountsOfCustomers(Collection<Long> customerIds);
     Account updateAccountBalance(Long id, BigDecimal balance);
+    Account creditAccount(Long id, BigDecimal amount);
+    Account debitAccount(Long id, BigDecimal amount);
     void deleteAccount(Long id);
 }
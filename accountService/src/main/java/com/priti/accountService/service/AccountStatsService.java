@@ -0,0 +1,11 @@
+package com.priti.accountService.service;
+
+import com.priti.accountService.dto.BalanceStats;
+import com.priti.accountService.dto.PortfolioStats;
+
+public interface AccountStatsService {
+    PortfolioStats getStats();
+    BalanceStats getAccountTypeStats(String accountType);
+    BalanceStats getCustomerStats(Long customerId);
+    void reconcile();
+}
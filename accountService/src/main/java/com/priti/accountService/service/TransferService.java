@@ -0,0 +1,8 @@
+package com.priti.accountService.service;
+
+import com.priti.accountService.dto.TransferRequest;
+import com.priti.accountService.dto.TransferResult;
+
+public interface TransferService {
+    TransferResult transfer(TransferRequest request);
+}
@@ -0,0 +1,112 @@
+package com.priti.accountService.service.impl;
+
+import com.priti.accountService.dto.BulkDeleteResponse;
+import com.priti.accountService.engine.BalanceEngine;
+import com.priti.accountService.event.AccountEvent;
+import com.priti.accountService.event.AccountsResetEvent;
+import com.priti.accountService.model.Account;
+import com.priti.accountService.repository.AccountBalanceEntry;
+import com.priti.accountService.repository.AccountRepository;
+import com.priti.accountService.service.AccountAdminService;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.function.LongFunction;
+
+// Set-based deletes for resetting environments. Range and customer deletes run one short transaction per chunk,
+// so they never hold locks on the whole table; a full reset truncates.
+@Service
+@Slf4j
+public class AccountAdminServiceImpl implements AccountAdminService {
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private AccountNumberIndex accountNumberIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired(required = false)
+    private BalanceEngine balanceEngine;
+
+    @Value("${account.admin.delete-chunk-size:5000}")
+    private int deleteChunkSize;
+
+    @Override
+    public BulkDeleteResponse deleteAccountsInRange(Long fromId, Long toId) {
+        if (fromId == null || toId == null || fromId > toId) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "fromId must not be greater than toId");
+        }
+        return deleteInChunks(fromId - 1, afterId ->
+                this.accountRepository.findBalancesBetween(afterId, toId, Limit.of(deleteChunkSize)));
+    }
+
+    @Override
+    public BulkDeleteResponse deleteAccountsOfCustomer(Long customerId) {
+        return deleteInChunks(0L, afterId ->
+                this.accountRepository.findBalancesOfCustomerAfter(customerId, afterId, Limit.of(deleteChunkSize)));
+    }
+
+    @Override
+    public BulkDeleteResponse deleteAllAccounts() {
+        long count = this.accountRepository.count();
+        if (this.balanceEngine != null) {
+            this.balanceEngine.evictAll();
+        }
+        this.jdbcTemplate.execute("truncate table account");
+        // The truncate bypasses Hibernate, so the second-level cache has to be told
+        Cache cache = this.entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(Account.class);
+        cache.evictQueryRegions();
+        this.eventPublisher.publishEvent(new AccountsResetEvent(count));
+        log.info("Truncated account table ({} accounts)", count);
+        return new BulkDeleteResponse(count);
+    }
+
+    private BulkDeleteResponse deleteInChunks(long afterId, LongFunction<List<AccountBalanceEntry>> nextChunk) {
+        long deleted = 0;
+        List<AccountBalanceEntry> chunk;
+        do {
+            chunk = nextChunk.apply(afterId);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            List<Long> ids = chunk.stream().map(AccountBalanceEntry::getId).toList();
+            if (this.balanceEngine != null) {
+                ids.forEach(this.balanceEngine::evict);
+            }
+            this.transactionTemplate.executeWithoutResult(status -> this.accountRepository.deleteAllByIdInBatch(ids));
+            // Listeners (ledger, stats, customer cache invalidation) see the same events as single deletes
+            for (AccountBalanceEntry entry : chunk) {
+                this.accountNumberIndex.remove(entry.getAccountNumber(), entry.getId());
+                this.eventPublisher.publishEvent(new AccountEvent(AccountEvent.Type.DELETED, entry.getId(),
+                        entry.getCustomerId(), entry.getAccountType(), entry.getBalance(), null));
+            }
+            deleted += chunk.size();
+            afterId = ids.get(ids.size() - 1);
+        } while (chunk.size() == deleteChunkSize);
+        return new BulkDeleteResponse(deleted);
+    }
+}
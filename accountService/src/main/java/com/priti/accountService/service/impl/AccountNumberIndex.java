@@ -0,0 +1,143 @@
+package com.priti.accountService.service.impl;
+
+import com.priti.accountService.event.AccountsResetEvent;
+import com.priti.accountService.repository.AccountNumberEntry;
+import com.priti.accountService.repository.AccountRepository;
+import com.priti.accountService.util.LongLongMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// accountNumber -> id table kept as a 64-bit fingerprint in a primitive map: two longs per account, no String or
+// Long objects. A fingerprint is only a hint; callers confirm the row's account number and fall back to the database.
+@Component
+@Slf4j
+public class AccountNumberIndex {
+    private final AccountRepository accountRepository;
+    private final int warmPageSize;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongLongMap ids;
+    private volatile boolean warm;
+
+    public AccountNumberIndex(AccountRepository accountRepository,
+                              @Value("${account.number-index.expected-size:1048576}") int expectedSize,
+                              @Value("${account.number-index.warm-page-size:10000}") int warmPageSize) {
+        this.accountRepository = accountRepository;
+        this.warmPageSize = warmPageSize;
+        this.ids = new LongLongMap(expectedSize);
+    }
+
+    // Loads every account number in the background once the application is up; lookups fall back to the database meanwhile
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Thread warmer = new Thread(this::load, "account-number-index-warmer");
+        warmer.setDaemon(true);
+        warmer.start();
+    }
+
+    public long find(String accountNumber) {
+        lock.readLock().lock();
+        try {
+            return ids.get(fingerprint(accountNumber));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(String accountNumber, long id) {
+        if (accountNumber == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            ids.put(fingerprint(accountNumber), id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String accountNumber, long id) {
+        if (accountNumber == null) {
+            return;
+        }
+        long key = fingerprint(accountNumber);
+        lock.writeLock().lock();
+        try {
+            // A colliding account number may own the slot now; leave it alone
+            if (ids.get(key) == id) {
+                ids.remove(key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ids.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(AccountsResetEvent.class)
+    public void onAccountsReset() {
+        clear();
+    }
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    private void load() {
+        long started = System.nanoTime();
+        long afterId = 0L;
+        int loaded = 0;
+        try {
+            List<AccountNumberEntry> page;
+            do {
+                page = this.accountRepository.findAccountNumbersAfter(afterId, Limit.of(warmPageSize));
+                lock.writeLock().lock();
+                try {
+                    for (AccountNumberEntry entry : page) {
+                        if (entry.getAccountNumber() != null) {
+                            ids.put(fingerprint(entry.getAccountNumber()), entry.getId());
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                loaded += page.size();
+                if (!page.isEmpty()) {
+                    afterId = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == warmPageSize);
+            warm = true;
+            log.info("Account number index warmed with {} accounts in {} ms", loaded, (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Account number index warm-up stopped after {} accounts: {}", loaded, e.getMessage());
+        }
+    }
+
+    // FNV-1a over the UTF-16 chars followed by a murmur3 finalizer; 0 is reserved by the map as the empty key
+    static long fingerprint(String accountNumber) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < accountNumber.length(); i++) {
+            hash ^= accountNumber.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash == 0L ? 1L : hash;
+    }
+}
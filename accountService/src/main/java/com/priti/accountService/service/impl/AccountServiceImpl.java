@@ -1,53 +1,332 @@
 package com.priti.accountService.service.impl;
 
+import com.priti.accountService.dto.BulkCreateResponse;
+import com.priti.accountService.dto.BulkCreateResult;
+import com.priti.accountService.dto.CursorPage;
+import com.priti.accountService.engine.BalanceEngine;
+import com.priti.accountService.event.AccountEvent;
 import com.priti.accountService.model.Account;
 import com.priti.accountService.repository.AccountRepository;
 import com.priti.accountService.service.AccountService;
+import com.priti.accountService.util.LongLongMap;
+import com.priti.accountService.util.MinorUnits;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class AccountServiceImpl implements AccountService {
+    private static final int MAX_PAGE_SIZE = 1000;
+
     @Autowired
     private AccountRepository accountRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private BalanceUpdateRetry balanceUpdateRetry;
+
+    @Autowired
+    private AccountNumberIndex accountNumberIndex;
+
+    // Present only when account.engine.enabled=true; balances are then owned by the in-memory engine
+    @Autowired(required = false)
+    private BalanceEngine balanceEngine;
+
+    @Value("${account.bulk.max-size:10000}")
+    private int bulkMaxSize;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}")
+    private int jdbcBatchSize;
+
     @Override
     public Account createAccount(Account account) {
-        return this.accountRepository.save(account);
+        if (account.getAccountNumber() != null && this.accountRepository.existsByAccountNumber(account.getAccountNumber())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Account number already exists");
+        }
+        Account savedAccount;
+        try {
+            savedAccount = this.accountRepository.saveAndFlush(account);
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with a concurrent create: the unique index has the final word
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Account number already exists");
+        }
+        this.accountNumberIndex.put(savedAccount.getAccountNumber(), savedAccount.getId());
+        publish(AccountEvent.Type.CREATED, savedAccount);
+        return savedAccount;
+    }
+
+    @Override
+    @Transactional
+    public BulkCreateResponse createAccounts(List<Account> accounts) {
+        if (accounts.size() > bulkMaxSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + bulkMaxSize + " accounts per request");
+        }
+        // Reject duplicate account numbers up front so one bad row doesn't roll back the whole batch
+        Set<String> existingNumbers = new HashSet<>();
+        List<String> numbers = accounts.stream().map(Account::getAccountNumber).filter(number -> number != null).toList();
+        for (int from = 0; from < numbers.size(); from += jdbcBatchSize) {
+            existingNumbers.addAll(this.accountRepository.findExistingAccountNumbers(
+                    numbers.subList(from, Math.min(from + jdbcBatchSize, numbers.size()))));
+        }
+        List<BulkCreateResult> results = new ArrayList<>(accounts.size());
+        List<Account> chunk = new ArrayList<>(jdbcBatchSize);
+        List<Integer> chunkIndexes = new ArrayList<>(jdbcBatchSize);
+        for (int i = 0; i < accounts.size(); i++) {
+            Account account = accounts.get(i);
+            if (account.getAccountNumber() != null && !existingNumbers.add(account.getAccountNumber())) {
+                results.add(new BulkCreateResult(i, null, "Account number already exists"));
+            } else {
+                account.setId(null);
+                chunk.add(account);
+                chunkIndexes.add(i);
+                if (chunk.size() == jdbcBatchSize) {
+                    saveChunk(chunk, chunkIndexes, results);
+                }
+            }
+        }
+        saveChunk(chunk, chunkIndexes, results);
+        results.sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        long failed = results.stream().filter(result -> result.getError() != null).count();
+        return new BulkCreateResponse(accounts.size(), (int) (accounts.size() - failed), (int) failed, results);
+    }
+
+    // One JDBC batch per chunk, then drop the chunk from the persistence context
+    private void saveChunk(List<Account> chunk, List<Integer> chunkIndexes, List<BulkCreateResult> results) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        this.accountRepository.saveAll(chunk);
+        this.entityManager.flush();
+        this.entityManager.clear();
+        for (int i = 0; i < chunk.size(); i++) {
+            Account account = chunk.get(i);
+            results.add(new BulkCreateResult(chunkIndexes.get(i), account.getId(), null));
+            this.accountNumberIndex.put(account.getAccountNumber(), account.getId());
+            publish(AccountEvent.Type.CREATED, account);
+        }
+        chunk.clear();
+        chunkIndexes.clear();
     }
 
     @Override
     public Account getAccountById(Long id) {
-        return this.accountRepository.findById(id).orElseThrow(() -> new RuntimeException("Account not found"));
+        Account account = this.accountRepository.findById(id).orElseThrow(() -> new RuntimeException("Account not found"));
+        return withEngineBalance(account);
+    }
+
+    @Override
+    public Account getAccountByAccountNumber(String accountNumber) {
+        long id = this.accountNumberIndex.find(accountNumber);
+        Account account = id == LongLongMap.MISSING ? null : this.accountRepository.findById(id)
+                .filter(candidate -> accountNumber.equals(candidate.getAccountNumber()))
+                .orElse(null);
+        if (account == null) {
+            // Created by another instance, not warmed yet, or a fingerprint collision: the unique index answers
+            account = this.accountRepository.findByAccountNumber(accountNumber)
+                    .orElseThrow(() -> new RuntimeException("Account not found"));
+            this.accountNumberIndex.put(accountNumber, account.getId());
+        }
+        return withEngineBalance(account);
+    }
+
+    private Account withEngineBalance(Account account) {
+        if (this.balanceEngine != null) {
+            this.balanceEngine.get(account.getId()).ifPresent(balance -> account.setBalance(MinorUnits.fromMinor(balance)));
+        }
+        return account;
+    }
+
+    // Resident engine balances replace the rows' ones, which may not have been flushed yet; one round trip per shard
+    private List<Account> withEngineBalances(List<Account> accounts) {
+        if (this.balanceEngine != null && !accounts.isEmpty()) {
+            Map<Long, Long> resident = this.balanceEngine.getAll(accounts.stream().map(Account::getId).toList());
+            for (Account account : accounts) {
+                Long balance = resident.get(account.getId());
+                if (balance != null) {
+                    account.setBalance(MinorUnits.fromMinor(balance));
+                }
+            }
+        }
+        return accounts;
     }
 
     @Override
     public List<Account> getAllAccounts() {
-        return this.accountRepository.findAll();
+        return withEngineBalances(this.accountRepository.findAll());
+    }
+
+    @Override
+    public long countAccounts() {
+        return this.accountRepository.count();
+    }
+
+    @Override
+    public CursorPage<Account> getAccountsPage(Long afterId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<Account> accounts = withEngineBalances(this.accountRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(pageSize)));
+        Long nextCursor = accounts.size() < pageSize ? null : accounts.get(accounts.size() - 1).getId();
+        return new CursorPage<>(accounts, nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllAccounts(Consumer<Account> consumer) {
+        try (Stream<Account> accounts = this.accountRepository.streamAll()) {
+            stream(accounts, consumer);
+        }
+    }
+
+    private void stream(Stream<Account> accounts, Consumer<Account> consumer) {
+        if (this.balanceEngine == null) {
+            accounts.forEach(account -> {
+                consumer.accept(account);
+                // Keep the persistence context empty so memory stays flat for any table size
+                this.entityManager.detach(account);
+            });
+            return;
+        }
+        // Engine balances are looked up a chunk at a time; rows are detached first, so they are never written back
+        List<Account> chunk = new ArrayList<>(jdbcBatchSize);
+        accounts.forEach(account -> {
+            this.entityManager.detach(account);
+            chunk.add(account);
+            if (chunk.size() == jdbcBatchSize) {
+                withEngineBalances(chunk).forEach(consumer);
+                chunk.clear();
+            }
+        });
+        withEngineBalances(chunk).forEach(consumer);
     }
 
     @Override
     public List<Account> getAccountsOfCustomer(Long customerId) {
-        return this.accountRepository.findByCustomerId(customerId);
+        return withEngineBalances(this.accountRepository.findByCustomerId(customerId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAccountsOfCustomer(Long customerId, Consumer<Account> consumer) {
+        try (Stream<Account> accounts = this.accountRepository.streamByCustomerId(customerId)) {
+            stream(accounts, consumer);
+        }
+    }
+
+    @Override
+    public Map<Long, List<Account>> getAccountsOfCustomers(Collection<Long> customerIds) {
+        if (customerIds.isEmpty()) {
+            return Map.of();
+        }
+        // One IN query for the whole batch, grouped by owner
+        return withEngineBalances(this.accountRepository.findByCustomerIdIn(customerIds)).stream()
+                .collect(Collectors.groupingBy(Account::getCustomerId));
     }
 
     @Override
     public Account updateAccountBalance(Long id, BigDecimal balance) {
-        Account account = this.accountRepository.findById(id).orElse(null);
-        if(account != null) {
+        if (this.balanceEngine != null) {
+            Account account = this.accountRepository.findById(id).orElse(null);
+            if (account != null) {
+                account.setBalance(MinorUnits.fromMinor(this.balanceEngine.set(id, MinorUnits.toMinor(balance))));
+            }
+            return account;
+        }
+        Account savedAccount = this.balanceUpdateRetry.execute(() -> {
+            Account account = this.accountRepository.findById(id).orElse(null);
+            if (account == null) {
+                return null;
+            }
             account.setBalance(balance);
-            return this.accountRepository.save(account);
+            // The version check turns a concurrent write into a retry instead of a lost update
+            return this.accountRepository.saveAndFlush(account);
+        });
+        if (savedAccount != null) {
+            publish(AccountEvent.Type.BALANCE_CHANGED, savedAccount);
         }
-        else{
-            return null;
+        return savedAccount;
+    }
+
+    @Override
+    public Account creditAccount(Long id, BigDecimal amount) {
+        return applyBalanceDelta(id, requirePositive(amount));
+    }
+
+    @Override
+    public Account debitAccount(Long id, BigDecimal amount) {
+        return applyBalanceDelta(id, requirePositive(amount).negate());
+    }
+
+    private Account applyBalanceDelta(Long id, BigDecimal delta) {
+        if (this.balanceEngine != null) {
+            // The engine validates, applies and publishes the change; the row is only read for the response
+            long balance = this.balanceEngine.applyDelta(id, MinorUnits.toMinor(delta));
+            Account account = this.accountRepository.findById(id).orElseThrow(() -> new RuntimeException("Account not found"));
+            account.setBalance(MinorUnits.fromMinor(balance));
+            return account;
+        }
+        Account account = this.balanceUpdateRetry.execute(() -> {
+            if (this.accountRepository.applyBalanceDelta(id, delta) == 0) {
+                if (!this.accountRepository.existsById(id)) {
+                    throw new RuntimeException("Account not found");
+                }
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Insufficient funds");
+            }
+            // A read-write region is only cleared once the bulk update commits, so drop the row for the read below
+            this.entityManager.getEntityManagerFactory().getCache().evict(Account.class, id);
+            return this.accountRepository.findById(id).orElseThrow(() -> new RuntimeException("Account not found"));
+        });
+        publish(AccountEvent.Type.BALANCE_CHANGED, account, delta);
+        return account;
+    }
+
+    private BigDecimal requirePositive(BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Amount must be positive");
         }
+        return amount;
     }
 
     @Override
     public void deleteAccount(Long id) {
-        this.accountRepository.deleteById(id);
+        this.accountRepository.findById(id).ifPresent(account -> {
+            if (this.balanceEngine != null) {
+                this.balanceEngine.evict(id);
+            }
+            this.accountRepository.delete(account);
+            this.accountNumberIndex.remove(account.getAccountNumber(), id);
+            publish(AccountEvent.Type.DELETED, account);
+        });
+    }
+
+    private void publish(AccountEvent.Type type, Account account) {
+        publish(type, account, null);
+    }
+
+    private void publish(AccountEvent.Type type, Account account, BigDecimal delta) {
+        this.eventPublisher.publishEvent(new AccountEvent(type, account.getId(), account.getCustomerId(),
+                account.getAccountType(), account.getBalance(), delta));
     }
 }
@@ -0,0 +1,326 @@
+package com.priti.accountService.service.impl;
+
+import com.priti.accountService.dto.BalanceStats;
+import com.priti.accountService.dto.PortfolioStats;
+import com.priti.accountService.engine.BalanceEngine;
+import com.priti.accountService.event.AccountEvent;
+import com.priti.accountService.event.AccountsResetEvent;
+import com.priti.accountService.repository.AccountBalanceEntry;
+import com.priti.accountService.repository.AccountRepository;
+import com.priti.accountService.service.AccountStatsService;
+import com.priti.accountService.util.LongLongMap;
+import com.priti.accountService.util.MinorUnits;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Running count/sum/min/max per account type and per customer, maintained from account events.
+// Each account's last known balance lives in a lock-striped primitive map so every event becomes a delta;
+// the group counters are LongAdders, so reads never block writers. Min and max only widen between
+// reconciliations (a lowered maximum can't be undone without a rescan), which the periodic rebuild corrects.
+@Service
+@Slf4j
+public class AccountStatsServiceImpl implements AccountStatsService {
+    private static final int STRIPES = 64;
+    private static final String UNSPECIFIED_TYPE = "UNSPECIFIED";
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    // With the engine enabled, its resident balances are newer than the table's
+    @Autowired(required = false)
+    private BalanceEngine balanceEngine;
+
+    @Value("${account.stats.reconcile-page-size:10000}")
+    private int reconcilePageSize;
+
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+    private volatile State state = new State();
+    // Every event is numbered on arrival, and each account remembers the number of the last event applied to it (or,
+    // after a rebuild, the number current when its page was read), so an older event never overwrites a newer balance
+    private final AtomicLong eventSequence = new AtomicLong();
+    // Non-null while a rebuild runs: events seen meanwhile are replayed onto the rebuilt state
+    private volatile Queue<SequencedEvent> pending;
+    private volatile Instant reconciledAt;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountEvent(AccountEvent event) {
+        // Numbered before pending is read: an event numbered after a page's mark is always queued for the replay
+        long sequence = eventSequence.incrementAndGet();
+        Queue<SequencedEvent> queue = pending;
+        if (queue != null) {
+            queue.add(new SequencedEvent(sequence, event));
+        }
+        state.apply(event, sequence);
+    }
+
+    private record SequencedEvent(long sequence, AccountEvent event) {
+    }
+
+    @EventListener(AccountsResetEvent.class)
+    public void onAccountsReset() {
+        reconcile();
+    }
+
+    @Override
+    public PortfolioStats getStats() {
+        State current = state;
+        Map<String, BalanceStats> byType = new TreeMap<>();
+        current.byType.forEach((type, aggregate) -> byType.put(type, aggregate.toStats()));
+        return new PortfolioStats(current.total.toStats(), byType, reconciledAt);
+    }
+
+    @Override
+    public BalanceStats getAccountTypeStats(String accountType) {
+        Aggregate aggregate = state.byType.get(accountType);
+        return aggregate == null ? Aggregate.emptyStats() : aggregate.toStats();
+    }
+
+    @Override
+    public BalanceStats getCustomerStats(Long customerId) {
+        Aggregate aggregate = state.byCustomer.get(customerId);
+        return aggregate == null ? Aggregate.emptyStats() : aggregate.toStats();
+    }
+
+    // Rebuilds every aggregate from the table and swaps it in; runs once at startup, then periodically
+    @Override
+    @Scheduled(fixedDelayString = "${account.stats.reconcile-interval:5m}")
+    public void reconcile() {
+        if (!reconcileLock.tryLock()) {
+            return;
+        }
+        try {
+            long started = System.nanoTime();
+            boolean initial = reconciledAt == null;
+            Queue<SequencedEvent> queue = new ConcurrentLinkedQueue<>();
+            pending = queue;
+            State rebuilt = new State();
+            long afterId = 0L;
+            List<AccountBalanceEntry> page;
+            do {
+                // Events numbered up to the mark were committed before the page is read, so it already has them
+                long mark = eventSequence.get();
+                page = this.accountRepository.findBalancesAfter(afterId, Limit.of(reconcilePageSize));
+                Map<Long, Long> engineBalances = this.balanceEngine == null || page.isEmpty() ? Map.of()
+                        : this.balanceEngine.getAll(page.stream().map(AccountBalanceEntry::getId).toList());
+                // The engine publishes after applying a change, so its balances cover every event numbered so far
+                long engineMark = eventSequence.get();
+                for (AccountBalanceEntry entry : page) {
+                    Long engineBalance = engineBalances.get(entry.getId());
+                    if (engineBalance != null) {
+                        rebuilt.put(entry.getId(), entry.getCustomerId(), entry.getAccountType(), engineBalance,
+                                engineMark);
+                    } else {
+                        rebuilt.put(entry.getId(), entry.getCustomerId(), entry.getAccountType(),
+                                entry.getBalance() == null ? 0L : MinorUnits.toMinor(entry.getBalance()), mark);
+                    }
+                }
+                if (!page.isEmpty()) {
+                    afterId = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == reconcilePageSize);
+            State previous = state;
+            state = rebuilt;
+            pending = null;
+            // Events carry the balance after the change, and one older than what an account already has is skipped,
+            // so replaying is idempotent and safe after newer events were applied directly to the rebuilt state
+            for (SequencedEvent queued; (queued = queue.poll()) != null; ) {
+                rebuilt.apply(queued.event(), queued.sequence());
+            }
+            reconciledAt = Instant.now();
+            long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+            long countDrift = rebuilt.total.count.sum() - previous.total.count.sum();
+            long sumDrift = rebuilt.total.sum.sum() - previous.total.sum.sum();
+            if (initial) {
+                log.info("Account stats built from {} accounts in {} ms", rebuilt.total.count.sum(), elapsedMillis);
+            } else if (countDrift != 0 || sumDrift != 0) {
+                log.info("Account stats reconciled in {} ms, corrected count by {} and sum by {}",
+                        elapsedMillis, countDrift, MinorUnits.fromMinor(sumDrift));
+            }
+        } catch (RuntimeException e) {
+            pending = null;
+            log.warn("Account stats reconciliation failed: {}", e.getMessage());
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private static final class State {
+        private final Stripe[] stripes = new Stripe[STRIPES];
+        private final Aggregate total = new Aggregate();
+        private final Map<String, Aggregate> byType = new ConcurrentHashMap<>();
+        private final Map<Long, Aggregate> byCustomer = new ConcurrentHashMap<>();
+        // Account types are few; accounts store a small index instead of the String
+        private final Map<String, Integer> typeIds = new ConcurrentHashMap<>();
+        private final Map<Integer, String> typeNames = new ConcurrentHashMap<>();
+        private final AtomicInteger nextTypeId = new AtomicInteger();
+
+        private State() {
+            for (int i = 0; i < STRIPES; i++) {
+                stripes[i] = new Stripe();
+            }
+        }
+
+        void apply(AccountEvent event, long sequence) {
+            if (event.getAccountId() == null) {
+                return;
+            }
+            long balance = event.getBalance() == null ? 0L : MinorUnits.toMinor(event.getBalance());
+            if (event.getType() == AccountEvent.Type.DELETED) {
+                remove(event.getAccountId());
+            } else if (event.getType() == AccountEvent.Type.CREATED) {
+                put(event.getAccountId(), event.getCustomerId(), event.getAccountType(), balance, sequence);
+            } else {
+                update(event.getAccountId(), balance, sequence);
+            }
+        }
+
+        void put(long accountId, Long customerId, String accountType, long balance, long sequence) {
+            Stripe stripe = stripeFor(accountId);
+            stripe.lock.lock();
+            try {
+                if (stripe.balances.get(accountId) != LongLongMap.MISSING) {
+                    updateLocked(stripe, accountId, balance, sequence);
+                    return;
+                }
+                long owner = customerId == null ? 0L : customerId;
+                long typeId = typeId(accountType);
+                stripe.balances.put(accountId, balance);
+                stripe.owners.put(accountId, owner);
+                stripe.types.put(accountId, typeId);
+                stripe.sequences.put(accountId, sequence);
+                for (Aggregate aggregate : aggregates(owner, typeId)) {
+                    aggregate.add(balance);
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+
+        // Accounts this instance has not seen yet (created elsewhere) are picked up by the next reconciliation
+        void update(long accountId, long balance, long sequence) {
+            Stripe stripe = stripeFor(accountId);
+            stripe.lock.lock();
+            try {
+                updateLocked(stripe, accountId, balance, sequence);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+
+        void remove(long accountId) {
+            Stripe stripe = stripeFor(accountId);
+            stripe.lock.lock();
+            try {
+                long balance = stripe.balances.remove(accountId);
+                if (balance == LongLongMap.MISSING) {
+                    return;
+                }
+                stripe.sequences.remove(accountId);
+                for (Aggregate aggregate : aggregates(stripe.owners.remove(accountId), stripe.types.remove(accountId))) {
+                    aggregate.remove(balance);
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+
+        private void updateLocked(Stripe stripe, long accountId, long balance, long sequence) {
+            long previous = stripe.balances.get(accountId);
+            if (previous == LongLongMap.MISSING || sequence <= stripe.sequences.get(accountId)) {
+                return;
+            }
+            stripe.balances.put(accountId, balance);
+            stripe.sequences.put(accountId, sequence);
+            for (Aggregate aggregate : aggregates(stripe.owners.get(accountId), stripe.types.get(accountId))) {
+                aggregate.change(previous, balance);
+            }
+        }
+
+        private Aggregate[] aggregates(long owner, long typeId) {
+            Aggregate byTypeAggregate = byType.computeIfAbsent(typeNames.get((int) typeId), type -> new Aggregate());
+            if (owner == 0L) {
+                return new Aggregate[]{total, byTypeAggregate};
+            }
+            return new Aggregate[]{total, byTypeAggregate, byCustomer.computeIfAbsent(owner, id -> new Aggregate())};
+        }
+
+        private long typeId(String accountType) {
+            String name = accountType == null ? UNSPECIFIED_TYPE : accountType;
+            return typeIds.computeIfAbsent(name, key -> {
+                int id = nextTypeId.getAndIncrement();
+                typeNames.put(id, key);
+                return id;
+            });
+        }
+
+        private Stripe stripeFor(long accountId) {
+            long hash = accountId * 0x9E3779B97F4A7C15L;
+            return stripes[(int) (hash >>> 58)];
+        }
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LongLongMap balances = new LongLongMap(1024);
+        private final LongLongMap owners = new LongLongMap(1024);
+        private final LongLongMap types = new LongLongMap(1024);
+        private final LongLongMap sequences = new LongLongMap(1024);
+    }
+
+    private static final class Aggregate {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+        void add(long balance) {
+            count.increment();
+            sum.add(balance);
+            min.accumulate(balance);
+            max.accumulate(balance);
+        }
+
+        void remove(long balance) {
+            count.decrement();
+            sum.add(-balance);
+        }
+
+        void change(long previous, long balance) {
+            sum.add(balance - previous);
+            min.accumulate(balance);
+            max.accumulate(balance);
+        }
+
+        BalanceStats toStats() {
+            long accounts = count.sum();
+            if (accounts == 0) {
+                return emptyStats();
+            }
+            return new BalanceStats(accounts, MinorUnits.fromMinor(sum.sum()),
+                    MinorUnits.fromMinor(min.get()), MinorUnits.fromMinor(max.get()));
+        }
+
+        static BalanceStats emptyStats() {
+            return new BalanceStats(0L, MinorUnits.fromMinor(0L), null, null);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.priti.accountService.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+// Runs each attempt in its own transaction and retries optimistic-lock conflicts, lock wait timeouts and
+// deadlocks a bounded number of times with jittered exponential backoff
+@Component
+@Slf4j
+public class BalanceUpdateRetry {
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    public BalanceUpdateRetry(TransactionTemplate transactionTemplate,
+                              @Value("${account.balance.max-attempts:5}") int maxAttempts,
+                              @Value("${account.balance.retry-backoff:10ms}") Duration backoff) {
+        this.transactionTemplate = transactionTemplate;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoff.toMillis();
+    }
+
+    public <T> T execute(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return this.transactionTemplate.execute(status -> action.get());
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= this.maxAttempts) {
+                    throw e;
+                }
+                log.debug("Balance update conflict, attempt {} of {}: {}", attempt, this.maxAttempts, e.getMessage());
+                sleep(attempt);
+            }
+        }
+    }
+
+    private void sleep(int attempt) {
+        long delay = this.backoffMillis << (attempt - 1);
+        try {
+            Thread.sleep(delay + ThreadLocalRandom.current().nextLong(delay + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying balance update", e);
+        }
+    }
+}
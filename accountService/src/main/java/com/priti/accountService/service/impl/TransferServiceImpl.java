@@ -0,0 +1,242 @@
+package com.priti.accountService.service.impl;
+
+import com.priti.accountService.dto.TransferRequest;
+import com.priti.accountService.dto.TransferResult;
+import com.priti.accountService.engine.BalanceEngine;
+import com.priti.accountService.event.AccountEvent;
+import com.priti.accountService.model.Account;
+import com.priti.accountService.repository.AccountRepository;
+import com.priti.accountService.service.TransferService;
+import com.priti.accountService.util.MinorUnits;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Transfers lock both accounts in id order inside one transaction. In batched mode, worker threads drain
+// whatever is queued (up to batch-size) and commit it as a single group, so throughput grows with load.
+@Service
+@Slf4j
+public class TransferServiceImpl implements TransferService {
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private BalanceUpdateRetry balanceUpdateRetry;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired(required = false)
+    private BalanceEngine balanceEngine;
+
+    @Value("${account.transfer.mode:batched}")
+    private String mode;
+
+    @Value("${account.transfer.batch-size:256}")
+    private int batchSize;
+
+    @Value("${account.transfer.workers:4}")
+    private int workers;
+
+    @Value("${account.transfer.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${account.transfer.timeout:5s}")
+    private Duration timeout;
+
+    private BlockingQueue<PendingTransfer> queue;
+    private final List<Thread> workerThreads = new ArrayList<>();
+    private volatile boolean running;
+
+    // Claimed once, either by the worker that executes it or by a caller that timed out and drops it
+    private record PendingTransfer(TransferRequest request, CompletableFuture<TransferResult> future, AtomicBoolean claimed) {
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+
+    private record BatchOutcome(List<TransferResult> results, Collection<Account> changedAccounts) {
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!isBatched() || this.balanceEngine != null) {
+            return;
+        }
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.running = true;
+        for (int i = 1; i <= workers; i++) {
+            Thread worker = new Thread(this::runWorker, "transfer-worker-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            this.workerThreads.add(worker);
+        }
+        log.info("Transfer engine started in batched mode: {} workers, batch size {}", workers, batchSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.running = false;
+        this.workerThreads.forEach(Thread::interrupt);
+    }
+
+    @Override
+    public TransferResult transfer(TransferRequest request) {
+        validate(request);
+        if (this.balanceEngine != null) {
+            return transferInEngine(request);
+        }
+        TransferResult result = isBatched() ? submit(request) : executeBatch(List.of(request)).get(0);
+        switch (result.getStatus()) {
+            case ACCOUNT_NOT_FOUND -> throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Account not found");
+            case INSUFFICIENT_FUNDS -> throw new ResponseStatusException(HttpStatus.CONFLICT, "Insufficient funds");
+            default -> {
+                return result;
+            }
+        }
+    }
+
+    private TransferResult transferInEngine(TransferRequest request) {
+        long[] balances = this.balanceEngine.transfer(request.getFromAccountId(), request.getToAccountId(),
+                MinorUnits.toMinor(request.getAmount()));
+        return new TransferResult(request.getFromAccountId(), request.getToAccountId(), request.getAmount(),
+                TransferResult.Status.COMPLETED, MinorUnits.fromMinor(balances[0]), MinorUnits.fromMinor(balances[1]));
+    }
+
+    private boolean isBatched() {
+        return "batched".equalsIgnoreCase(mode);
+    }
+
+    private void validate(TransferRequest request) {
+        if (request.getFromAccountId() == null || request.getToAccountId() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Both account ids are required");
+        }
+        if (request.getFromAccountId().equals(request.getToAccountId())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot transfer to the same account");
+        }
+        if (request.getAmount() == null || request.getAmount().signum() <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Amount must be positive");
+        }
+    }
+
+    private TransferResult submit(TransferRequest request) {
+        PendingTransfer pending = new PendingTransfer(request, new CompletableFuture<>(), new AtomicBoolean());
+        if (!this.queue.offer(pending)) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Transfer queue is full");
+        }
+        try {
+            try {
+                return pending.future().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Still queued: dropped, so a client retrying after the 503 cannot transfer twice.
+                // Already in a batch: the batch's outcome is the answer.
+                if (pending.claim()) {
+                    pending.future().cancel(false);
+                    throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Transfer did not complete in time");
+                }
+                return pending.future().get();
+            }
+        } catch (InterruptedException e) {
+            if (pending.claim()) {
+                pending.future().cancel(false);
+            }
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for transfer", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Transfer failed", e.getCause());
+        }
+    }
+
+    private void runWorker() {
+        List<PendingTransfer> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PendingTransfer first = this.queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                this.queue.drainTo(batch, batchSize - 1);
+                batch.removeIf(pending -> !pending.claim());
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                try {
+                    List<TransferResult> results = executeBatch(batch.stream().map(PendingTransfer::request).toList());
+                    for (int i = 0; i < batch.size(); i++) {
+                        batch.get(i).future().complete(results.get(i));
+                    }
+                } catch (RuntimeException e) {
+                    log.error("Transfer batch of {} failed: {}", batch.size(), e.getMessage());
+                    batch.forEach(pending -> pending.future().completeExceptionally(e));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private List<TransferResult> executeBatch(List<TransferRequest> requests) {
+        BatchOutcome outcome = this.balanceUpdateRetry.execute(() -> {
+            Set<Long> ids = new TreeSet<>();
+            requests.forEach(request -> {
+                ids.add(request.getFromAccountId());
+                ids.add(request.getToAccountId());
+            });
+            Map<Long, Account> accounts = this.accountRepository.findAllByIdForUpdate(ids).stream()
+                    .collect(Collectors.toMap(Account::getId, Function.identity()));
+            Map<Long, Account> changedAccounts = new HashMap<>();
+            List<TransferResult> results = new ArrayList<>(requests.size());
+            for (TransferRequest request : requests) {
+                results.add(apply(request, accounts, changedAccounts));
+            }
+            // Changed balances are flushed as one batched UPDATE per account on commit
+            return new BatchOutcome(results, changedAccounts.values());
+        });
+        outcome.changedAccounts().forEach(account -> this.eventPublisher.publishEvent(
+                new AccountEvent(AccountEvent.Type.BALANCE_CHANGED, account.getId(), account.getCustomerId(),
+                        account.getAccountType(), account.getBalance(), null)));
+        return outcome.results();
+    }
+
+    private TransferResult apply(TransferRequest request, Map<Long, Account> accounts, Map<Long, Account> changedAccounts) {
+        Account from = accounts.get(request.getFromAccountId());
+        Account to = accounts.get(request.getToAccountId());
+        if (from == null || to == null) {
+            return rejected(request, TransferResult.Status.ACCOUNT_NOT_FOUND);
+        }
+        if (from.getBalance() == null || from.getBalance().compareTo(request.getAmount()) < 0) {
+            return rejected(request, TransferResult.Status.INSUFFICIENT_FUNDS);
+        }
+        from.setBalance(from.getBalance().subtract(request.getAmount()));
+        to.setBalance(to.getBalance() == null ? request.getAmount() : to.getBalance().add(request.getAmount()));
+        changedAccounts.put(from.getId(), from);
+        changedAccounts.put(to.getId(), to);
+        return new TransferResult(request.getFromAccountId(), request.getToAccountId(), request.getAmount(),
+                TransferResult.Status.COMPLETED, from.getBalance(), to.getBalance());
+    }
+
+    private TransferResult rejected(TransferRequest request, TransferResult.Status status) {
+        return new TransferResult(request.getFromAccountId(), request.getToAccountId(), request.getAmount(),
+                status, null, null);
+    }
+}
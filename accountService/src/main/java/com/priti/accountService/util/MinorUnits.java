@@ -0,0 +1,20 @@
+package com.priti.accountService.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Balances as primitive longs in minor units (cents), for hot paths that should not allocate BigDecimals
+public final class MinorUnits {
+    public static final int SCALE = 2;
+
+    private MinorUnits() {
+    }
+
+    public static long toMinor(BigDecimal amount) {
+        return amount == null ? 0L : amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromMinor(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+}
@@ -0,0 +1,62 @@
+package com.priti.accountService.config;
+
+import com.priti.accountService.model.Account;
+import com.priti.accountService.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountNumberConstraintCheckTest {
+    @Autowired
+    private AccountNumberConstraintCheck check;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void failsOnDuplicatesAndRecreatesAMissingIndex() {
+        accountRepository.deleteAll();
+        dropIndex();
+        accountRepository.save(account("DUP-1"));
+        accountRepository.save(account("DUP-1"));
+        accountRepository.save(account("UNIQUE-1"));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, check::afterSingletonsInstantiated);
+        assertTrue(e.getMessage().contains("DUP-1 (2 accounts)"), e.getMessage());
+        assertFalse(e.getMessage().contains("UNIQUE-1"));
+
+        accountRepository.deleteAll();
+        check.afterSingletonsInstantiated();
+        accountRepository.save(account("DUP-1"));
+        assertThrows(DataIntegrityViolationException.class, () -> accountRepository.saveAndFlush(account("DUP-1")));
+        // Present now, so another check is a no-op
+        check.afterSingletonsInstantiated();
+        accountRepository.deleteAll();
+    }
+
+    // Hibernate creates the unique index as a constraint of that name
+    private void dropIndex() {
+        jdbcTemplate.execute("alter table account drop constraint " + AccountNumberConstraintCheck.INDEX_NAME);
+    }
+
+    private static Account account(String number) {
+        Account account = new Account();
+        account.setAccountNumber(number);
+        account.setAccountType("SAVINGS");
+        account.setBalance(new BigDecimal("10.00"));
+        account.setCustomerId(1L);
+        return account;
+    }
+}
@@ -0,0 +1,89 @@
+package com.priti.accountService.config;
+
+import com.priti.accountService.job.InterestAccrualJob;
+import com.priti.accountService.model.Account;
+import com.priti.accountService.repository.AccountRepository;
+import com.priti.accountService.service.AccountAdminService;
+import com.priti.accountService.service.AccountService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountAdminService accountAdminService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private InterestAccrualJob interestAccrualJob;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        this.accountAdminService.deleteAllAccounts();
+        this.statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.statistics.clear();
+    }
+
+    @Test
+    void servesRepeatedReadsFromCacheAndSeesEveryWrite() {
+        Long id = this.accountService.createAccount(account("L2-1", "1000.00")).getId();
+
+        this.accountService.getAccountById(id);
+        this.accountService.getAccountById(id);
+        assertTrue(this.statistics.getDomainDataRegionStatistics(Account.CACHE_REGION).getHitCount() >= 2);
+
+        // Conditional update, then a JDBC batch from the accrual job, then a truncate: none may leave a stale entry
+        assertEquals(0, new BigDecimal("1010.00").compareTo(this.accountService.creditAccount(id, new BigDecimal("10.00")).getBalance()));
+        assertEquals(0, new BigDecimal("1010.00").compareTo(this.accountService.getAccountById(id).getBalance()));
+
+        this.interestAccrualJob.run(LocalDate.of(2026, 3, 1));
+        assertEquals(0, new BigDecimal("1010.10").compareTo(this.accountService.getAccountById(id).getBalance()));
+
+        this.accountAdminService.deleteAllAccounts();
+        assertThrows(RuntimeException.class, () -> this.accountService.getAccountById(id));
+    }
+
+    @Test
+    void cachesAccountsOfCustomerUntilTheTableChanges() {
+        this.accountService.createAccount(account("L2-2", "5.00"));
+
+        assertEquals(1, this.accountService.getAccountsOfCustomer(7L).size());
+        assertEquals(1, this.accountService.getAccountsOfCustomer(7L).size());
+        assertEquals(1, this.statistics.getQueryRegionStatistics(AccountRepository.ACCOUNTS_BY_CUSTOMER_REGION).getHitCount());
+
+        this.accountService.createAccount(account("L2-3", "6.00"));
+        assertEquals(2, this.accountService.getAccountsOfCustomer(7L).size());
+        assertEquals(2, this.accountRepository.findByCustomerId(7L).size());
+    }
+
+    private static Account account(String accountNumber, String balance) {
+        Account account = new Account();
+        account.setAccountNumber(accountNumber);
+        account.setAccountType("SAVINGS");
+        account.setBalance(new BigDecimal(balance));
+        account.setCustomerId(7L);
+        return account;
+    }
+}
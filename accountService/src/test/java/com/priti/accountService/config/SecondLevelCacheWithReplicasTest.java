@@ -0,0 +1,26 @@
+package com.priti.accountService.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// The "replica" is the primary's own in-memory database; only the configuration matters here
+@SpringBootTest(properties = "account.datasource.replica-urls=jdbc:h2:mem:microbank360;MODE=MySQL;LOCK_TIMEOUT=10000;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class SecondLevelCacheWithReplicasTest {
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void cachesAreOffWhenMissesCouldLoadFromAReplica() {
+        SessionFactoryOptions options = this.entityManagerFactory.unwrap(SessionFactory.class).getSessionFactoryOptions();
+        assertFalse(options.isSecondLevelCacheEnabled());
+        assertFalse(options.isQueryCacheEnabled());
+    }
+}
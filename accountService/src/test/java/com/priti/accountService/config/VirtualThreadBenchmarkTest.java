@@ -0,0 +1,182 @@
+package com.priti.accountService.config;
+
+import com.priti.accountService.AccountServiceApplication;
+import com.priti.accountService.model.Account;
+import com.priti.accountService.repository.AccountRepository;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Platform-thread pool vs virtual threads on a request that, like the customer path, blocks on a remote
+// call and then on JDBC. Run with: mvn -Pjava21 test -Dtest=VirtualThreadBenchmarkTest -Dbenchmark=true
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadBenchmarkTest {
+    private static final int DOWNSTREAM_LATENCY_MILLIS = 20;
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 400);
+    private static final int WARMUP_REQUESTS = Integer.getInteger("benchmark.warmup-requests", 2_000);
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 20_000);
+
+    private static HttpServer downstream;
+    private static HttpClient client;
+    private static ExecutorService clientPool;
+
+    @BeforeAll
+    static void startDownstream() throws IOException {
+        // Stands in for the remote service: every call takes DOWNSTREAM_LATENCY_MILLIS
+        downstream = HttpServer.create(new InetSocketAddress("localhost", 0), 4096);
+        downstream.setExecutor(Executors.newCachedThreadPool());
+        downstream.createContext("/accounts", exchange -> {
+            try {
+                Thread.sleep(DOWNSTREAM_LATENCY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        downstream.start();
+        clientPool = Executors.newFixedThreadPool(CLIENTS);
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @AfterAll
+    static void stopDownstream() {
+        downstream.stop(0);
+        clientPool.shutdownNow();
+    }
+
+    @Test
+    void compareThreadModels() throws Exception {
+        Result platform = run("platform", false);
+        Result virtual = run("virtual", true);
+        System.out.printf("%n%-10s %12s %10s %10s %8s%n", "mode", "requests/s", "p50 ms", "p99 ms", "pinned");
+        for (Result result : List.of(platform, virtual)) {
+            System.out.printf("%-10s %12.0f %10.1f %10.1f %8s%n", result.mode, result.throughput,
+                    result.p50Millis, result.p99Millis, result.pinned < 0 ? "-" : String.valueOf(result.pinned));
+        }
+        assertEquals(0, platform.failures);
+        assertEquals(0, virtual.failures);
+        assertEquals(0, virtual.pinned, "virtual threads were pinned, see the VirtualThreadPinningMonitor warnings");
+    }
+
+    private Result run(String mode, boolean virtualThreads) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(AccountServiceApplication.class, BenchmarkEndpoint.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark-" + mode + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--logging.level.root=WARN",
+                        "--benchmark.downstream-url=http://localhost:" + downstream.getAddress().getPort() + "/accounts");
+        try {
+            Account account = new Account();
+            account.setAccountNumber("BENCH-" + mode);
+            account.setAccountType("SAVINGS");
+            account.setBalance(new BigDecimal("100.00"));
+            account.setCustomerId(1L);
+            Long id = context.getBean(AccountRepository.class).save(account).getId();
+            URI uri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + "/benchmark/account/" + id);
+
+            load(uri, WARMUP_REQUESTS);
+            long[] latencies = new long[REQUESTS];
+            AtomicInteger failures = new AtomicInteger();
+            long start = System.nanoTime();
+            load(uri, REQUESTS, latencies, failures);
+            long elapsed = System.nanoTime() - start;
+
+            Arrays.sort(latencies);
+            long pinned = context.getBeanProvider(VirtualThreadPinningMonitor.class).stream()
+                    .mapToLong(VirtualThreadPinningMonitor::getPinnedCount).findFirst().orElse(-1);
+            return new Result(mode, REQUESTS * 1e9 / elapsed, latencies[REQUESTS / 2] / 1e6,
+                    latencies[(int) (REQUESTS * 0.99)] / 1e6, failures.get(), pinned);
+        } finally {
+            context.close();
+        }
+    }
+
+    private void load(URI uri, int requests) throws Exception {
+        load(uri, requests, new long[requests], new AtomicInteger());
+    }
+
+    private void load(URI uri, int requests, long[] latencies, AtomicInteger failures) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        AtomicInteger next = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int c = 0; c < CLIENTS; c++) {
+            futures.add(clientPool.submit(() -> {
+                for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (IOException | InterruptedException e) {
+                        failures.incrementAndGet();
+                    }
+                    latencies[i] = System.nanoTime() - start;
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.MINUTES);
+        }
+    }
+
+    private record Result(String mode, double throughput, double p50Millis, double p99Millis, int failures, long pinned) {
+    }
+
+    // Registered only in the benchmark contexts; inner classes of test classes are skipped by component scanning
+    @RestController
+    static class BenchmarkEndpoint {
+        private static final HttpClient DOWNSTREAM = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        @Autowired
+        private AccountRepository accountRepository;
+
+        @Value("${benchmark.downstream-url}")
+        private String downstreamUrl;
+
+        @GetMapping("/benchmark/account/{id}")
+        public Account getAccount(@PathVariable Long id) throws IOException, InterruptedException {
+            DOWNSTREAM.send(HttpRequest.newBuilder(URI.create(this.downstreamUrl)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            return this.accountRepository.findById(id).orElseThrow(() -> new RuntimeException("Account not found"));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.priti.accountService.controller;
+
+import com.priti.accountService.model.Account;
+import com.priti.accountService.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StatementExportTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void streamsCsvAndNdjsonStatements() throws Exception {
+        accountRepository.deleteAll();
+        for (int i = 0; i < 3; i++) {
+            Account account = new Account();
+            account.setAccountNumber(i == 0 ? "ACC,\"QUOTED\"" : "STMT" + i);
+            account.setAccountType("BUSINESS");
+            account.setBalance(new BigDecimal("12.50"));
+            account.setCustomerId(42L);
+            accountRepository.save(account);
+        }
+
+        String csv = fetch("/account/customer/42/statement?format=csv");
+        String[] lines = csv.split("\n");
+        assertEquals(4, lines.length);
+        assertEquals("id,accountNumber,accountType,balance,customerId,createdAt", lines[0]);
+        assertEquals("\"ACC,\"\"QUOTED\"\"\",BUSINESS,12.50,42", lines[1].substring(lines[1].indexOf(',') + 1, lines[1].lastIndexOf(',')));
+
+        assertEquals(3, fetch("/account/customer/42/statement?format=ndjson").lines().count());
+        mockMvc.perform(get("/account/customer/42/statement?format=xml")).andExpect(status().isBadRequest());
+    }
+
+    private String fetch(String url) throws Exception {
+        MvcResult result = mockMvc.perform(get(url)).andReturn();
+        return mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+    }
+}
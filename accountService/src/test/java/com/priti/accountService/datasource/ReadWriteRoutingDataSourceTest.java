@@ -0,0 +1,81 @@
+package com.priti.accountService.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadWriteRoutingDataSourceTest {
+    private final DataSource primary = database("primary");
+    private final DataSource replica = database("replica");
+    private final DataSource unreachable = new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/none", "sa", "");
+    private final ReadWriteRoutingDataSource routing =
+            new ReadWriteRoutingDataSource(primary, List.of(unreachable, replica), Duration.ofHours(1), Duration.ofSeconds(2));
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(new LazyConnectionDataSourceProxy(routing));
+
+    @AfterEach
+    void close() throws Exception {
+        ReadYourWrites.end();
+        routing.close();
+    }
+
+    @Test
+    void readOnlyTransactionsUseHealthyReplicas() {
+        assertEquals("primary", inTransaction(false));
+        assertEquals("replica", inTransaction(true));
+        assertEquals("replica", inTransaction(true));
+        assertFalse(routing.isReplicaHealthy(0));
+        assertTrue(routing.isReplicaHealthy(1));
+    }
+
+    @Test
+    void pinnedReadsStayOnThePrimary() {
+        ReadYourWrites.begin(System.currentTimeMillis() + 60_000);
+        assertEquals("primary", inTransaction(true));
+        ReadYourWrites.begin(System.currentTimeMillis() - 1);
+        assertEquals("replica", inTransaction(true));
+    }
+
+    @Test
+    void explicitCredentialsAreRoutedTheSameWay() throws Exception {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try (Connection connection = routing.getConnection("sa", "")) {
+            JdbcTemplate template = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            assertEquals("replica", template.queryForObject("select name from node", String.class));
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+
+    private String inTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+        try {
+            return jdbcTemplate.queryForObject("select name from node", String.class);
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate setup = new JdbcTemplate(dataSource);
+        setup.execute("create table if not exists node (name varchar(20))");
+        setup.execute("delete from node");
+        setup.update("insert into node values (?)", name);
+        return dataSource;
+    }
+}
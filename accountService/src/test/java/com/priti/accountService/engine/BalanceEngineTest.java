@@ -0,0 +1,189 @@
+package com.priti.accountService.engine;
+
+import com.priti.accountService.dto.TransferRequest;
+import com.priti.accountService.event.AccountEvent;
+import com.priti.accountService.model.Account;
+import com.priti.accountService.repository.AccountRepository;
+import com.priti.accountService.service.AccountService;
+import com.priti.accountService.service.TransferService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The flusher is effectively disabled so the test decides when balances are written back
+@SpringBootTest(properties = {"account.engine.enabled=true", "account.engine.shards=4", "account.engine.flush-interval=1h"})
+@ActiveProfiles("test")
+class BalanceEngineTest {
+    private static final int ACCOUNTS = 16;
+
+    @Autowired
+    private BalanceEngine balanceEngine;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private RecordedEvents recordedEvents;
+
+    private final List<Long> accountIds = new ArrayList<>();
+
+    @TestConfiguration
+    static class Events {
+        @Bean
+        RecordedEvents recordedEvents() {
+            return new RecordedEvents();
+        }
+    }
+
+    static class RecordedEvents {
+        final Queue<AccountEvent> events = new ConcurrentLinkedQueue<>();
+
+        @EventListener
+        void onAccountEvent(AccountEvent event) {
+            events.add(event);
+        }
+    }
+
+    @BeforeEach
+    void createAccounts() {
+        balanceEngine.evictAll();
+        recordedEvents.events.clear();
+        accountRepository.deleteAll();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account();
+            account.setAccountNumber("ENG" + i);
+            account.setAccountType("CURRENT");
+            account.setBalance(new BigDecimal("500.00"));
+            account.setCustomerId(7L);
+            accountIds.add(accountRepository.save(account).getId());
+        }
+    }
+
+    @Test
+    void transfersAreConservedInMemoryAndAfterFlush() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            futures.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 500; i++) {
+                    Long from = accountIds.get(random.nextInt(ACCOUNTS));
+                    Long to = accountIds.get(random.nextInt(ACCOUNTS));
+                    if (!from.equals(to)) {
+                        try {
+                            transferService.transfer(new TransferRequest(from, to, new BigDecimal("12.34")));
+                        } catch (ResponseStatusException e) {
+                            assertEquals(409, e.getStatusCode().value());
+                        }
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        BigDecimal expectedTotal = new BigDecimal("500.00").multiply(BigDecimal.valueOf(ACCOUNTS));
+        BigDecimal inMemoryTotal = accountIds.stream()
+                .map(id -> accountService.getAccountById(id).getBalance())
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, expectedTotal.compareTo(inMemoryTotal));
+
+        balanceEngine.flush();
+        BigDecimal persistedTotal = accountRepository.findAllById(accountIds).stream()
+                .map(Account::getBalance)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, expectedTotal.compareTo(persistedTotal));
+    }
+
+    @Test
+    void transferToMissingAccountLeavesTheDebitedAccountWhole() {
+        Long from = accountIds.get(0);
+        long missing = accountIds.get(ACCOUNTS - 1) + 1000;
+        for (long to = missing; to < missing + 8; to++) {
+            long target = to;
+            // Some of these land on the debited account's shard, the others take the cross-shard refund path
+            assertThrows(RuntimeException.class, () -> balanceEngine.transfer(from, target, 1234L));
+        }
+        assertEquals(0, new BigDecimal("500.00").compareTo(accountService.getAccountById(from).getBalance()));
+    }
+
+    @Test
+    void debitBelowZeroIsRejectedAndNothingIsFlushed() {
+        Long id = accountIds.get(0);
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> accountService.debitAccount(id, new BigDecimal("500.01")));
+        assertEquals(409, e.getStatusCode().value());
+
+        accountService.creditAccount(id, new BigDecimal("0.99"));
+        assertEquals(0, new BigDecimal("500.00").compareTo(accountRepository.findById(id).orElseThrow().getBalance()));
+        balanceEngine.flush();
+        assertEquals(0, new BigDecimal("500.99").compareTo(accountRepository.findById(id).orElseThrow().getBalance()));
+    }
+
+    @Test
+    void everyReadPathSeesUnflushedBalances() {
+        Long id = accountIds.get(3);
+        accountService.creditAccount(id, new BigDecimal("1.00"));
+        assertEquals(0, new BigDecimal("500.00").compareTo(accountRepository.findById(id).orElseThrow().getBalance()));
+
+        assertBalance(id, "501.00", accountService.getAllAccounts());
+        assertBalance(id, "501.00", accountService.getAccountsPage(0L, 1000).getItems());
+        assertBalance(id, "501.00", accountService.getAccountsOfCustomer(7L));
+        assertBalance(id, "501.00", accountService.getAccountsOfCustomers(List.of(7L)).get(7L));
+        List<Account> streamed = new ArrayList<>();
+        accountService.streamAllAccounts(streamed::add);
+        assertBalance(id, "501.00", streamed);
+        streamed.clear();
+        accountService.streamAccountsOfCustomer(7L, streamed::add);
+        assertBalance(id, "501.00", streamed);
+        assertEquals(0, new BigDecimal("500.00").compareTo(accountRepository.findById(id).orElseThrow().getBalance()));
+    }
+
+    @Test
+    void engineEventsCarryTheAccountType() {
+        Long from = accountIds.get(0);
+        Long to = accountIds.get(1);
+        transferService.transfer(new TransferRequest(from, to, new BigDecimal("1.00")));
+        accountService.debitAccount(from, new BigDecimal("1.00"));
+
+        assertEquals(3, recordedEvents.events.size());
+        recordedEvents.events.forEach(event -> {
+            assertEquals(AccountEvent.Type.BALANCE_CHANGED, event.getType());
+            assertEquals("CURRENT", event.getAccountType());
+            assertEquals(7L, event.getCustomerId());
+        });
+    }
+
+    private void assertBalance(Long id, String expected, List<Account> accounts) {
+        assertEquals(ACCOUNTS, accounts.size());
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        accounts.forEach(account -> balances.put(account.getId(), account.getBalance()));
+        assertEquals(0, new BigDecimal(expected).compareTo(balances.get(id)));
+        accountIds.stream().filter(other -> !other.equals(id))
+                .forEach(other -> assertEquals(0, new BigDecimal("500.00").compareTo(balances.get(other))));
+    }
+}
@@ -0,0 +1,102 @@
+package com.priti.accountService.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+    private final IdempotencyStore store = new IdempotencyStore(new ObjectMapper(), 4, 2,
+            Duration.ofMinutes(1), Duration.ofSeconds(5));
+
+    @Test
+    void concurrentRetriesRunTheActionOnce() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<Integer> first = executor.submit(() -> store.execute("POST", "/account", "key", "body-1", () -> {
+            started.countDown();
+            await(release);
+            return executions.incrementAndGet();
+        }));
+        started.await();
+        Future<Integer> retry = executor.submit(() ->
+                store.execute("POST", "/account", "key", "body-1", executions::incrementAndGet));
+        release.countDown();
+        assertEquals(1, first.get());
+        assertEquals(1, retry.get());
+        assertEquals(1, store.execute("POST", "/account", "key", "body-1", executions::incrementAndGet));
+        executor.shutdown();
+    }
+
+    @Test
+    void failuresAreNotRememberedAndMismatchedBodiesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> store.execute("POST", "/account", "failing", "body-1", () -> {
+            throw new IllegalArgumentException("boom");
+        }));
+        assertEquals("ok", store.execute("POST", "/account", "failing", "body-1", () -> "ok"));
+        assertThrows(ResponseStatusException.class,
+                () -> store.execute("POST", "/account", "failing", "body-2", () -> "other"));
+    }
+
+    @Test
+    void oldestKeysAreEvictedWhenAShardIsFull() {
+        for (int i = 0; i < 20; i++) {
+            int value = i;
+            store.execute("POST", "/account", "key-" + i, "body-1", () -> value);
+        }
+        assertEquals(-1, store.execute("POST", "/account", "key-0", "body-1", () -> -1));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void keysAreScopedPerEndpointAndBodiesComparedByDigest() {
+        assertEquals("created", store.execute("POST", "/account", "shared", "body", () -> "created"));
+        // Same key on another endpoint is a different request, not a replay of a String as a List
+        assertEquals(List.of(1), store.execute("POST", "/account/bulk", "shared", "body", () -> List.of(1)));
+        // "Aa" and "BB" have the same String.hashCode()
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        store.execute("POST", "/account", "collision", "Aa", () -> "first");
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> store.execute("POST", "/account", "collision", "BB", () -> "second"));
+        assertEquals(422, e.getStatusCode().value());
+    }
+
+    @Test
+    void runningAttemptsAreNotEvictedWhenAShardIsFull() throws Exception {
+        IdempotencyStore small = new IdempotencyStore(new ObjectMapper(), 1, 1,
+                Duration.ofMinutes(1), Duration.ofSeconds(5));
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<Integer> first = executor.submit(() -> small.execute("POST", "/account", "slow", "body", () -> {
+            started.countDown();
+            await(release);
+            return executions.incrementAndGet();
+        }));
+        started.await();
+        small.execute("POST", "/account", "other", "body", () -> 0);
+        Future<Integer> retry = executor.submit(() ->
+                small.execute("POST", "/account", "slow", "body", executions::incrementAndGet));
+        release.countDown();
+        assertEquals(1, first.get());
+        assertEquals(1, retry.get());
+        assertEquals(1, executions.get());
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,107 @@
+package com.priti.accountService.job;
+
+import com.priti.accountService.model.Account;
+import com.priti.accountService.model.InterestPartition;
+import com.priti.accountService.model.InterestRun;
+import com.priti.accountService.repository.AccountRepository;
+import com.priti.accountService.repository.InterestPartitionRepository;
+import com.priti.accountService.repository.InterestRunRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {"account.interest.partitions=4", "account.interest.chunk-size=3"})
+@ActiveProfiles("test")
+class InterestAccrualJobTest {
+    @Autowired
+    private InterestAccrualJob interestAccrualJob;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private InterestRunRepository interestRunRepository;
+
+    @Autowired
+    private InterestPartitionRepository interestPartitionRepository;
+
+    @Test
+    void accruesEligibleAccountsOncePerBusinessDate() {
+        accountRepository.deleteAll();
+        for (int i = 0; i < 30; i++) {
+            String type = i % 3 == 0 ? "SAVINGS" : i % 3 == 1 ? "FIXED_DEPOSIT" : "CURRENT";
+            accountRepository.save(account("INT" + i, type, type.equals("FIXED_DEPOSIT") ? "365.00" : "1000.00"));
+        }
+        LocalDate businessDate = LocalDate.of(2026, 1, 15);
+
+        InterestRun run = interestAccrualJob.run(businessDate);
+        assertEquals(InterestRun.Status.COMPLETED, run.getStatus());
+        assertEquals(20, run.getAccountsProcessed());
+        // 10 x 1000.00 * 3.5% / 365 = 0.10 each, 10 x 365.00 * 6.5% / 365 = 0.065 -> 0.06 each
+        assertEquals(new BigDecimal("1.60"), run.getInterestPosted());
+        interestAccrualJob.getPartitions(run.getId())
+                .forEach(partition -> assertEquals(InterestPartition.Status.COMPLETED, partition.getStatus()));
+
+        // Running the same date again must not accrue twice
+        interestAccrualJob.run(businessDate);
+        BigDecimal total = accountRepository.findAll().stream().map(Account::getBalance).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(new BigDecimal("23651.60"), total);
+    }
+
+    @Test
+    void partitionHeldByALiveWorkerIsOnlyTakenOverOnceItsLeaseRunsOut() {
+        accountRepository.deleteAll();
+        for (int i = 0; i < 5; i++) {
+            accountRepository.save(account("LEASE" + i, "SAVINGS", "1000.00"));
+        }
+        LocalDate businessDate = LocalDate.of(2026, 2, 15);
+        InterestRun run = new InterestRun();
+        run.setBusinessDate(businessDate);
+        run.setStatus(InterestRun.Status.RUNNING);
+        run.setPartitions(1);
+        run.setInterestPosted(BigDecimal.ZERO);
+        run.setStartedAt(LocalDateTime.now());
+        interestRunRepository.saveAndFlush(run);
+        InterestPartition partition = new InterestPartition();
+        partition.setRunId(run.getId());
+        partition.setFromId(0);
+        partition.setToId(Long.MAX_VALUE);
+        partition.setLastProcessedId(-1);
+        partition.setInterestPosted(BigDecimal.ZERO);
+        partition.setStatus(InterestPartition.Status.RUNNING);
+        partition.setLeaseOwner("other-worker");
+        partition.setLeaseUntil(LocalDateTime.now().plusHours(1));
+        partition.setUpdatedAt(LocalDateTime.now());
+        interestPartitionRepository.saveAndFlush(partition);
+
+        // What resume does before restarting the run: a live lease is not released
+        assertEquals(0, interestPartitionRepository.releaseExpired(run.getId(), LocalDateTime.now()));
+        assertEquals(InterestRun.Status.FAILED, interestAccrualJob.run(businessDate).getStatus());
+        assertEquals(new BigDecimal("5000.00"), totalBalance());
+
+        partition.setLeaseUntil(LocalDateTime.now().minusSeconds(1));
+        interestPartitionRepository.saveAndFlush(partition);
+        assertEquals(InterestRun.Status.COMPLETED, interestAccrualJob.run(businessDate).getStatus());
+        assertEquals(new BigDecimal("5000.50"), totalBalance());
+    }
+
+    private BigDecimal totalBalance() {
+        return accountRepository.findAll().stream().map(Account::getBalance).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private static Account account(String accountNumber, String accountType, String balance) {
+        Account account = new Account();
+        account.setAccountNumber(accountNumber);
+        account.setAccountType(accountType);
+        account.setBalance(new BigDecimal(balance));
+        account.setCustomerId(1L);
+        return account;
+    }
+}
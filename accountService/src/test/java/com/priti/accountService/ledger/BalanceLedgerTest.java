@@ -0,0 +1,50 @@
+package com.priti.accountService.ledger;
+
+import com.priti.accountService.event.AccountEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BalanceLedgerTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysAcrossSegmentsAndSnapshots() throws Exception {
+        // Four records per segment, so the appends below roll over several times
+        DataSize segmentSize = DataSize.ofBytes(4 * BalanceLedger.RECORD_SIZE);
+        BalanceLedger ledger = new BalanceLedger(directory, segmentSize);
+        ledger.append(AccountEvent.Type.CREATED, 1L, 0L, 10_000L);
+        ledger.append(AccountEvent.Type.CREATED, 2L, 0L, 5_000L);
+        for (int i = 0; i < 5; i++) {
+            ledger.append(AccountEvent.Type.BALANCE_CHANGED, 1L, -100L, 10_000L - 100L * (i + 1));
+        }
+        ledger.snapshot();
+        ledger.append(AccountEvent.Type.BALANCE_CHANGED, 2L, 250L, 5_250L);
+        ledger.append(AccountEvent.Type.CREATED, 3L, 0L, 1L);
+        ledger.append(AccountEvent.Type.DELETED, 3L, 0L, 1L);
+        ledger.close();
+
+        BalanceLedger reopened = new BalanceLedger(directory, segmentSize);
+        assertEquals(OptionalLong.of(9_500L), reopened.balance(1L));
+        assertEquals(OptionalLong.of(5_250L), reopened.balance(2L));
+        assertEquals(OptionalLong.empty(), reopened.balance(3L));
+        LedgerStatus status = reopened.status();
+        assertEquals(10L, status.lastSequence());
+        assertEquals(7L, status.snapshotSequence());
+        assertEquals(3, status.segments());
+
+        // Appends continue the sequence after recovery
+        assertEquals(11L, reopened.append(AccountEvent.Type.BALANCE_CHANGED, 1L, 500L, 10_000L));
+        List<LedgerRecord> history = reopened.history(1L, 0L, 100);
+        assertEquals(7, history.size());
+        assertEquals(10_000L, history.get(history.size() - 1).balance());
+        reopened.close();
+    }
+}
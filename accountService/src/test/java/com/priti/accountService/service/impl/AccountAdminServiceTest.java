@@ -0,0 +1,61 @@
+package com.priti.accountService.service.impl;
+
+import com.priti.accountService.model.Account;
+import com.priti.accountService.repository.AccountRepository;
+import com.priti.accountService.service.AccountAdminService;
+import com.priti.accountService.service.AccountStatsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "account.admin.delete-chunk-size=7")
+@ActiveProfiles("test")
+class AccountAdminServiceTest {
+    @Autowired
+    private AccountAdminService accountAdminService;
+
+    @Autowired
+    private AccountStatsService accountStatsService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private final List<Long> accountIds = new ArrayList<>();
+
+    @BeforeEach
+    void createAccounts() {
+        accountRepository.deleteAll();
+        for (int i = 0; i < 40; i++) {
+            Account account = new Account();
+            account.setAccountNumber("ADM" + i);
+            account.setAccountType("SAVINGS");
+            account.setBalance(new BigDecimal("10.00"));
+            account.setCustomerId(i < 10 ? 1L : 2L);
+            accountIds.add(accountRepository.save(account).getId());
+        }
+        accountStatsService.reconcile();
+    }
+
+    @Test
+    void deletesByCustomerRangeAndReset() {
+        assertEquals(10, accountAdminService.deleteAccountsOfCustomer(1L).getDeleted());
+        assertEquals(0, accountStatsService.getCustomerStats(1L).getCount());
+
+        // Spans several chunks
+        assertEquals(20, accountAdminService.deleteAccountsInRange(accountIds.get(10), accountIds.get(29)).getDeleted());
+        assertEquals(10, accountRepository.count());
+        assertEquals(10, accountStatsService.getStats().getTotal().getCount());
+
+        assertEquals(10, accountAdminService.deleteAllAccounts().getDeleted());
+        assertEquals(0, accountRepository.count());
+        assertEquals(0, accountStatsService.getStats().getTotal().getCount());
+    }
+}
@@ -0,0 +1,57 @@
+package com.priti.accountService.service.impl;
+
+import com.priti.accountService.dto.BulkCreateResponse;
+import com.priti.accountService.model.Account;
+import com.priti.accountService.repository.AccountRepository;
+import com.priti.accountService.service.AccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountNumberLookupTest {
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @BeforeEach
+    void clear() {
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    void findsAccountsByNumberAndRejectsDuplicates() {
+        Account created = accountService.createAccount(account("ACC0000000001"));
+        assertEquals(created.getId(), accountService.getAccountByAccountNumber("ACC0000000001").getId());
+        assertThrows(ResponseStatusException.class, () -> accountService.createAccount(account("ACC0000000001")));
+
+        BulkCreateResponse response = accountService.createAccounts(
+                List.of(account("ACC0000000002"), account("ACC0000000001"), account("ACC0000000002")));
+        assertEquals(1, response.getCreated());
+        assertEquals(2, response.getFailed());
+        assertEquals(response.getResults().get(0).getId(), accountService.getAccountByAccountNumber("ACC0000000002").getId());
+
+        accountService.deleteAccount(created.getId());
+        assertThrows(RuntimeException.class, () -> accountService.getAccountByAccountNumber("ACC0000000001"));
+    }
+
+    private static Account account(String accountNumber) {
+        Account account = new Account();
+        account.setAccountNumber(accountNumber);
+        account.setAccountType("SAVINGS");
+        account.setBalance(new BigDecimal("100.00"));
+        account.setCustomerId(1L);
+        return account;
+    }
+}
@@ -0,0 +1,101 @@
+package com.priti.accountService.service.impl;
+
+import com.priti.accountService.dto.BalanceStats;
+import com.priti.accountService.model.Account;
+import com.priti.accountService.repository.AccountRepository;
+import com.priti.accountService.service.AccountService;
+import com.priti.accountService.service.AccountStatsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountStatsServiceTest {
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountStatsService accountStatsService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @BeforeEach
+    void clear() {
+        accountRepository.deleteAll();
+        accountStatsService.reconcile();
+    }
+
+    @Test
+    void incrementalAggregatesMatchReconciliation() {
+        Account first = accountService.createAccount(account("STAT1", "SAVINGS", 7L, "100.00"));
+        Account second = accountService.createAccount(account("STAT2", "SAVINGS", 7L, "50.00"));
+        Account third = accountService.createAccount(account("STAT3", "CURRENT", 8L, "10.00"));
+        accountService.creditAccount(first.getId(), new BigDecimal("25.50"));
+        accountService.debitAccount(third.getId(), new BigDecimal("5.00"));
+        accountService.updateAccountBalance(second.getId(), new BigDecimal("80.00"));
+        accountService.deleteAccount(third.getId());
+
+        BalanceStats savings = accountStatsService.getAccountTypeStats("SAVINGS");
+        assertEquals(2, savings.getCount());
+        assertEquals(new BigDecimal("205.50"), savings.getSum());
+        assertEquals(0, accountStatsService.getAccountTypeStats("CURRENT").getCount());
+        assertEquals(new BigDecimal("205.50"), accountStatsService.getCustomerStats(7L).getSum());
+        assertEquals(0, accountStatsService.getCustomerStats(8L).getCount());
+
+        BalanceStats incremental = accountStatsService.getStats().getTotal();
+        accountStatsService.reconcile();
+        BalanceStats reconciled = accountStatsService.getStats().getTotal();
+        assertEquals(reconciled.getCount(), incremental.getCount());
+        assertEquals(reconciled.getSum(), incremental.getSum());
+        assertEquals(new BigDecimal("80.00"), reconciled.getMin());
+        assertEquals(new BigDecimal("125.50"), reconciled.getMax());
+    }
+
+    @Test
+    void rebuildKeepsUpdatesCommittedWhileItRuns() throws Exception {
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            accounts.add(accountService.createAccount(account("RACE" + i, "SAVINGS", 9L, "0.00")));
+        }
+        AtomicBoolean done = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            for (int round = 1; round <= 200; round++) {
+                for (Account account : accounts) {
+                    accountService.updateAccountBalance(account.getId(), BigDecimal.valueOf(round));
+                }
+            }
+            done.set(true);
+        });
+        writer.start();
+        while (!done.get()) {
+            accountStatsService.reconcile();
+        }
+        writer.join();
+
+        // No reconcile after the writer stopped: the incremental state alone must end on the last balances
+        BalanceStats savings = accountStatsService.getAccountTypeStats("SAVINGS");
+        assertEquals(4, savings.getCount());
+        assertEquals(new BigDecimal("800.00"), savings.getSum());
+        assertEquals(new BigDecimal("200.00"), savings.getMin());
+    }
+
+    private static Account account(String accountNumber, String accountType, Long customerId, String balance) {
+        Account account = new Account();
+        account.setAccountNumber(accountNumber);
+        account.setAccountType(accountType);
+        account.setBalance(new BigDecimal(balance));
+        account.setCustomerId(customerId);
+        return account;
+    }
+}
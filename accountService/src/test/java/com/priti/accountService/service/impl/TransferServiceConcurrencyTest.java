@@ -0,0 +1,102 @@
+package com.priti.accountService.service.impl;
+
+import com.priti.accountService.dto.TransferRequest;
+import com.priti.accountService.model.Account;
+import com.priti.accountService.repository.AccountRepository;
+import com.priti.accountService.service.TransferService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"account.transfer.mode=batched", "account.transfer.workers=4"})
+@ActiveProfiles("test")
+class TransferServiceConcurrencyTest {
+    private static final int ACCOUNTS = 20;
+    private static final int THREADS = 32;
+    private static final int TRANSFERS_PER_THREAD = 200;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private final List<Long> accountIds = new ArrayList<>();
+
+    @BeforeEach
+    void createAccounts() {
+        accountRepository.deleteAll();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account();
+            account.setAccountNumber("ACC" + i);
+            account.setAccountType("SAVINGS");
+            account.setBalance(new BigDecimal("1000.00"));
+            account.setCustomerId(1L);
+            accountIds.add(accountRepository.save(account).getId());
+        }
+    }
+
+    @Test
+    void balancesAreConservedUnderHighParallelism() throws Exception {
+        BigDecimal totalBefore = totalBalance();
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    // Random pairs in both directions, so opposite lock orders are requested all the time
+                    Long from = accountIds.get(random.nextInt(ACCOUNTS));
+                    Long to = accountIds.get(random.nextInt(ACCOUNTS));
+                    if (from.equals(to)) {
+                        continue;
+                    }
+                    BigDecimal amount = BigDecimal.valueOf(random.nextInt(1, 300));
+                    try {
+                        transferService.transfer(new TransferRequest(from, to, amount));
+                        completed.incrementAndGet();
+                    } catch (ResponseStatusException e) {
+                        assertEquals(409, e.getStatusCode().value());
+                        rejected.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertTrue(completed.get() > 0);
+        assertEquals(0, totalBefore.compareTo(totalBalance()), "money was created or destroyed");
+        accountRepository.findAll().forEach(account -> assertTrue(account.getBalance().signum() >= 0));
+    }
+
+    @Test
+    void rejectsOverdraftWithoutTouchingEitherBalance() {
+        Long from = accountIds.get(0);
+        Long to = accountIds.get(1);
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> transferService.transfer(new TransferRequest(from, to, new BigDecimal("1000.01"))));
+        assertEquals(409, e.getStatusCode().value());
+        assertEquals(0, new BigDecimal("1000.00").compareTo(accountRepository.findById(from).orElseThrow().getBalance()));
+        assertEquals(0, new BigDecimal("1000.00").compareTo(accountRepository.findById(to).orElseThrow().getBalance()));
+    }
+
+    private BigDecimal totalBalance() {
+        return accountRepository.findAll().stream().map(Account::getBalance).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
@@ -0,0 +1,19 @@
+package com.priti.apiGateway.cache;
+
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+
+// A buffered 200 response: upstream headers (minus hop-by-hop ones), body and its entity tag
+public record CachedResponse(HttpHeaders headers, byte[] body, String etag, long storedAtNanos, Duration ttl) {
+    // Rough per-entry overhead on top of the body, so many tiny entries can't exceed the byte budget
+    private static final int ENTRY_OVERHEAD = 256;
+
+    int weight() {
+        return ENTRY_OVERHEAD + body.length;
+    }
+
+    public long ageSeconds() {
+        return Duration.ofNanos(System.nanoTime() - storedAtNanos).toSeconds();
+    }
+}
@@ -0,0 +1,90 @@
+package com.priti.apiGateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// GET responses cached at the edge, bounded by total bytes, each entry expiring after its route's ttl.
+// Every invalidation bumps a striped write stamp first: a GET takes the stamp before going upstream and its
+// response is dropped if the stamp moved meanwhile, so a read racing a write never re-caches the old version.
+@Component
+public class ResponseCache {
+    private static final int STRIPES = 1024;
+
+    private final Cache<String, CachedResponse> cache;
+    private final AtomicLongArray writeStamps = new AtomicLongArray(STRIPES);
+    private final int maxEntryBytes;
+
+    public ResponseCache(@Value("${gateway.response-cache.max-bytes:67108864}") long maxBytes,
+                         @Value("${gateway.response-cache.max-entry-bytes:262144}") int maxEntryBytes,
+                         MeterRegistry meterRegistry) {
+        this.maxEntryBytes = maxEntryBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedResponse response) -> response.weight())
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+                        return response.ttl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse response, long currentTime, long currentDuration) {
+                        return response.ttl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse response, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "gatewayResponses");
+    }
+
+    public CachedResponse get(String key) {
+        return this.cache.getIfPresent(key);
+    }
+
+    public long stamp(String key) {
+        return this.writeStamps.get(stripe(key));
+    }
+
+    public void put(String key, CachedResponse response, long stamp) {
+        this.cache.put(key, response);
+        // An invalidation between the upstream call and this put: the response may predate the write
+        if (stamp(key) != stamp) {
+            this.cache.invalidate(key);
+        }
+    }
+
+    public void invalidate(String key) {
+        this.writeStamps.incrementAndGet(stripe(key));
+        this.cache.invalidate(key);
+    }
+
+    // For writes that do not name their resources in the path (a transfer carries its accounts in the body): every
+    // stripe moves, so no GET in flight re-caches what it read before the write, and the matching entries are dropped
+    public void invalidatePrefix(String prefix) {
+        for (int i = 0; i < STRIPES; i++) {
+            this.writeStamps.incrementAndGet(i);
+        }
+        this.cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    public int getMaxEntryBytes() {
+        return this.maxEntryBytes;
+    }
+
+    private static int stripe(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+}
@@ -0,0 +1,108 @@
+package com.priti.apiGateway.concurrency;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// In-flight limit that follows upstream latency (gradient). Every window of samples compares the mean RTT with
+// the no-load baseline: within tolerance of it the limit grows by sqrt(limit) when it is actually being used,
+// above it the limit shrinks in proportion (at most by half per window), and failed calls back it off by 10%.
+// Admission is a compare-and-set on the in-flight count and samples are added with atomics; only the release that
+// closes a window takes the lock. A sample landing while a window is being closed may count towards either window.
+public class AdaptiveLimiter {
+    private static final double BASELINE_DRIFT = 0.01;
+    private static final double ERROR_BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final int windowSamples;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final AtomicLong rttSum = new AtomicLong();
+    private final AtomicInteger rttSamples = new AtomicInteger();
+    private final AtomicInteger samples = new AtomicInteger();
+    private final AtomicBoolean errors = new AtomicBoolean();
+    private volatile int limit;
+
+    // Guarded by this
+    private double estimate;
+    private double baselineNanos;
+
+    public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, int windowSamples) {
+        if (minLimit < 1 || maxLimit < minLimit || tolerance < 1 || windowSamples < 1) {
+            throw new IllegalArgumentException("Invalid adaptive concurrency settings");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.windowSamples = windowSamples;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.estimate = this.limit;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = this.inFlight.get();
+            if (current >= this.limit) {
+                return false;
+            }
+            if (this.inFlight.compareAndSet(current, current + 1)) {
+                this.peakInFlight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    // A call that was cancelled: its slot is freed but its duration says nothing about the upstream
+    public void release() {
+        this.inFlight.decrementAndGet();
+    }
+
+    public void release(long rttNanos, boolean error) {
+        this.inFlight.decrementAndGet();
+        // A failed call's RTT is left out, a refused connection is fast and would pull the baseline down
+        if (error) {
+            this.errors.set(true);
+        } else {
+            this.rttSum.addAndGet(rttNanos);
+            this.rttSamples.incrementAndGet();
+        }
+        // The counter is never reset, so exactly one release per window sees a multiple of the window size
+        if (this.samples.incrementAndGet() % this.windowSamples == 0) {
+            update();
+        }
+    }
+
+    private synchronized void update() {
+        int windowRttSamples = this.rttSamples.getAndSet(0);
+        long windowRttSum = this.rttSum.getAndSet(0);
+        double gradient = 1.0;
+        if (windowRttSamples > 0) {
+            double meanRtt = (double) windowRttSum / windowRttSamples;
+            // Drops to any faster window at once and drifts up slowly, so a lasting change in no-load latency is learnt
+            this.baselineNanos = this.baselineNanos == 0 || meanRtt < this.baselineNanos
+                    ? meanRtt : this.baselineNanos + (meanRtt - this.baselineNanos) * BASELINE_DRIFT;
+            gradient = Math.max(0.5, Math.min(1.0, this.tolerance * this.baselineNanos / meanRtt));
+        }
+        if (this.errors.getAndSet(false)) {
+            gradient = Math.min(gradient, ERROR_BACKOFF);
+        }
+        double target = this.estimate * gradient;
+        // Only grows when the window came close to the limit, otherwise an idle route would creep up to maxLimit
+        boolean used = this.peakInFlight.getAndSet(this.inFlight.get()) * 2 >= this.limit;
+        if (gradient == 1.0 && used) {
+            target += Math.sqrt(this.estimate);
+        }
+        this.estimate = Math.max(this.minLimit, Math.min(this.maxLimit, target));
+        this.limit = (int) this.estimate;
+    }
+
+    public int getLimit() {
+        return this.limit;
+    }
+
+    public int getInFlight() {
+        return this.inFlight.get();
+    }
+}
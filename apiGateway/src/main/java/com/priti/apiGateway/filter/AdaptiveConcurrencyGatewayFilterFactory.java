@@ -0,0 +1,98 @@
+package com.priti.apiGateway.filter;
+
+import com.priti.apiGateway.concurrency.AdaptiveLimiter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
+// Caps the requests in flight to a route's upstream at a limit that adapts to its latency (see AdaptiveLimiter).
+// Requests over the limit are shed at once with 503 instead of queueing in the services' thread and connection
+// pools. The RTT runs until the upstream response headers arrive; 5xx responses and errors count as failures.
+//
+//   filters[0].name=AdaptiveConcurrency
+//   filters[0].args.initialLimit=20
+//   filters[0].args.minLimit=2
+//   filters[0].args.maxLimit=200
+//   filters[0].args.tolerance=2.0
+@Component
+public class AdaptiveConcurrencyGatewayFilterFactory extends AbstractGatewayFilterFactory<AdaptiveConcurrencyGatewayFilterFactory.Config> {
+    // After the response writer, so the RTT stops at the upstream response and excludes streaming it to the client
+    static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER + 1;
+
+    // The current limiter of each route, replaced when routes are refreshed; the gauges read through this map
+    private final Map<String, AdaptiveLimiter> limiters = new ConcurrentHashMap<>();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public AdaptiveConcurrencyGatewayFilterFactory() {
+        super(Config.class);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() == null ? "" : config.getRouteId();
+        AdaptiveLimiter limiter = new AdaptiveLimiter(config.getInitialLimit(), config.getMinLimit(), config.getMaxLimit(),
+                config.getTolerance(), config.getWindowSamples());
+        if (this.limiters.put(routeId, limiter) == null) {
+            gauge("gateway.concurrency.limit", routeId, AdaptiveLimiter::getLimit);
+            gauge("gateway.concurrency.in-flight", routeId, AdaptiveLimiter::getInFlight);
+        }
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            if (!limiter.tryAcquire()) {
+                count(routeId, "rejected");
+                ServerHttpResponse response = exchange.getResponse();
+                response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+                return response.setComplete();
+            }
+            count(routeId, "accepted");
+            long start = System.nanoTime();
+            return chain.filter(exchange).doFinally(signal -> {
+                if (signal == SignalType.CANCEL) {
+                    limiter.release();
+                    return;
+                }
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                boolean error = signal == SignalType.ON_ERROR || status == null || status.is5xxServerError();
+                limiter.release(System.nanoTime() - start, error);
+            });
+        }, ORDER);
+    }
+
+    private void gauge(String name, String routeId, ToDoubleFunction<AdaptiveLimiter> value) {
+        Gauge.builder(name, this.limiters, limiters -> {
+            AdaptiveLimiter limiter = limiters.get(routeId);
+            return limiter == null ? Double.NaN : value.applyAsDouble(limiter);
+        }).tag("route", routeId).register(this.meterRegistry);
+    }
+
+    private void count(String routeId, String result) {
+        this.meterRegistry.counter("gateway.concurrency.requests", "route", routeId, "result", result).increment();
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private int initialLimit = 20;
+        private int minLimit = 2;
+        private int maxLimit = 200;
+        // How many times the no-load RTT the mean may reach before the limit shrinks
+        private double tolerance = 2.0;
+        private int windowSamples = 50;
+    }
+}
@@ -0,0 +1,124 @@
+package com.priti.apiGateway.filter;
+
+import com.priti.apiGateway.ratelimit.TokenBuckets;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Local token-bucket admission control: a request takes a token from its bucket or gets 429 with Retry-After.
+// There is one bucket per route, split per client when perClient is set, and per path template when paths is set
+// (/account/{id}/credit is one bucket for all ids; other paths pass). The client is the caller's address, taken from
+// X-Forwarded-For only as far as gateway.rate-limit.trusted-proxies allows, since the entries in front of those are
+// whatever the client sent. clientHeader is only for deployments where a trusted proxy sets that header.
+// Buckets are per gateway instance, so the effective limit grows with the number of instances.
+//
+//   filters[0].name=RateLimit
+//   filters[0].args.replenishRate=50
+//   filters[0].args.burstCapacity=100
+//   filters[0].args.perClient=true
+//   filters[0].args.paths=/account/{id:\d+}/credit
+@Component
+public class RateLimitGatewayFilterFactory extends AbstractGatewayFilterFactory<RateLimitGatewayFilterFactory.Config> {
+    // Ahead of the response cache and coalescing, so a rejected request costs nothing downstream
+    static final int ORDER = ResponseCacheGatewayFilterFactory.ORDER - 1;
+    @Value("${gateway.rate-limit.stripes:64}")
+    private int stripes;
+
+    @Value("${gateway.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    // Proxies in front of the gateway that append to X-Forwarded-For; 0 keys clients on the connection's address
+    @Value("${gateway.rate-limit.trusted-proxies:0}")
+    private int trustedProxies;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public RateLimitGatewayFilterFactory() {
+        super(Config.class);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        TokenBuckets buckets = new TokenBuckets(config.getReplenishRate(), config.getBurstCapacity(), this.stripes, this.maxKeys);
+        RemoteAddressResolver addressResolver = this.trustedProxies > 0
+                ? XForwardedRemoteAddressResolver.maxTrustedIndex(this.trustedProxies) : new RemoteAddressResolver() { };
+        List<PathPattern> patterns = config.getPaths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            String routeId = route == null ? "" : route.getId();
+            StringBuilder key = new StringBuilder(routeId);
+            if (config.isPerClient()) {
+                key.append(' ').append(client(exchange, addressResolver, config.getClientHeader()));
+            }
+            if (!patterns.isEmpty()) {
+                PathContainer path = request.getPath().pathWithinApplication();
+                PathPattern template = patterns.stream().filter(pattern -> pattern.matches(path)).findFirst().orElse(null);
+                if (template == null) {
+                    return chain.filter(exchange);
+                }
+                key.append(' ').append(template.getPatternString());
+            }
+            long waitNanos = buckets.tryAcquire(key.toString());
+            if (waitNanos == 0) {
+                count(routeId, "allowed");
+                return chain.filter(exchange);
+            }
+            count(routeId, "rejected");
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            // Whole seconds, rounded up so a client retrying on time finds a token
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(TimeUnit.NANOSECONDS.toSeconds(waitNanos - 1) + 1));
+            return response.setComplete();
+        }, ORDER);
+    }
+
+    private static String client(ServerWebExchange exchange, RemoteAddressResolver addressResolver, String clientHeader) {
+        if (clientHeader != null) {
+            String client = exchange.getRequest().getHeaders().getFirst(clientHeader);
+            if (client != null && !client.isBlank()) {
+                return client;
+            }
+        }
+        InetSocketAddress remoteAddress = addressResolver.resolve(exchange);
+        return remoteAddress == null ? "" : remoteAddress.getHostString();
+    }
+
+    private void count(String routeId, String result) {
+        this.meterRegistry.counter("gateway.rate-limit.requests", "route", routeId, "result", result).increment();
+    }
+
+    @Data
+    public static class Config {
+        // Tokens added per second, and the most a bucket holds (the burst a quiet client can send at once)
+        private double replenishRate = 100;
+        private int burstCapacity = 200;
+        private boolean perClient;
+        // Off by default: only set it when a trusted proxy in front of the gateway sets or strips this header
+        private String clientHeader;
+        private List<String> paths = new ArrayList<>();
+    }
+}
@@ -0,0 +1,26 @@
+package com.priti.apiGateway.filter;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.ArrayList;
+import java.util.Set;
+
+// Upstream response headers that can be replayed on another client's response
+final class ReplayableHeaders {
+    // Hop-by-hop, per-response or per-client headers
+    private static final Set<String> EXCLUDED = Set.of(HttpHeaders.CONNECTION, HttpHeaders.TRANSFER_ENCODING,
+            HttpHeaders.DATE, HttpHeaders.CONTENT_LENGTH, HttpHeaders.SET_COOKIE, "Keep-Alive", "X-Cache");
+
+    private ReplayableHeaders() {
+    }
+
+    static HttpHeaders copy(HttpHeaders headers) {
+        HttpHeaders copy = new HttpHeaders();
+        headers.forEach((name, values) -> {
+            if (EXCLUDED.stream().noneMatch(name::equalsIgnoreCase)) {
+                copy.put(name, new ArrayList<>(values));
+            }
+        });
+        return HttpHeaders.readOnlyHttpHeaders(copy);
+    }
+}
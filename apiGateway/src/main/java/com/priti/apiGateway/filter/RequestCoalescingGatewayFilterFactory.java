@@ -0,0 +1,184 @@
+package com.priti.apiGateway.filter;
+
+import com.priti.apiGateway.cache.ResponseCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Collapses identical concurrent GETs (route, path and query, Cookie and the configured request headers) into one
+// upstream exchange. The response cache's write stamp for the path is part of the key, so a GET arriving after a
+// write to the resource never joins an exchange that started before it. The first request goes upstream and tees its body into a buffer while streaming it to its own client;
+// the others wait and get a copy. Followers fall back to their own upstream call when the shared response is a 5xx,
+// sets a cookie, exceeds maxBodyBytes, or the leader's exchange fails or is cancelled.
+//
+//   filters[1].name=RequestCoalescing
+//   filters[1].args.headers=Accept,Authorization
+//   filters[1].args.maxBodyBytes=1048576
+@Component
+public class RequestCoalescingGatewayFilterFactory extends AbstractGatewayFilterFactory<RequestCoalescingGatewayFilterFactory.Config> {
+    // Wraps the response before NettyWriteResponseFilter writes the upstream body
+    static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public RequestCoalescingGatewayFilterFactory() {
+        super(Config.class);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            String routeId = route == null ? "" : route.getId();
+            String key = key(routeId, request, config.getHeaders());
+            InFlight created = new InFlight(key);
+            InFlight leader = this.inFlight.putIfAbsent(key, created);
+            if (leader != null) {
+                return follow(exchange, chain, routeId, leader);
+            }
+            count(routeId, "leader");
+            ServerHttpResponse response = new SharingResponse(exchange.getResponse(), created, config.getMaxBodyBytes());
+            return chain.filter(exchange.mutate().response(response).build())
+                    .doFinally(signal -> created.finish(null));
+        }, ORDER);
+    }
+
+    private Mono<Void> follow(ServerWebExchange exchange, GatewayFilterChain chain, String routeId, InFlight leader) {
+        return Mono.fromFuture(leader.result.thenApply(Optional::ofNullable)).flatMap(result -> {
+            if (result.isEmpty()) {
+                count(routeId, "fallback");
+                return chain.filter(exchange);
+            }
+            count(routeId, "follower");
+            SharedResponse shared = result.get();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(shared.status());
+            response.getHeaders().putAll(shared.headers());
+            response.getHeaders().setContentLength(shared.body().length);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body())));
+        });
+    }
+
+    private String key(String routeId, ServerHttpRequest request, List<String> headers) {
+        // The same string ResponseCacheGatewayFilterFactory invalidates on a write to the resource
+        String resource = routeId + " " + request.getPath().pathWithinApplication().value();
+        StringBuilder key = new StringBuilder(routeId).append(' ').append(request.getURI().getRawPath());
+        if (request.getURI().getRawQuery() != null) {
+            key.append('?').append(request.getURI().getRawQuery());
+        }
+        key.append('\n').append(this.responseCache.stamp(resource));
+        // Cookies can route the read (primary-until pins a client to the primary after its own write)
+        key.append('\n').append(HttpHeaders.COOKIE).append(':').append(request.getHeaders().getOrEmpty(HttpHeaders.COOKIE));
+        for (String header : headers) {
+            key.append('\n').append(header).append(':').append(request.getHeaders().getOrEmpty(header));
+        }
+        return key.toString();
+    }
+
+    private void count(String routeId, String role) {
+        this.meterRegistry.counter("gateway.coalescing.requests", "route", routeId, "role", role).increment();
+    }
+
+    private record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+    }
+
+    // One upstream exchange that followers can join until it finishes; a null result sends them upstream themselves
+    private class InFlight {
+        private final String key;
+        private final CompletableFuture<SharedResponse> result = new CompletableFuture<>();
+
+        InFlight(String key) {
+            this.key = key;
+        }
+
+        void finish(SharedResponse response) {
+            // Unregistered first, so a request arriving after this point starts a fresh exchange
+            inFlight.remove(this.key, this);
+            this.result.complete(response);
+        }
+    }
+
+    // Streams the leader's body to its client and keeps a copy, up to maxBodyBytes, for the followers
+    private static class SharingResponse extends ServerHttpResponseDecorator {
+        private final InFlight inFlight;
+        private final int maxBodyBytes;
+
+        SharingResponse(ServerHttpResponse delegate, InFlight inFlight, int maxBodyBytes) {
+            super(delegate);
+            this.inFlight = inFlight;
+            this.maxBodyBytes = maxBodyBytes;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            HttpHeaders headers = getHeaders();
+            if (status == null || status.is5xxServerError() || headers.containsKey(HttpHeaders.SET_COOKIE)
+                    || headers.getContentLength() > this.maxBodyBytes) {
+                this.inFlight.finish(null);
+                return super.writeWith(body);
+            }
+            HttpHeaders shared = ReplayableHeaders.copy(headers);
+            ByteArrayOutputStream copy = new ByteArrayOutputStream();
+            boolean[] overflow = {false};
+            Flux<? extends DataBuffer> tee = Flux.from(body)
+                    .doOnNext(buffer -> {
+                        int length = buffer.readableByteCount();
+                        if (overflow[0] || copy.size() + length > this.maxBodyBytes) {
+                            overflow[0] = true;
+                            return;
+                        }
+                        byte[] bytes = new byte[length];
+                        int position = buffer.readPosition();
+                        buffer.read(bytes);
+                        buffer.readPosition(position);
+                        copy.writeBytes(bytes);
+                    })
+                    .doOnComplete(() -> this.inFlight.finish(overflow[0] ? null : new SharedResponse(status, shared, copy.toByteArray())));
+            return super.writeWith(tee);
+        }
+    }
+
+    @Data
+    public static class Config {
+        // Request headers that can change the response, so they are part of the coalescing key
+        private List<String> headers = List.of(HttpHeaders.ACCEPT, HttpHeaders.AUTHORIZATION);
+        private int maxBodyBytes = 1024 * 1024;
+    }
+}
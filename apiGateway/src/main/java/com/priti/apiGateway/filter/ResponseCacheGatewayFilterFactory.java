@@ -0,0 +1,221 @@
+package com.priti.apiGateway.filter;
+
+import com.priti.apiGateway.cache.CachedResponse;
+import com.priti.apiGateway.cache.ResponseCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// Caches GET responses for the configured path patterns of a route and revalidates them with ETag/If-None-Match.
+// A POST/PUT/PATCH/DELETE whose path starts with a cached resource (POST /account/5/credit -> /account/5)
+// evicts it once the upstream call completes; a write matching evictAll (POST /account/transfer, whose accounts are
+// in the body) evicts every entry of the route. Writes the gateway never sees (seeder, jobs, other services,
+// other gateway instances) are only bounded by the ttl.
+//
+//   filters[0].name=ResponseCache
+//   filters[0].args.paths=/account/{id:\d+}
+//   filters[0].args.evictAll=/account/transfer
+//   filters[0].args.ttl=30s
+@Component
+public class ResponseCacheGatewayFilterFactory extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+    // Before the load balancer, so a hit never picks an instance, and ahead of request coalescing, so only misses coalesce
+    static final int ORDER = RequestCoalescingGatewayFilterFactory.ORDER - 1;
+    private static final String X_CACHE = "X-Cache";
+    private static final Set<HttpMethod> WRITES = Set.of(HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public ResponseCacheGatewayFilterFactory() {
+        super(Config.class);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        List<PathPattern> patterns = config.getPaths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+        List<PathPattern> evictAllPatterns = config.getEvictAll().stream().map(PathPatternParser.defaultInstance::parse).toList();
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            String routeId = route == null ? "" : route.getId();
+            PathContainer path = request.getPath().pathWithinApplication();
+            if (WRITES.contains(request.getMethod())) {
+                Runnable evict;
+                if (evictAllPatterns.stream().anyMatch(pattern -> pattern.matches(path))) {
+                    String prefix = routeId + " ";
+                    evict = () -> this.responseCache.invalidatePrefix(prefix);
+                } else {
+                    String resource = cachedResource(patterns, path);
+                    if (resource == null) {
+                        return chain.filter(exchange);
+                    }
+                    String key = routeId + " " + resource;
+                    evict = () -> this.responseCache.invalidate(key);
+                }
+                // Evicted before the client sees the write's response, and again however the exchange ends
+                ServerHttpResponse response = new ServerHttpResponseDecorator(exchange.getResponse()) {
+                    @Override
+                    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                        evict.run();
+                        return super.writeWith(body);
+                    }
+                };
+                return chain.filter(exchange.mutate().response(response).build())
+                        .doFinally(signal -> evict.run());
+            }
+            if (request.getMethod() != HttpMethod.GET || !request.getQueryParams().isEmpty()
+                    || patterns.stream().noneMatch(pattern -> pattern.matches(path))) {
+                return chain.filter(exchange);
+            }
+            String key = routeId + " " + path.value();
+            // no-cache/no-store from the client skip the lookup; the fresh response still refreshes the entry
+            String cacheControl = request.getHeaders().getCacheControl();
+            boolean revalidate = cacheControl != null && (cacheControl.contains("no-cache") || cacheControl.contains("no-store"));
+            CachedResponse cached = revalidate ? null : this.responseCache.get(key);
+            if (cached != null) {
+                return writeCached(exchange, routeId, cached);
+            }
+            count(routeId, "miss");
+            long stamp = this.responseCache.stamp(key);
+            ServerHttpResponse response = new CachingResponse(exchange, key, stamp, config.getTtl());
+            return chain.filter(exchange.mutate().response(response).build());
+        }, ORDER);
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, String routeId, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.putAll(cached.headers());
+        headers.setETag(cached.etag());
+        headers.set(HttpHeaders.AGE, String.valueOf(cached.ageSeconds()));
+        headers.set(X_CACHE, "HIT");
+        if (notModified(exchange.getRequest(), cached.etag())) {
+            count(routeId, "not-modified");
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        count(routeId, "hit");
+        response.setStatusCode(HttpStatus.OK);
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    // The longest prefix of a write's path that is a cached resource of this route
+    private static String cachedResource(List<PathPattern> patterns, PathContainer path) {
+        for (int end = path.elements().size(); end > 0; end--) {
+            PathContainer prefix = path.subPath(0, end);
+            if (patterns.stream().anyMatch(pattern -> pattern.matches(prefix))) {
+                return prefix.value();
+            }
+        }
+        return null;
+    }
+
+    private static boolean notModified(ServerHttpRequest request, String etag) {
+        List<String> ifNoneMatch = request.getHeaders().getIfNoneMatch();
+        return ifNoneMatch.contains(etag) || ifNoneMatch.contains("*");
+    }
+
+    private void count(String routeId, String result) {
+        this.meterRegistry.counter("gateway.response.cache.requests", "route", routeId, "result", result).increment();
+    }
+
+    // Buffers a 200 body on its way to the client and stores it, unless it is too large or marked uncacheable
+    private class CachingResponse extends ServerHttpResponseDecorator {
+        private final ServerWebExchange exchange;
+        private final String key;
+        private final long stamp;
+        private final Duration ttl;
+
+        CachingResponse(ServerWebExchange exchange, String key, long stamp, Duration ttl) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.key = key;
+            this.stamp = stamp;
+            this.ttl = ttl;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getHeaders();
+            headers.set(X_CACHE, "MISS");
+            int maxEntryBytes = responseCache.getMaxEntryBytes();
+            if (!HttpStatus.OK.equals(getStatusCode()) || headers.getContentLength() > maxEntryBytes
+                    || headers.containsKey(HttpHeaders.SET_COOKIE) || uncacheable(headers.getCacheControl())) {
+                return super.writeWith(body);
+            }
+            // Buffers until the body is complete or passes maxEntryBytes (a chunked body has no Content-Length), and
+            // in the second case streams what it holds and the rest straight through
+            long[] size = {0};
+            return Flux.<DataBuffer>from(body)
+                    .bufferUntil(buffer -> (size[0] += buffer.readableByteCount()) > maxEntryBytes)
+                    .switchOnFirst((first, buffered) -> first.isOnError() || size[0] > maxEntryBytes
+                            ? super.writeWith(buffered.flatMapIterable(buffers -> buffers))
+                            : writeComplete(first.hasValue() ? first.get() : List.of(), headers))
+                    .then();
+        }
+
+        private Mono<Void> writeComplete(List<DataBuffer> buffers, HttpHeaders headers) {
+            byte[] bytes;
+            if (buffers.isEmpty()) {
+                bytes = new byte[0];
+            } else {
+                DataBuffer joined = bufferFactory().join(buffers);
+                bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+            }
+            String etag = headers.getETag() != null ? headers.getETag() : "\"0" + DigestUtils.md5DigestAsHex(bytes) + "\"";
+            headers.setETag(etag);
+            responseCache.put(key, new CachedResponse(ReplayableHeaders.copy(headers), bytes, etag, System.nanoTime(), ttl), stamp);
+            if (notModified(exchange.getRequest(), etag)) {
+                setStatusCode(HttpStatus.NOT_MODIFIED);
+                headers.remove(HttpHeaders.CONTENT_LENGTH);
+                return setComplete();
+            }
+            return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+        }
+
+        private boolean uncacheable(String cacheControl) {
+            return cacheControl != null && (cacheControl.contains("no-store") || cacheControl.contains("private"));
+        }
+    }
+
+    @Data
+    public static class Config {
+        private List<String> paths = new ArrayList<>();
+        // Write paths that evict the whole route, for writes whose resources are not in the path
+        private List<String> evictAll = new ArrayList<>();
+        private Duration ttl = Duration.ofSeconds(30);
+    }
+}
@@ -0,0 +1,106 @@
+package com.priti.apiGateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Per-instance call statistics shared by the latency-aware balancers of every service in this JVM, fed by
+// LatencyAwareLoadBalancerFilter. Instances are keyed by service id and host:port.
+public class InstanceStatsRegistry {
+    // An instance missing from the lists for this long is treated as new when it comes back
+    private static final long FORGET_AFTER_NANOS = Duration.ofMinutes(2).toNanos();
+
+    private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+    private final double ewmaAlpha;
+    private final int failuresToEject;
+    private final long ejectionNanos;
+    private final long slowStartNanos;
+    private final LongSupplier clock;
+    private final AtomicLong lastPruned;
+
+    public InstanceStatsRegistry(double ewmaAlpha, int failuresToEject, Duration ejectionTime, Duration slowStart) {
+        this(ewmaAlpha, failuresToEject, ejectionTime, slowStart, System::nanoTime);
+    }
+
+    InstanceStatsRegistry(double ewmaAlpha, int failuresToEject, Duration ejectionTime, Duration slowStart, LongSupplier clock) {
+        this.ewmaAlpha = ewmaAlpha;
+        this.failuresToEject = failuresToEject;
+        this.ejectionNanos = ejectionTime.toNanos();
+        this.slowStartNanos = slowStart.toNanos();
+        this.clock = clock;
+        this.lastPruned = new AtomicLong(clock.getAsLong());
+    }
+
+    // The listed instances that are not ejected, or all of them when every one is
+    List<ServiceInstance> available(List<ServiceInstance> instances) {
+        long now = this.clock.getAsLong();
+        prune(now);
+        instances.forEach(instance -> stats(instance).seen(now, FORGET_AFTER_NANOS));
+        List<ServiceInstance> available = instances.stream().filter(instance -> !stats(instance).isEjected(now)).toList();
+        return available.isEmpty() ? instances : available;
+    }
+
+    // Picks the instance with less expected wait: calls in flight, plus this one, times EWMA latency, over the
+    // slow-start weight. An instance without samples yet is taken to be as fast as the other.
+    ServiceInstance better(ServiceInstance first, ServiceInstance second) {
+        long now = this.clock.getAsLong();
+        InstanceStats a = stats(first);
+        InstanceStats b = stats(second);
+        double latencyA = a.ewmaNanos();
+        double latencyB = b.ewmaNanos();
+        if (latencyA == 0) {
+            latencyA = latencyB;
+        }
+        if (latencyB == 0) {
+            latencyB = latencyA;
+        }
+        double scoreA = (a.outstanding() + 1) * Math.max(latencyA, 1) / a.weight(now, this.slowStartNanos);
+        double scoreB = (b.outstanding() + 1) * Math.max(latencyB, 1) / b.weight(now, this.slowStartNanos);
+        return scoreA <= scoreB ? first : second;
+    }
+
+    public void started(ServiceInstance instance) {
+        stats(instance).started();
+    }
+
+    // Completions of calls to an instance that was dropped meanwhile are ignored
+    public void completed(ServiceInstance instance, long rttNanos, boolean failure) {
+        InstanceStats stats = this.stats.get(key(instance));
+        if (stats != null) {
+            stats.completed(rttNanos, failure, this.clock.getAsLong(), this.ewmaAlpha, this.failuresToEject, this.ejectionNanos);
+        }
+    }
+
+    public void cancelled(ServiceInstance instance) {
+        InstanceStats stats = this.stats.get(key(instance));
+        if (stats != null) {
+            stats.abandoned();
+        }
+    }
+
+    int outstanding(ServiceInstance instance) {
+        InstanceStats stats = this.stats.get(key(instance));
+        return stats == null ? 0 : stats.outstanding();
+    }
+
+    // At most once per forget period, drops the instances that have left every list (scaled down, redeployed elsewhere)
+    private void prune(long now) {
+        long last = this.lastPruned.get();
+        if (now - last > FORGET_AFTER_NANOS && this.lastPruned.compareAndSet(last, now)) {
+            this.stats.values().removeIf(stats -> stats.isForgotten(now, FORGET_AFTER_NANOS));
+        }
+    }
+
+    private InstanceStats stats(ServiceInstance instance) {
+        return this.stats.computeIfAbsent(key(instance), key -> new InstanceStats());
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getServiceId() + " " + instance.getHost() + ":" + instance.getPort();
+    }
+}
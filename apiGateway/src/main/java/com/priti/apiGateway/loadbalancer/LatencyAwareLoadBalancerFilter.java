@@ -0,0 +1,51 @@
+package com.priti.apiGateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+// Feeds InstanceStatsRegistry from every lb:// route: in flight from the instance being picked until the exchange
+// ends, with its latency; an error or a 5xx response counts as a failure. Done here rather than in a
+// LoadBalancerLifecycle because ReactiveLoadBalancerClientFilter never completes the lifecycle of a cancelled
+// exchange (client gone, timeout), which would leave those calls counted in flight for good.
+public class LatencyAwareLoadBalancerFilter implements GlobalFilter, Ordered {
+    private final InstanceStatsRegistry instanceStatsRegistry;
+
+    public LatencyAwareLoadBalancerFilter(InstanceStatsRegistry instanceStatsRegistry) {
+        this.instanceStatsRegistry = instanceStatsRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Response<ServiceInstance> lbResponse = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return chain.filter(exchange);
+        }
+        ServiceInstance instance = lbResponse.getServer();
+        this.instanceStatsRegistry.started(instance);
+        long started = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> {
+            if (signal == SignalType.CANCEL) {
+                this.instanceStatsRegistry.cancelled(instance);
+                return;
+            }
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            boolean failure = signal == SignalType.ON_ERROR || status != null && status.is5xxServerError();
+            this.instanceStatsRegistry.completed(instance, System.nanoTime() - started, failure);
+        });
+    }
+
+    // Right after the instance is picked
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+}
@@ -0,0 +1,85 @@
+package com.priti.apiGateway.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token buckets keyed by string, all with the same refill rate and burst. Each bucket is a single long, the time
+// at which it would be full again (GCRA), updated with compare-and-set, so taking a token never locks.
+// Buckets live in hash-selected stripes; a stripe over its key budget drops the buckets that have refilled,
+// which is lossless since a missing bucket starts out full.
+public class TokenBuckets {
+    private static final long SWEEP_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final Stripe[] stripes;
+    private final int maxKeysPerStripe;
+    private final long intervalNanos;
+    private final long capacityNanos;
+
+    public TokenBuckets(double replenishRate, int burstCapacity, int stripes, int maxKeys) {
+        if (replenishRate <= 0 || burstCapacity <= 0) {
+            throw new IllegalArgumentException("replenishRate and burstCapacity must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(1, stripes));
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.maxKeysPerStripe = Math.max(1, maxKeys / size);
+        this.intervalNanos = Math.max(1, Math.round(1_000_000_000L / replenishRate));
+        this.capacityNanos = this.intervalNanos * burstCapacity;
+    }
+
+    // Takes a token: 0 when one was available, otherwise the nanoseconds until one will be
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        AtomicLong bucket = stripe(key).bucket(key, now);
+        while (true) {
+            long fullAt = bucket.get();
+            long next = (fullAt - now > 0 ? fullAt : now) + this.intervalNanos;
+            long wait = next - now - this.capacityNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : this.stripes) {
+            size += stripe.buckets.size();
+        }
+        return size;
+    }
+
+    private Stripe stripe(String key) {
+        int h = key.hashCode();
+        return this.stripes[(h ^ (h >>> 16)) & (this.stripes.length - 1)];
+    }
+
+    private class Stripe {
+        private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final AtomicLong nextSweep = new AtomicLong(System.nanoTime());
+
+        AtomicLong bucket(String key, long now) {
+            AtomicLong bucket = this.buckets.get(key);
+            if (bucket != null) {
+                return bucket;
+            }
+            sweep(now);
+            return this.buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        // At most once a second per stripe, so a flood of distinct keys does not rescan it on every insert
+        private void sweep(long now) {
+            long due = this.nextSweep.get();
+            if (this.buckets.size() < maxKeysPerStripe || now - due < 0
+                    || !this.nextSweep.compareAndSet(due, now + SWEEP_INTERVAL_NANOS)) {
+                return;
+            }
+            this.buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        }
+    }
+}
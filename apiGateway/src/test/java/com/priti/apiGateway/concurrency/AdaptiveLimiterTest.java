@@ -0,0 +1,62 @@
+package com.priti.apiGateway.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveLimiterTest {
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(50);
+
+    @Test
+    void growsWhileLatencyHoldsAndShrinksWhenItRises() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(16, 2, 100, 2.0, 16);
+
+        // A saturated window at baseline latency grows the limit by sqrt(16)
+        window(limiter, 16, FAST, false);
+        assertEquals(20, limiter.getLimit());
+
+        // 5x the baseline is past the 2x tolerance: halved, the most one window can take
+        window(limiter, 16, SLOW, false);
+        assertEquals(10, limiter.getLimit());
+
+        // Failures back off even at baseline latency
+        window(limiter, 8, FAST, true);
+        window(limiter, 8, FAST, true);
+        assertEquals(9, limiter.getLimit());
+    }
+
+    @Test
+    void shedsOverTheLimitAndDoesNotGrowWhenUnderused() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(4, 2, 100, 2.0, 4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+        for (int i = 0; i < 4; i++) {
+            limiter.release(FAST, false);
+        }
+        assertEquals(6, limiter.getLimit());
+
+        // One request at a time never gets near the limit
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(FAST, false);
+        }
+        assertEquals(6, limiter.getLimit());
+    }
+
+    // Fills the limiter with a window of concurrent calls, then completes them
+    private static void window(AdaptiveLimiter limiter, int calls, long rttNanos, boolean error) {
+        for (int i = 0; i < calls; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        for (int i = 0; i < calls; i++) {
+            limiter.release(rttNanos, error);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.priti.apiGateway.filter;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "eureka.client.enabled=false")
+class AdaptiveConcurrencyGatewayFilterFactoryTest {
+    private static final int CLIENTS = 10;
+    private static final AtomicInteger inFlight = new AtomicInteger();
+    private static final AtomicInteger peakInFlight = new AtomicInteger();
+    private static final HttpServer upstream = startUpstream();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void routeToUpstream(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.gateway.routes[0].id", () -> "ACCOUNT-SERVICE");
+        registry.add("spring.cloud.gateway.routes[0].uri", () -> "http://localhost:" + upstream.getAddress().getPort());
+        registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/account/**");
+        registry.add("spring.cloud.gateway.routes[0].filters[0].name", () -> "AdaptiveConcurrency");
+        registry.add("spring.cloud.gateway.routes[0].filters[0].args.initialLimit", () -> "3");
+        registry.add("spring.cloud.gateway.routes[0].filters[0].args.minLimit", () -> "3");
+        registry.add("spring.cloud.gateway.routes[0].filters[0].args.maxLimit", () -> "3");
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.stop(0);
+    }
+
+    @Test
+    void shedsRequestsOverTheLimitWithoutQueueing() {
+        WebClient client = WebClient.create("http://localhost:" + this.port);
+        List<Integer> statuses = Flux.range(0, CLIENTS)
+                .flatMap(i -> client.get().uri("/account/1").exchangeToMono(response -> response.toBodilessEntity()), CLIENTS)
+                .map(response -> response.getStatusCode().value())
+                .collectList().block();
+
+        assertTrue(peakInFlight.get() <= 3);
+        long shed = statuses.stream().filter(status -> status == 503).count();
+        assertTrue(shed >= CLIENTS - 3);
+        assertEquals(CLIENTS - shed, statuses.stream().filter(status -> status == 200).count());
+        assertEquals(3.0, this.meterRegistry.get("gateway.concurrency.limit").tag("route", "ACCOUNT-SERVICE").gauge().value());
+        assertEquals((double) shed, this.meterRegistry.counter("gateway.concurrency.requests",
+                "route", "ACCOUNT-SERVICE", "result", "rejected").count());
+    }
+
+    private static HttpServer startUpstream() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), CLIENTS * 2);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.createContext("/account", exchange -> {
+                peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(500);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] bytes = "{}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+                inFlight.decrementAndGet();
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
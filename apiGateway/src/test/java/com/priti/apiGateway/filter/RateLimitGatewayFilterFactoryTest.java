@@ -0,0 +1,102 @@
+package com.priti.apiGateway.filter;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "eureka.client.enabled=false")
+class RateLimitGatewayFilterFactoryTest {
+    private static final HttpServer upstream = startUpstream();
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @DynamicPropertySource
+    static void routeToUpstream(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.gateway.routes[0].id", () -> "ACCOUNT-SERVICE");
+        registry.add("spring.cloud.gateway.routes[0].uri", () -> "http://localhost:" + upstream.getAddress().getPort());
+        registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/account/**");
+        registry.add("spring.cloud.gateway.routes[0].filters[0].name", () -> "RateLimit");
+        registry.add("spring.cloud.gateway.routes[0].filters[0].args.perClient", () -> "true");
+        registry.add("spring.cloud.gateway.routes[0].filters[0].args.clientHeader", () -> "X-Client-Id");
+        registry.add("spring.cloud.gateway.routes[0].filters[0].args.replenishRate", () -> "0.2");
+        registry.add("spring.cloud.gateway.routes[0].filters[0].args.burstCapacity", () -> "3");
+        registry.add("spring.cloud.gateway.routes[0].filters[1].name", () -> "RateLimit");
+        registry.add("spring.cloud.gateway.routes[0].filters[1].args.paths", () -> "/account/{id:\\d+}/credit");
+        registry.add("spring.cloud.gateway.routes[0].filters[1].args.replenishRate", () -> "0.2");
+        registry.add("spring.cloud.gateway.routes[0].filters[1].args.burstCapacity", () -> "2");
+        registry.add("spring.cloud.gateway.routes[1].id", () -> "CUSTOMER-SERVICE");
+        registry.add("spring.cloud.gateway.routes[1].uri", () -> "http://localhost:" + upstream.getAddress().getPort());
+        registry.add("spring.cloud.gateway.routes[1].predicates[0]", () -> "Path=/customer/**");
+        registry.add("spring.cloud.gateway.routes[1].filters[0].name", () -> "RateLimit");
+        registry.add("spring.cloud.gateway.routes[1].filters[0].args.perClient", () -> "true");
+        registry.add("spring.cloud.gateway.routes[1].filters[0].args.replenishRate", () -> "0.2");
+        registry.add("spring.cloud.gateway.routes[1].filters[0].args.burstCapacity", () -> "1");
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.stop(0);
+    }
+
+    @Test
+    void eachClientGetsItsOwnBurstAndThenRetryAfter() {
+        for (int i = 0; i < 3; i++) {
+            this.webTestClient.get().uri("/account/1").header("X-Client-Id", "alice").exchange().expectStatus().isOk();
+        }
+        this.webTestClient.get().uri("/account/1").header("X-Client-Id", "alice").exchange()
+                .expectStatus().isEqualTo(429)
+                .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "5");
+
+        this.webTestClient.get().uri("/account/1").header("X-Client-Id", "bob").exchange().expectStatus().isOk();
+    }
+
+    @Test
+    void pathTemplateSharesOneBucketAcrossIds() {
+        this.webTestClient.post().uri("/account/1/credit").header("X-Client-Id", "carol").exchange().expectStatus().isOk();
+        this.webTestClient.post().uri("/account/2/credit").header("X-Client-Id", "dave").exchange().expectStatus().isOk();
+        this.webTestClient.post().uri("/account/3/credit").header("X-Client-Id", "erin").exchange()
+                .expectStatus().isEqualTo(429);
+
+        // Paths outside the template are not limited by it
+        this.webTestClient.get().uri("/account/3").header("X-Client-Id", "erin").exchange().expectStatus().isOk();
+    }
+
+    @Test
+    void clientCannotPickItsOwnBucketWithHeaders() {
+        this.webTestClient.get().uri("/customer/1").header("X-Client-Id", "mallory-1")
+                .header("X-Forwarded-For", "10.0.0.1").exchange().expectStatus().isOk();
+        // Neither header is trusted by default, so this is still the same caller
+        this.webTestClient.get().uri("/customer/1").header("X-Client-Id", "mallory-2")
+                .header("X-Forwarded-For", "10.0.0.2").exchange().expectStatus().isEqualTo(429);
+    }
+
+    private static HttpServer startUpstream() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/", exchange -> {
+                byte[] bytes = "{}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
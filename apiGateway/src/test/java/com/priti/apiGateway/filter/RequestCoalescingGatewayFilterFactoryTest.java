@@ -0,0 +1,145 @@
+package com.priti.apiGateway.filter;
+
+import com.priti.apiGateway.cache.ResponseCache;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "eureka.client.enabled=false")
+class RequestCoalescingGatewayFilterFactoryTest {
+    private static final int CLIENTS = 20;
+    private static final AtomicInteger upstreamCalls = new AtomicInteger();
+    private static final HttpServer upstream = startUpstream();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @DynamicPropertySource
+    static void routeToUpstream(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.gateway.routes[0].id", () -> "CUSTOMER-SERVICE");
+        registry.add("spring.cloud.gateway.routes[0].uri", () -> "http://localhost:" + upstream.getAddress().getPort());
+        registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/customer/**");
+        registry.add("spring.cloud.gateway.routes[0].filters[0].name", () -> "RequestCoalescing");
+        registry.add("spring.cloud.gateway.routes[0].filters[0].args.maxBodyBytes", () -> "64");
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.stop(0);
+    }
+
+    @BeforeEach
+    void reset() {
+        upstreamCalls.set(0);
+    }
+
+    @Test
+    void concurrentIdenticalGetsShareOneUpstreamCall() {
+        List<ResponseEntity<String>> responses = getConcurrently("/customer/1");
+        responses.forEach(response -> {
+            assertEquals(200, response.getStatusCode().value());
+            assertEquals("{\"id\":1}", response.getBody());
+        });
+        assertEquals(1, upstreamCalls.get());
+
+        // A different query string is a different request
+        getConcurrently("/customer/1?withAccounts=false");
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void followersGoUpstreamThemselvesOnErrorsAndLargeBodies() {
+        getConcurrently("/customer/500").forEach(response -> assertEquals(500, response.getStatusCode().value()));
+        assertEquals(CLIENTS, upstreamCalls.get());
+
+        upstreamCalls.set(0);
+        getConcurrently("/customer/large").forEach(response -> assertEquals(100, response.getBody().length()));
+        assertEquals(CLIENTS, upstreamCalls.get());
+    }
+
+    @Test
+    void getAfterAWriteDoesNotJoinAnExchangeStartedBeforeIt() throws InterruptedException {
+        WebClient client = WebClient.create("http://localhost:" + this.port);
+        Mono<String> beforeWrite = client.get().uri("/customer/7").retrieve().bodyToMono(String.class).cache();
+        beforeWrite.subscribe();
+        Thread.sleep(100);
+        // What the response cache filter does when a write to /customer/7 goes through
+        this.responseCache.invalidate("CUSTOMER-SERVICE /customer/7");
+        String afterWrite = client.get().uri("/customer/7").retrieve().bodyToMono(String.class).block();
+        beforeWrite.block(Duration.ofSeconds(5));
+        assertEquals("{\"id\":7}", afterWrite);
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void requestsWithDifferentCookiesDoNotShareAnExchange() {
+        WebClient client = WebClient.create("http://localhost:" + this.port);
+        Flux.range(0, 2)
+                .flatMap(i -> client.get().uri("/customer/8").cookie("primary-until", String.valueOf(i)).retrieve().bodyToMono(String.class))
+                .blockLast();
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    private List<ResponseEntity<String>> getConcurrently(String uri) {
+        WebClient client = WebClient.create("http://localhost:" + this.port);
+        List<ResponseEntity<String>> responses = Flux.range(0, CLIENTS)
+                .flatMap(i -> client.get().uri(uri).exchangeToMono(response -> response.toEntity(String.class)), CLIENTS)
+                .collectList().block();
+        assertTrue(responses.size() == CLIENTS);
+        return responses;
+    }
+
+    private static HttpServer startUpstream() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), CLIENTS * 2);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.createContext("/customer", exchange -> {
+                upstreamCalls.incrementAndGet();
+                try {
+                    // Long enough for every concurrent client to arrive while the first call is in flight
+                    Thread.sleep(500);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                String path = exchange.getRequestURI().getPath();
+                int status = path.endsWith("/500") ? 500 : 200;
+                String body = path.endsWith("/large") ? "x".repeat(100) : "{\"id\":" + path.substring("/customer/".length()) + "}";
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(status, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.priti.apiGateway.filter;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "eureka.client.enabled=false")
+class ResponseCacheGatewayFilterFactoryTest {
+    private static final AtomicInteger upstreamReads = new AtomicInteger();
+    private static final AtomicInteger balance = new AtomicInteger(100);
+    private static final HttpServer upstream = startUpstream();
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void routeToUpstream(DynamicPropertyRegistry registry) {
+        // Replaces the whole route list: indexed list properties are not merged across property sources
+        registry.add("spring.cloud.gateway.routes[0].id", () -> "ACCOUNT-SERVICE");
+        registry.add("spring.cloud.gateway.routes[0].uri", () -> "http://localhost:" + upstream.getAddress().getPort());
+        registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/account/**");
+        registry.add("spring.cloud.gateway.routes[0].filters[0].name", () -> "ResponseCache");
+        registry.add("spring.cloud.gateway.routes[0].filters[0].args.paths", () -> "/account/{id:\\d+}");
+        registry.add("spring.cloud.gateway.routes[0].filters[0].args.evictAll", () -> "/account/transfer");
+        registry.add("spring.cloud.gateway.routes[0].filters[0].args.ttl", () -> "1m");
+        // Small enough that the chunked /account/9 body does not fit
+        registry.add("gateway.response-cache.max-entry-bytes", () -> "64");
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.stop(0);
+    }
+
+    @BeforeEach
+    void reset() {
+        upstreamReads.set(0);
+    }
+
+    @Test
+    void servesRepeatsFromCacheAndRevalidatesWithEtag() {
+        String etag = this.webTestClient.get().uri("/account/1").exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Cache", "MISS")
+                .returnResult(String.class).getResponseHeaders().getETag();
+        this.webTestClient.get().uri("/account/1").exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Cache", "HIT")
+                .expectHeader().valueEquals(HttpHeaders.ETAG, etag)
+                .expectBody(String.class).isEqualTo("{\"id\":1,\"balance\":" + balance.get() + "}");
+        this.webTestClient.get().uri("/account/1").header(HttpHeaders.IF_NONE_MATCH, etag).exchange()
+                .expectStatus().isNotModified();
+        assertEquals(1, upstreamReads.get());
+        assertEquals(1.0, this.meterRegistry.counter("gateway.response.cache.requests",
+                "route", "ACCOUNT-SERVICE", "result", "not-modified").count());
+
+        // Only the numeric resource is cached, not /account/count and friends
+        this.webTestClient.get().uri("/account/count").exchange().expectStatus().isOk();
+        this.webTestClient.get().uri("/account/count").exchange().expectStatus().isOk();
+        assertEquals(3, upstreamReads.get());
+    }
+
+    @Test
+    void writesThroughTheGatewayEvictTheResource() {
+        this.webTestClient.get().uri("/account/2").exchange().expectStatus().isOk();
+        this.webTestClient.post().uri("/account/2/credit?amount=5").exchange().expectStatus().isOk();
+
+        this.webTestClient.get().uri("/account/2").exchange()
+                .expectHeader().valueEquals("X-Cache", "MISS")
+                .expectBody(String.class).isEqualTo("{\"id\":2,\"balance\":" + balance.get() + "}");
+        assertEquals(2, upstreamReads.get());
+    }
+
+    @Test
+    void transferEvictsEveryAccountOfTheRoute() {
+        this.webTestClient.get().uri("/account/3").exchange().expectStatus().isOk();
+        this.webTestClient.get().uri("/account/4").exchange().expectStatus().isOk();
+        this.webTestClient.post().uri("/account/transfer").exchange().expectStatus().isOk();
+
+        this.webTestClient.get().uri("/account/3").exchange().expectHeader().valueEquals("X-Cache", "MISS");
+        this.webTestClient.get().uri("/account/4").exchange().expectHeader().valueEquals("X-Cache", "MISS");
+        assertEquals(4, upstreamReads.get());
+    }
+
+    @Test
+    void chunkedBodyOverTheEntryLimitIsPassedThroughUncached() {
+        String large = this.webTestClient.get().uri("/account/9").exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult().getResponseBody();
+        assertEquals(100, large.length());
+        this.webTestClient.get().uri("/account/9").exchange().expectHeader().valueEquals("X-Cache", "MISS");
+        assertEquals(2, upstreamReads.get());
+    }
+
+    private static HttpServer startUpstream() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/account", exchange -> {
+                String path = exchange.getRequestURI().getPath();
+                String body;
+                if (exchange.getRequestMethod().equals("POST")) {
+                    body = "{\"balance\":" + balance.addAndGet(5) + "}";
+                } else {
+                    upstreamReads.incrementAndGet();
+                    body = path.equals("/account/count") ? "42"
+                            : "{\"id\":" + path.substring("/account/".length()) + ",\"balance\":" + balance.get() + "}";
+                }
+                if (path.equals("/account/9")) {
+                    body = "x".repeat(100);
+                }
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                // /account/9 is sent chunked, without a Content-Length
+                exchange.sendResponseHeaders(200, path.equals("/account/9") ? 0 : bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.priti.apiGateway.loadbalancer;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Three local stub instances per service behind lb:// routes, with one misbehaving instance each
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "eureka.client.enabled=false")
+class LatencyAwareLoadBalancerSimulationTest {
+    private static final int REQUESTS = 300;
+    private static final int CONCURRENCY = 8;
+    private static final List<StubInstance> accountInstances = List.of(new StubInstance(150, 200), new StubInstance(5, 200), new StubInstance(5, 200));
+    private static final List<StubInstance> customerInstances = List.of(new StubInstance(0, 500), new StubInstance(5, 200), new StubInstance(5, 200));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private InstanceStatsRegistry instanceStatsRegistry;
+
+    @DynamicPropertySource
+    static void routeToStubs(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.gateway.routes[0].id", () -> "ACCOUNT-SERVICE");
+        registry.add("spring.cloud.gateway.routes[0].uri", () -> "lb://ACCOUNT-SERVICE");
+        registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/account/**");
+        registry.add("spring.cloud.gateway.routes[1].id", () -> "CUSTOMER-SERVICE");
+        registry.add("spring.cloud.gateway.routes[1].uri", () -> "lb://CUSTOMER-SERVICE");
+        registry.add("spring.cloud.gateway.routes[1].predicates[0]", () -> "Path=/customer/**");
+        for (int i = 0; i < 3; i++) {
+            String account = accountInstances.get(i).uri();
+            String customer = customerInstances.get(i).uri();
+            registry.add("spring.cloud.discovery.client.simple.instances.ACCOUNT-SERVICE[" + i + "].uri", () -> account);
+            registry.add("spring.cloud.discovery.client.simple.instances.CUSTOMER-SERVICE[" + i + "].uri", () -> customer);
+        }
+    }
+
+    @AfterAll
+    static void stopStubs() {
+        accountInstances.forEach(StubInstance::stop);
+        customerInstances.forEach(StubInstance::stop);
+    }
+
+    @Test
+    void slowInstanceGetsFarLessThanItsRoundRobinShare() {
+        int before = accountInstances.get(0).calls.get();
+        send("/account/1");
+        // Round robin would send it a third of the requests
+        int calls = accountInstances.get(0).calls.get() - before;
+        assertTrue(calls < REQUESTS * 0.15, "slow instance got " + calls);
+    }
+
+    @Test
+    void cancelledExchangesAreNoLongerInFlight() throws InterruptedException {
+        WebClient client = WebClient.create("http://localhost:" + this.port);
+        // The client gives up before the slow instance answers, so those exchanges are cancelled
+        Flux.range(0, 50)
+                .flatMap(i -> client.get().uri("/account/2").retrieve().toBodilessEntity()
+                        .timeout(Duration.ofMillis(60)).onErrorResume(e -> Mono.empty()), CONCURRENCY)
+                .blockLast();
+        Thread.sleep(500);
+        for (StubInstance instance : accountInstances) {
+            assertEquals(0, this.instanceStatsRegistry.outstanding(
+                    new DefaultServiceInstance(null, "ACCOUNT-SERVICE", "localhost", instance.port(), false)));
+        }
+    }
+
+    @Test
+    void failingInstanceIsEjected() {
+        send("/customer/1");
+        assertTrue(customerInstances.get(0).calls.get() < REQUESTS * 0.1, "failing instance got " + customerInstances.get(0).calls.get());
+    }
+
+    private void send(String uri) {
+        WebClient client = WebClient.create("http://localhost:" + this.port);
+        Flux.range(0, REQUESTS)
+                .flatMap(i -> client.get().uri(uri).exchangeToMono(response -> response.toBodilessEntity()), CONCURRENCY)
+                .blockLast();
+    }
+
+    private static class StubInstance {
+        private final HttpServer server;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        StubInstance(long delayMillis, int status) {
+            try {
+                this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 64);
+                this.server.setExecutor(Executors.newCachedThreadPool());
+                this.server.createContext("/", exchange -> {
+                    this.calls.incrementAndGet();
+                    try {
+                        Thread.sleep(delayMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    byte[] bytes = "{}".getBytes(StandardCharsets.UTF_8);
+                    exchange.getResponseHeaders().set("Content-Type", "application/json");
+                    exchange.sendResponseHeaders(status, bytes.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(bytes);
+                    }
+                });
+                this.server.start();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        String uri() {
+            return "http://localhost:" + port();
+        }
+
+        int port() {
+            return this.server.getAddress().getPort();
+        }
+
+        void stop() {
+            this.server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.priti.customerService.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.priti.customerService.model.Account;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+// customerId -> accounts, invalidated by ACCOUNT-SERVICE on account writes and bounded by size/TTL.
+// Loads run on the caller's thread but outside the map's bin lock: a synchronous Caffeine load calls the
+// loader inside ConcurrentHashMap.compute, which would pin a virtual thread to its carrier for the whole
+// Feign call. Concurrent readers of the same customer wait on the in-flight future instead.
+@Component
+public class CustomerAccountsCache {
+    private final AsyncCache<Long, List<Account>> cache;
+
+    public CustomerAccountsCache(@Value("${customer.accounts-cache.max-size:100000}") long maxSize,
+                                 @Value("${customer.accounts-cache.ttl:5m}") Duration ttl,
+                                 MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "customerAccounts");
+    }
+
+    public List<Account> get(Long customerId, Function<Long, List<Account>> loader) {
+        CompletableFuture<List<Account>> loading = new CompletableFuture<>();
+        CompletableFuture<List<Account>> cached = this.cache.get(customerId, (id, executor) -> loading);
+        if (cached == loading) {
+            try {
+                loading.complete(loader.apply(customerId));
+            } catch (Throwable e) {
+                // Failed futures are dropped by the cache, so the next read retries. Anything thrown, Errors included,
+                // has to complete the future or every reader waiting on it hangs.
+                loading.completeExceptionally(e);
+            }
+        }
+        return join(cached);
+    }
+
+    public Map<Long, List<Account>> getAll(Collection<Long> customerIds,
+                                           Function<List<Long>, Map<Long, List<Account>>> batchLoader) {
+        return join(this.cache.getAll(customerIds, (missing, executor) -> {
+            try {
+                Map<Long, List<Account>> loaded = new HashMap<>(batchLoader.apply(List.copyOf(missing)));
+                // Customers without accounts are cached too, otherwise they would miss on every read
+                missing.forEach(customerId -> loaded.putIfAbsent(customerId, List.of()));
+                return CompletableFuture.completedFuture(loaded);
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }));
+    }
+
+    public void evict(Long customerId) {
+        this.cache.synchronous().invalidate(customerId);
+    }
+
+    public void evictAll() {
+        this.cache.synchronous().invalidateAll();
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // Callers handle the loader's own exceptions (FeignException etc.), not the wrapper
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.priti.customerService.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+@Slf4j
+public class AccountEnrichmentConfig {
+    @Value("${customer.enrichment.virtual-threads:true}")
+    private boolean virtualThreads;
+
+    @Value("${customer.enrichment.max-concurrency:16}")
+    private int maxConcurrency;
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService accountEnrichmentExecutor() {
+        if (virtualThreads) {
+            try {
+                // Looked up reflectively so the service still builds and runs on Java 17
+                ExecutorService executor = (ExecutorService) Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+                log.info("Account enrichment runs on virtual threads");
+                return executor;
+            } catch (ReflectiveOperationException e) {
+                log.info("Virtual threads not available on Java {}, using a fixed pool of {} threads",
+                        Runtime.version().feature(), maxConcurrency);
+            }
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "account-enrichment-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(maxConcurrency, threadFactory);
+    }
+}
@@ -0,0 +1,44 @@
+package com.priti.customerService.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+import static com.priti.customerService.model.Customer.ID_ALLOCATION_SIZE;
+import static com.priti.customerService.model.Customer.ID_GENERATOR_TABLE;
+
+// Moves the pooled id generator past ids handed out by the old IDENTITY column, before the web server accepts requests
+@Component
+@Slf4j
+public class IdGeneratorAligner implements SmartInitializingSingleton {
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdGeneratorAligner(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long maxId = this.jdbcTemplate.queryForObject("select coalesce(max(id), 0) from customer", Long.class);
+        long alignedValue = maxId + ID_ALLOCATION_SIZE + 1;
+        List<Long> nextValues = this.jdbcTemplate.queryForList(
+                "select next_val from " + ID_GENERATOR_TABLE + " where sequence_name = 'customer'", Long.class);
+        if (nextValues.isEmpty()) {
+            try {
+                this.jdbcTemplate.update("insert into " + ID_GENERATOR_TABLE + " (sequence_name, next_val) values ('customer', ?)",
+                        alignedValue);
+                log.info("Initialized customer id generator at {}", alignedValue);
+            } catch (DuplicateKeyException e) {
+                // Another instance initialized it first
+            }
+        } else if (nextValues.get(0) <= maxId) {
+            this.jdbcTemplate.update("update " + ID_GENERATOR_TABLE + " set next_val = ? where sequence_name = 'customer'",
+                    alignedValue);
+            log.info("Moved customer id generator from {} to {}", nextValues.get(0), alignedValue);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.priti.customerService.config;
+
+import com.priti.customerService.loadbalancer.InstanceStatsRegistry;
+import com.priti.customerService.loadbalancer.LatencyAwareLoadBalancerConfiguration;
+import com.priti.customerService.loadbalancer.LatencyAwareLoadBalancerLifecycle;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Replaces round robin with the latency-aware balancer for the Feign clients (ACCOUNT-SERVICE);
+// off with loadbalancer.latency-aware.enabled=false
+@Configuration
+@ConditionalOnProperty(name = "loadbalancer.latency-aware.enabled", havingValue = "true", matchIfMissing = true)
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+    @Value("${loadbalancer.latency-aware.ewma-alpha:0.3}")
+    private double ewmaAlpha;
+
+    @Value("${loadbalancer.latency-aware.failures-to-eject:5}")
+    private int failuresToEject;
+
+    @Value("${loadbalancer.latency-aware.ejection-time:30s}")
+    private Duration ejectionTime;
+
+    @Value("${loadbalancer.latency-aware.slow-start:30s}")
+    private Duration slowStart;
+
+    @Bean
+    public InstanceStatsRegistry instanceStatsRegistry() {
+        return new InstanceStatsRegistry(ewmaAlpha, failuresToEject, ejectionTime, slowStart);
+    }
+
+    @Bean
+    public LatencyAwareLoadBalancerLifecycle latencyAwareLoadBalancerLifecycle(InstanceStatsRegistry instanceStatsRegistry) {
+        return new LatencyAwareLoadBalancerLifecycle(instanceStatsRegistry);
+    }
+}
@@ -0,0 +1,23 @@
+package com.priti.customerService.config;
+
+import com.priti.customerService.datasource.ReadYourWrites;
+import com.priti.customerService.datasource.ReadYourWritesForwarding;
+import feign.RequestInterceptor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+
+// Passes the client's primary-until cookie on to ACCOUNT-SERVICE, so a read made on behalf of a client that just
+// wrote through ACCOUNT-SERVICE is pinned to its primary as well
+@Configuration
+public class ReadYourWritesForwardingConfig {
+    @Bean
+    public RequestInterceptor readYourWritesCookieForwarder() {
+        return template -> {
+            String pinnedUntil = ReadYourWritesForwarding.cookieValue();
+            if (pinnedUntil != null) {
+                template.header(HttpHeaders.COOKIE, ReadYourWrites.COOKIE_NAME + "=" + pinnedUntil);
+            }
+        };
+    }
+}
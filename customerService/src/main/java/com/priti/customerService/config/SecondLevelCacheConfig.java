@@ -0,0 +1,71 @@
+package com.priti.customerService.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.priti.customerService.model.Customer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+// Hibernate second-level cache for Customer entities on a local, bounded Caffeine JCache. A region that is not
+// created here fails startup instead of silently becoming an unbounded cache.
+@Configuration
+public class SecondLevelCacheConfig {
+    @Value("${customer.cache.customer.max-size:100000}")
+    private long customerMaxSize;
+
+    @Value("${customer.cache.customer.ttl:10m}")
+    private Duration customerTtl;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager() {
+        // One manager per application context, so contexts with different settings never share regions
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("customer-l2-" + UUID.randomUUID()), getClass().getClassLoader());
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Hibernate caches immutable disassembled state, so copying entries on every access would only cost
+        configuration.setStoreByValue(false);
+        configuration.setMaximumSize(OptionalLong.of(customerMaxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(customerTtl.toNanos()));
+        cacheManager.createCache(Customer.CACHE_REGION, configuration);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    // Hit ratio of the region, next to the hit/miss counters bound from Hibernate's statistics
+    @Bean
+    public MeterBinder secondLevelCacheHitRatio(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> Gauge.builder("hibernate.second.level.cache.hit.ratio", statistics, s -> {
+                    CacheRegionStatistics stats = s.getDomainDataRegionStatistics(Customer.CACHE_REGION);
+                    long requests = stats == null ? 0 : stats.getHitCount() + stats.getMissCount();
+                    return requests == 0 ? Double.NaN : (double) stats.getHitCount() / requests;
+                })
+                .tag("region", Customer.CACHE_REGION)
+                .register(registry);
+    }
+}
@@ -0,0 +1,31 @@
+package com.priti.customerService.controller;
+
+import com.priti.customerService.cache.CustomerAccountsCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Invalidation hooks called by ACCOUNT-SERVICE when a customer's accounts change; under /admin, which the gateway
+// does not route
+@RestController
+@RequestMapping("/admin/customer/cache/accounts")
+public class AccountsCacheController {
+    @Autowired
+    private CustomerAccountsCache customerAccountsCache;
+
+    @DeleteMapping("/{customerId}")
+    public void evictAccountsOfCustomer(@PathVariable Long customerId) {
+        customerAccountsCache.evict(customerId);
+    }
+
+    @PostMapping("/evict")
+    public void evictAccountsOfCustomers(@RequestBody List<Long> customerIds) {
+        customerIds.forEach(customerAccountsCache::evict);
+    }
+
+    @DeleteMapping
+    public void evictAllAccounts() {
+        customerAccountsCache.evictAll();
+    }
+}
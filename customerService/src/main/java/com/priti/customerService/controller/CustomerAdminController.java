@@ -0,0 +1,24 @@
+package com.priti.customerService.controller;
+
+import com.priti.customerService.dto.BulkDeleteResponse;
+import com.priti.customerService.service.CustomerAdminService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+// Outside /customer/** on purpose: the gateway doesn't route these, only services reaching us directly can
+@RestController
+@RequestMapping("/admin/customer")
+public class CustomerAdminController {
+    @Autowired
+    private CustomerAdminService customerAdminService;
+
+    @DeleteMapping
+    public BulkDeleteResponse deleteCustomersInRange(@RequestParam Long fromId, @RequestParam Long toId) {
+        return this.customerAdminService.deleteCustomersInRange(fromId, toId);
+    }
+
+    @DeleteMapping("/all")
+    public BulkDeleteResponse deleteAllCustomers() {
+        return this.customerAdminService.deleteAllCustomers();
+    }
+}
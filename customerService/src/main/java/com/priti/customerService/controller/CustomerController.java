@@ -1,31 +1,90 @@
 package com.priti.customerService.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.priti.customerService.dto.BulkCreateResponse;
+import com.priti.customerService.dto.CursorPage;
+import com.priti.customerService.idempotency.IdempotencyStore;
 import com.priti.customerService.model.Customer;
 import com.priti.customerService.service.CustomerService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
 @RequestMapping("/customer")
 public class CustomerController {
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     @Autowired
     private CustomerService customerService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
     @GetMapping
     public List<Customer> getAllCustomers() {
         return customerService.getAllCustomers();
     }
 
+    @GetMapping("/count")
+    public long countCustomers() {
+        return this.customerService.countCustomers();
+    }
+
+    @GetMapping("/page")
+    public CursorPage<Customer> getCustomersPage(@RequestParam(defaultValue = "0") Long afterId,
+                                                 @RequestParam(defaultValue = "500") int size,
+                                                 @RequestParam(defaultValue = "true") boolean withAccounts) {
+        return customerService.getCustomersPage(afterId, size, withAccounts);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamCustomers(@RequestParam(defaultValue = "true") boolean withAccounts) {
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter writer = objectMapper.writer()
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .withRootValueSeparator("\n")
+                    .writeValues(out)) {
+                customerService.streamAllCustomers(withAccounts, customer -> {
+                    try {
+                        writer.write(customer);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @GetMapping("/{id}")
     public Customer getCustomerById(@PathVariable Long id) {
         return customerService.getCustomerById(id);
     }
 
     @PostMapping
-    public Customer createCustomer(@RequestBody Customer customer) {
-        return customerService.createCustomer(customer);
+    public Customer createCustomer(@RequestBody Customer customer,
+                                   @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return idempotencyStore.execute("POST", "/customer", idempotencyKey, customer,
+                () -> customerService.createCustomer(customer));
+    }
+
+    @PostMapping("/bulk")
+    public BulkCreateResponse createCustomers(@RequestBody List<Customer> customers,
+                                              @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return idempotencyStore.execute("POST", "/customer/bulk", idempotencyKey, customers,
+                () -> customerService.createCustomers(customers));
     }
 
     @PutMapping("/{id}")
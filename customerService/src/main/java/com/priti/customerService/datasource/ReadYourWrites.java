@@ -0,0 +1,51 @@
+package com.priti.customerService.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+// Keeps reads on the primary for a window after a write, so a client never reads older data than it just wrote.
+// Within a request the pin is a thread-local; across requests it travels as a cookie holding the pin's expiry.
+public final class ReadYourWrites {
+    public static final String COOKIE_NAME = "primary-until";
+
+    private static final ThreadLocal<Long> PINNED_UNTIL = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> WROTE = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static boolean isPinnedToPrimary() {
+        Long pinnedUntil = PINNED_UNTIL.get();
+        return Boolean.TRUE.equals(WROTE.get()) || (pinnedUntil != null && pinnedUntil > System.currentTimeMillis());
+    }
+
+    // Only request threads are pinned; schedulers and workers have no client to be consistent for
+    static void recordWrite(long windowMillis) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)
+                || Boolean.TRUE.equals(WROTE.get())) {
+            return;
+        }
+        WROTE.set(Boolean.TRUE);
+        HttpServletResponse response = attributes.getResponse();
+        if (response != null && !response.isCommitted()) {
+            long until = System.currentTimeMillis() + windowMillis;
+            Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(until));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (windowMillis + 999) / 1000));
+            response.addCookie(cookie);
+        }
+    }
+
+    static void begin(Long pinnedUntil) {
+        PINNED_UNTIL.set(pinnedUntil);
+        WROTE.remove();
+    }
+
+    static void end() {
+        PINNED_UNTIL.remove();
+        WROTE.remove();
+    }
+}
@@ -0,0 +1,53 @@
+package com.priti.customerService.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.function.Supplier;
+
+// The client's primary-until cookie as a plain value, for forwarding on calls to ACCOUNT-SERVICE. Worker threads
+// are handed the value rather than the request, which Tomcat recycles once the response is written.
+public final class ReadYourWritesForwarding {
+    private static final ThreadLocal<String> CARRIED = new ThreadLocal<>();
+
+    private ReadYourWritesForwarding() {
+    }
+
+    public static String cookieValue() {
+        String carried = CARRIED.get();
+        if (carried != null) {
+            return carried;
+        }
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        if (request.getCookies() == null) {
+            return null;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (ReadYourWrites.COOKIE_NAME.equals(cookie.getName())) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+
+    // Reads the value on the calling thread and makes it current for the call wherever it runs
+    public static <T> Supplier<T> carry(Supplier<T> call) {
+        String value = cookieValue();
+        if (value == null) {
+            return call;
+        }
+        return () -> {
+            CARRIED.set(value);
+            try {
+                return call.get();
+            } finally {
+                CARRIED.remove();
+            }
+        };
+    }
+}
@@ -0,0 +1,86 @@
+package com.priti.customerService.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// What the balancer knows about one service instance: calls in flight, EWMA latency of successful calls,
+// consecutive failures, and when it is ejected until or has been warming up since
+class InstanceStats {
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    // Guarded by this
+    private double ewmaNanos;
+    private int consecutiveFailures;
+    private int ejections;
+    private long ejectedUntil;
+    private long warmingSince;
+    private boolean listed;
+    private long lastSeen;
+
+    int outstanding() {
+        return this.outstanding.get();
+    }
+
+    void started() {
+        this.outstanding.incrementAndGet();
+    }
+
+    // A call that ended without an outcome (cancelled): no longer in flight, but no latency sample or failure either
+    void abandoned() {
+        this.outstanding.decrementAndGet();
+    }
+
+    synchronized double ewmaNanos() {
+        return this.ewmaNanos;
+    }
+
+    // An instance first listed, or listed again after a gap (restarted, re-registered), starts over and warms up
+    synchronized void seen(long now, long forgetAfterNanos) {
+        if (!this.listed || now - this.lastSeen > forgetAfterNanos) {
+            this.ewmaNanos = 0;
+            this.consecutiveFailures = 0;
+            this.ejections = 0;
+            this.ejectedUntil = now;
+            this.warmingSince = now;
+            this.listed = true;
+        }
+        this.lastSeen = now;
+    }
+
+    // Not in any instance list for that long: the instance is gone and its stats can be dropped
+    synchronized boolean isForgotten(long now, long forgetAfterNanos) {
+        return this.listed && now - this.lastSeen > forgetAfterNanos;
+    }
+
+    synchronized boolean isEjected(long now) {
+        return now - this.ejectedUntil < 0;
+    }
+
+    // From 0.1 right after it appears or returns from ejection up to 1 once the slow-start window has passed
+    synchronized double weight(long now, long slowStartNanos) {
+        if (slowStartNanos <= 0) {
+            return 1.0;
+        }
+        return Math.max(0.1, Math.min(1.0, (double) (now - this.warmingSince) / slowStartNanos));
+    }
+
+    void completed(long rttNanos, boolean failure, long now, double ewmaAlpha, int failuresToEject, long ejectionNanos) {
+        this.outstanding.decrementAndGet();
+        synchronized (this) {
+            if (!failure) {
+                this.consecutiveFailures = 0;
+                this.ejections = 0;
+                if (rttNanos > 0) {
+                    this.ewmaNanos = this.ewmaNanos == 0 ? rttNanos : this.ewmaNanos + ewmaAlpha * (rttNanos - this.ewmaNanos);
+                }
+                return;
+            }
+            if (++this.consecutiveFailures >= failuresToEject && !isEjected(now)) {
+                // Each ejection in a row without a success in between lasts longer, up to 10 times the base
+                this.ejections = Math.min(this.ejections + 1, 10);
+                this.ejectedUntil = now + ejectionNanos * this.ejections;
+                this.warmingSince = this.ejectedUntil;
+                this.consecutiveFailures = 0;
+            }
+        }
+    }
+}
@@ -1,8 +1,36 @@
 package com.priti.customerService.repository;
 
 import com.priti.customerService.model.Customer;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+// Reads run in read-only transactions, so they can be served by a replica
+@Transactional(readOnly = true)
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
+    // With useCursorFetch=true on the JDBC url, MySQL Connector/J reads through a server-side cursor in batches of this size
+    String STREAMING_FETCH_SIZE = "1000";
+
     boolean existsByEmail(String email);
+
+    @Query("select c.email from Customer c where c.email in :emails")
+    List<String> findExistingEmails(Collection<String> emails);
+
+    List<Customer> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    @Query("select c.id from Customer c where c.id > :afterId and c.id <= :toId order by c.id")
+    List<Long> findIdsBetween(Long afterId, Long toId, Limit limit);
+
+    @Query("select c from Customer c order by c.id")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE))
+    Stream<Customer> streamAll();
 }
@@ -4,12 +4,18 @@ import com.priti.customerService.model.Account;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
 import java.util.List;
+import java.util.Map;
 
 //@FeignClient(url = "http://localhost:8081", value = "Account-Client")
 @FeignClient(name = "ACCOUNT-SERVICE")
 public interface AccountClient {
     @GetMapping("/account/customer/{customerId}")
     List<Account> getAccountsOfCustomer(@PathVariable("customerId") Long id);
+
+    @PostMapping("/account/customer/batch")
+    Map<Long, List<Account>> getAccountsOfCustomers(@RequestBody List<Long> customerIds);
 }
@@ -0,0 +1,8 @@
+package com.priti.customerService.service;
+
+import com.priti.customerService.dto.BulkDeleteResponse;
+
+public interface CustomerAdminService {
+    BulkDeleteResponse deleteCustomersInRange(Long fromId, Long toId);
+    BulkDeleteResponse deleteAllCustomers();
+}
@@ -1,13 +1,20 @@
 package com.priti.customerService.service;
 
+import com.priti.customerService.dto.BulkCreateResponse;
+import com.priti.customerService.dto.CursorPage;
 import com.priti.customerService.model.Customer;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface CustomerService {
     Customer createCustomer(Customer customer);
+    BulkCreateResponse createCustomers(List<Customer> customers);
     Customer getCustomerById(Long id);
     List<Customer> getAllCustomers();
+    long countCustomers();
+    CursorPage<Customer> getCustomersPage(Long afterId, int size, boolean withAccounts);
+    void streamAllCustomers(boolean withAccounts, Consumer<Customer> consumer);
     Customer updateCustomer(Long id, Customer customer);
     void deleteCustomer(Long id);
 }
@@ -0,0 +1,76 @@
+package com.priti.customerService.service.impl;
+
+import com.priti.customerService.cache.CustomerAccountsCache;
+import com.priti.customerService.dto.BulkDeleteResponse;
+import com.priti.customerService.model.Customer;
+import com.priti.customerService.repository.CustomerRepository;
+import com.priti.customerService.service.CustomerAdminService;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+// Set-based deletes for resetting environments: one short transaction per chunk, or a truncate for a full reset.
+// Accounts are owned by ACCOUNT-SERVICE and are not touched here.
+@Service
+@Slf4j
+public class CustomerAdminServiceImpl implements CustomerAdminService {
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CustomerAccountsCache customerAccountsCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${customer.admin.delete-chunk-size:5000}")
+    private int deleteChunkSize;
+
+    @Override
+    public BulkDeleteResponse deleteCustomersInRange(Long fromId, Long toId) {
+        if (fromId == null || toId == null || fromId > toId) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "fromId must not be greater than toId");
+        }
+        long deleted = 0;
+        long afterId = fromId - 1;
+        List<Long> ids;
+        do {
+            ids = this.customerRepository.findIdsBetween(afterId, toId, Limit.of(deleteChunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            List<Long> chunk = ids;
+            this.transactionTemplate.executeWithoutResult(status -> this.customerRepository.deleteAllByIdInBatch(chunk));
+            chunk.forEach(this.customerAccountsCache::evict);
+            deleted += chunk.size();
+            afterId = chunk.get(chunk.size() - 1);
+        } while (ids.size() == deleteChunkSize);
+        return new BulkDeleteResponse(deleted);
+    }
+
+    @Override
+    public BulkDeleteResponse deleteAllCustomers() {
+        long count = this.customerRepository.count();
+        this.jdbcTemplate.execute("truncate table customer");
+        // The truncate bypasses Hibernate, so the second-level cache has to be told
+        this.entityManagerFactory.getCache().evict(Customer.class);
+        this.customerAccountsCache.evictAll();
+        log.info("Truncated customer table ({} customers)", count);
+        return new BulkDeleteResponse(count);
+    }
+}
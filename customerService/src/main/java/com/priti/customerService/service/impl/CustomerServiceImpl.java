@@ -1,43 +1,193 @@
 package com.priti.customerService.service.impl;
 
+import com.priti.customerService.cache.CustomerAccountsCache;
+import com.priti.customerService.dto.BulkCreateResponse;
+import com.priti.customerService.dto.BulkCreateResult;
+import com.priti.customerService.dto.CursorPage;
+import com.priti.customerService.model.Account;
 import com.priti.customerService.model.Customer;
+import com.priti.customerService.datasource.ReadYourWritesForwarding;
 import com.priti.customerService.repository.CustomerRepository;
 import com.priti.customerService.service.AccountClient;
 import com.priti.customerService.service.CustomerService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
+@Slf4j
 public class CustomerServiceImpl implements CustomerService {
+    private static final int MAX_PAGE_SIZE = 1000;
+
     @Autowired
     private AccountClient accountClient;
 
     @Autowired
     CustomerRepository customerRepository;
 
+    @Autowired
+    private CustomerAccountsCache customerAccountsCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    @Qualifier("accountEnrichmentExecutor")
+    private ExecutorService enrichmentExecutor;
+
+    @Value("${customer.account-batch-size:500}")
+    private int accountBatchSize;
+
+    @Value("${customer.bulk.max-size:10000}")
+    private int bulkMaxSize;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}")
+    private int jdbcBatchSize;
+
+    @Value("${customer.enrichment.mode:sequential}")
+    private String enrichmentMode;
+
+    @Value("${customer.enrichment.call-timeout:2s}")
+    private Duration enrichmentCallTimeout;
+
+    private final Semaphore enrichmentPermits;
+
+    public CustomerServiceImpl(@Value("${customer.enrichment.max-concurrency:16}") int maxConcurrency) {
+        this.enrichmentPermits = new Semaphore(maxConcurrency);
+    }
+
     @Override
     public Customer createCustomer(Customer customer) {
         return this.customerRepository.save(customer);
     }
     @Override
+    @Transactional
+    public BulkCreateResponse createCustomers(List<Customer> customers) {
+        if (customers.size() > bulkMaxSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + bulkMaxSize + " customers per request");
+        }
+        // Reject duplicate emails up front so one bad row doesn't roll back the whole batch
+        Set<String> existingEmails = new HashSet<>();
+        List<String> emails = customers.stream().map(Customer::getEmail).filter(email -> email != null).toList();
+        for (int from = 0; from < emails.size(); from += jdbcBatchSize) {
+            existingEmails.addAll(this.customerRepository.findExistingEmails(
+                    emails.subList(from, Math.min(from + jdbcBatchSize, emails.size()))));
+        }
+        List<BulkCreateResult> results = new ArrayList<>(customers.size());
+        List<Customer> chunk = new ArrayList<>(jdbcBatchSize);
+        List<Integer> chunkIndexes = new ArrayList<>(jdbcBatchSize);
+        for (int i = 0; i < customers.size(); i++) {
+            Customer customer = customers.get(i);
+            if (customer.getEmail() == null) {
+                results.add(new BulkCreateResult(i, null, "Email is required"));
+            } else if (!existingEmails.add(customer.getEmail())) {
+                results.add(new BulkCreateResult(i, null, "Email already exists"));
+            } else {
+                customer.setId(null);
+                chunk.add(customer);
+                chunkIndexes.add(i);
+                if (chunk.size() == jdbcBatchSize) {
+                    saveChunk(chunk, chunkIndexes, results);
+                }
+            }
+        }
+        saveChunk(chunk, chunkIndexes, results);
+        results.sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        long failed = results.stream().filter(result -> result.getError() != null).count();
+        return new BulkCreateResponse(customers.size(), (int) (customers.size() - failed), (int) failed, results);
+    }
+
+    // One JDBC batch per chunk, then drop the chunk from the persistence context
+    private void saveChunk(List<Customer> chunk, List<Integer> chunkIndexes, List<BulkCreateResult> results) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        this.customerRepository.saveAll(chunk);
+        this.entityManager.flush();
+        this.entityManager.clear();
+        for (int i = 0; i < chunk.size(); i++) {
+            results.add(new BulkCreateResult(chunkIndexes.get(i), chunk.get(i).getId(), null));
+        }
+        chunk.clear();
+        chunkIndexes.clear();
+    }
+    @Override
     public Customer getCustomerById(Long id) {
         //return this.customerRepository.findById(id).orElseThrow(() -> new RuntimeException("Customer not found"));
         Customer customer = this.customerRepository.findById(id).orElseThrow(() -> new RuntimeException("Customer not found"));
-        customer.setAccounts(this.accountClient.getAccountsOfCustomer(customer.getId()));
+        if (isConcurrentEnrichment()) {
+            // Same timeout and fallback as the list path: the customer is returned without accounts
+            List<Account> accounts = awaitEnrichment(enrichAsync(() ->
+                    this.customerAccountsCache.get(id, this.accountClient::getAccountsOfCustomer)), "customer " + id);
+            if (accounts != null) {
+                customer.setAccounts(accounts);
+            }
+        } else {
+            customer.setAccounts(this.customerAccountsCache.get(customer.getId(), this.accountClient::getAccountsOfCustomer));
+        }
         return customer;
     }
     @Override
     public List<Customer> getAllCustomers() {
         //return this.customerRepository.findAll();
         List<Customer> customers = this.customerRepository.findAll();
-        List<Customer> newCustomers = customers.stream().map(customer -> {
-            customer.setAccounts(this.accountClient.getAccountsOfCustomer(customer.getId()));
-            return customer;
-        }).collect(Collectors.toList());
-        return newCustomers;
+        enrichWithAccounts(customers);
+        return customers;
+    }
+    @Override
+    public long countCustomers() {
+        return this.customerRepository.count();
+    }
+
+    @Override
+    public CursorPage<Customer> getCustomersPage(Long afterId, int size, boolean withAccounts) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<Customer> customers = this.customerRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(pageSize));
+        if (withAccounts) {
+            enrichWithAccounts(customers);
+        }
+        Long nextCursor = customers.size() < pageSize ? null : customers.get(customers.size() - 1).getId();
+        return new CursorPage<>(customers, nextCursor);
+    }
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllCustomers(boolean withAccounts, Consumer<Customer> consumer) {
+        List<Customer> chunk = new ArrayList<>(accountBatchSize);
+        try (Stream<Customer> customers = this.customerRepository.streamAll()) {
+            customers.forEach(customer -> {
+                // Keep the persistence context empty so memory stays flat for any table size
+                this.entityManager.detach(customer);
+                chunk.add(customer);
+                if (chunk.size() == accountBatchSize) {
+                    emitChunk(chunk, withAccounts, consumer);
+                }
+            });
+        }
+        emitChunk(chunk, withAccounts, consumer);
     }
     @Override
     public Customer updateCustomer(Long id, Customer customer) {
@@ -54,5 +204,103 @@ public class CustomerServiceImpl implements CustomerService {
     @Override
     public void deleteCustomer(Long id) {
         this.customerRepository.deleteById(id);
+        this.customerAccountsCache.evict(id);
+    }
+
+    private void emitChunk(List<Customer> chunk, boolean withAccounts, Consumer<Customer> consumer) {
+        if (withAccounts) {
+            enrichWithAccounts(chunk);
+        }
+        chunk.forEach(consumer);
+        chunk.clear();
+    }
+
+    // One batch call per chunk of customers instead of one call per customer
+    private void enrichWithAccounts(List<Customer> customers) {
+        if (customers.isEmpty()) {
+            return;
+        }
+        List<List<Customer>> chunks = new ArrayList<>();
+        for (int from = 0; from < customers.size(); from += accountBatchSize) {
+            chunks.add(customers.subList(from, Math.min(from + accountBatchSize, customers.size())));
+        }
+        if (!isConcurrentEnrichment()) {
+            chunks.forEach(chunk -> applyAccounts(chunk, loadAccounts(chunk)));
+            return;
+        }
+        // Latency tracks the slowest chunk instead of the sum of all chunks. The tasks only load; the accounts are
+        // set here, so a call finishing after its timeout never touches a customer that was already returned.
+        List<CompletableFuture<Map<Long, List<Account>>>> futures = chunks.stream()
+                .map(chunk -> enrichAsync(() -> loadAccounts(chunk)))
+                .toList();
+        for (int i = 0; i < futures.size(); i++) {
+            Map<Long, List<Account>> accountsByCustomer =
+                    awaitEnrichment(futures.get(i), "chunk starting at customer " + chunks.get(i).get(0).getId());
+            if (accountsByCustomer != null) {
+                applyAccounts(chunks.get(i), accountsByCustomer);
+            }
+        }
+    }
+
+    private Map<Long, List<Account>> loadAccounts(List<Customer> chunk) {
+        List<Long> customerIds = chunk.stream().map(Customer::getId).toList();
+        return this.customerAccountsCache.getAll(customerIds, this.accountClient::getAccountsOfCustomers);
+    }
+
+    private void applyAccounts(List<Customer> chunk, Map<Long, List<Account>> accountsByCustomer) {
+        for (Customer customer : chunk) {
+            customer.setAccounts(accountsByCustomer.getOrDefault(customer.getId(), List.of()));
+        }
+    }
+
+    private boolean isConcurrentEnrichment() {
+        return "concurrent".equalsIgnoreCase(enrichmentMode);
+    }
+
+    // One deadline per call, set when it is submitted: time spent queued for a thread or a slot counts against it,
+    // so a listing waits at most the call timeout however many chunks are in line
+    private <T> CompletableFuture<T> enrichAsync(Supplier<T> call) {
+        long deadline = System.nanoTime() + enrichmentCallTimeout.toNanos();
+        CompletableFuture<T> result = new CompletableFuture<T>().orTimeout(enrichmentCallTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        // The worker gets the cookie value, not the caller's request, which may be recycled while a timed-out call runs on
+        Supplier<T> forwardingCall = ReadYourWritesForwarding.carry(call);
+        Future<?> task = this.enrichmentExecutor.submit(() -> {
+            try {
+                if (!this.enrichmentPermits.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    result.completeExceptionally(new TimeoutException("No enrichment slot before the deadline"));
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.completeExceptionally(new IllegalStateException("Interrupted while waiting for an enrichment slot", e));
+                return;
+            }
+            try {
+                if (!result.isDone()) {
+                    result.complete(forwardingCall.get());
+                }
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            } finally {
+                this.enrichmentPermits.release();
+            }
+        });
+        // A call that timed out is interrupted instead of being left to hold its slot
+        result.whenComplete((value, e) -> {
+            if (e instanceof TimeoutException) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    // Partial result: null when the call failed or timed out, and the customers keep accounts == null
+    private <T> T awaitEnrichment(CompletableFuture<T> future, Object target) {
+        try {
+            return future.join();
+        } catch (Exception e) {
+            log.warn("Account enrichment failed for {}, returning partial result: {}", target, e.getMessage());
+            return null;
+        }
     }
 }
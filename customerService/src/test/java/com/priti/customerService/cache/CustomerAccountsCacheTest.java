@@ -0,0 +1,104 @@
+package com.priti.customerService.cache;
+
+import com.priti.customerService.model.Customer;
+import com.priti.customerService.repository.CustomerRepository;
+import com.priti.customerService.service.AccountClient;
+import com.priti.customerService.service.CustomerService;
+import com.priti.customerService.service.StubAccountClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.convention.TestBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CustomerAccountsCacheTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerAccountsCache customerAccountsCache;
+
+    @TestBean(methodName = StubAccountClient.FACTORY)
+    private AccountClient stub;
+
+    private StubAccountClient accountClient;
+
+    @BeforeEach
+    void clear() {
+        accountClient = (StubAccountClient) stub;
+        customerRepository.deleteAll();
+        customerAccountsCache.evictAll();
+        accountClient.reset();
+    }
+
+    @Test
+    void repeatedReadsHitTheCacheUntilAccountServiceEvicts() throws Exception {
+        Long id = save("a").getId();
+        customerService.getCustomerById(id);
+        customerService.getCustomerById(id);
+        assertEquals(1, accountClient.singleCalls());
+
+        mockMvc.perform(delete("/admin/customer/cache/accounts/" + id)).andExpect(status().isOk());
+        customerService.getCustomerById(id);
+        assertEquals(2, accountClient.singleCalls());
+    }
+
+    @Test
+    void listingsOnlyFetchCustomersMissingFromTheCache() throws Exception {
+        Long first = save("b").getId();
+        Long second = save("c").getId();
+        customerService.getAllCustomers();
+        customerService.getAllCustomers();
+        assertEquals(1, accountClient.batchCalls().size());
+
+        mockMvc.perform(post("/admin/customer/cache/accounts/evict")
+                .contentType(MediaType.APPLICATION_JSON).content("[" + second + "]")).andExpect(status().isOk());
+        customerService.getAllCustomers();
+        assertEquals(List.of(second), accountClient.batchCalls().get(1));
+
+        mockMvc.perform(delete("/admin/customer/cache/accounts")).andExpect(status().isOk());
+        customerService.getAllCustomers();
+        assertEquals(List.of(first, second), accountClient.batchCalls().get(2).stream().sorted().toList());
+    }
+
+    @Test
+    void failedLoadsAreNotCached() {
+        Long id = save("d").getId();
+        accountClient.fail(id);
+        try {
+            customerService.getCustomerById(id);
+        } catch (IllegalStateException expected) {
+            // ACCOUNT-SERVICE down
+        }
+        accountClient.reset();
+        assertEquals(1, customerService.getCustomerById(id).getAccounts().size());
+        assertEquals(1, accountClient.singleCalls());
+    }
+
+    private Customer save(String name) {
+        Customer customer = new Customer();
+        customer.setName(name);
+        customer.setEmail(name + "-cache@example.com");
+        return customerRepository.save(customer);
+    }
+}
@@ -0,0 +1,127 @@
+package com.priti.customerService.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.SimpleObjectProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Closed-loop simulation on a virtual clock: a fixed number of callers, each sending its next ACCOUNT-SERVICE call
+// as soon as the previous one returns, against stub instances with a set latency and failure behaviour
+class LatencyAwareLoadBalancerSimulationTest {
+    private static final int CALLERS = 8;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final InstanceStatsRegistry registry = new InstanceStatsRegistry(0.3, 5, Duration.ofSeconds(30), Duration.ofSeconds(30), clock::get);
+    private final LatencyAwareLoadBalancer loadBalancer = new LatencyAwareLoadBalancer(
+            new SimpleObjectProvider<ServiceInstanceListSupplier>(null), registry);
+
+    @Test
+    void slowInstanceGetsFarLessThanItsRoundRobinShare() {
+        Map<ServiceInstance, Integer> calls = run(List.of(stub("slow", 100, false), stub("a", 10, false), stub("b", 10, false)), 3000);
+        assertTrue(share(calls, "slow") < 0.1, "slow instance share " + share(calls, "slow"));
+    }
+
+    @Test
+    void failingInstanceIsEjectedAfterConsecutiveFailures() {
+        Map<ServiceInstance, Integer> calls = run(List.of(stub("broken", 5, true), stub("a", 10, false), stub("b", 10, false)), 3000);
+        // Five failures in a row, plus what was already in flight, then nothing for the 30s ejection
+        assertTrue(calls.get(instance("broken")) <= 5 + CALLERS, "broken instance got " + calls.get(instance("broken")));
+    }
+
+    @Test
+    void newInstanceRampsUpOverSlowStart() {
+        List<Stub> stubs = new ArrayList<>(List.of(stub("a", 10, false), stub("b", 10, false)));
+        run(stubs, 10000);
+        this.clock.addAndGet(TimeUnit.SECONDS.toNanos(40));
+
+        stubs.add(stub("new", 10, false));
+        Map<ServiceInstance, Integer> warming = run(stubs, 3000);
+        assertTrue(share(warming, "new") < 0.15, "new instance share while warming " + share(warming, "new"));
+
+        this.clock.addAndGet(TimeUnit.SECONDS.toNanos(40));
+        Map<ServiceInstance, Integer> warm = run(stubs, 3000);
+        assertTrue(share(warm, "new") > 0.25, "new instance share once warm " + share(warm, "new"));
+    }
+
+    @Test
+    void cancelledCallsLeaveTheInFlightCount() {
+        ServiceInstance instance = instance("a");
+        this.loadBalancer.choose(List.of(instance, instance("b")));
+        this.registry.started(instance);
+        this.registry.started(instance);
+        this.registry.cancelled(instance);
+        this.registry.completed(instance, TimeUnit.MILLISECONDS.toNanos(10), false);
+        assertEquals(0, this.registry.outstanding(instance));
+    }
+
+    @Test
+    void instanceThatLeftTheListsIsDropped() {
+        ServiceInstance gone = instance("gone");
+        this.loadBalancer.choose(List.of(gone, instance("a")));
+        this.registry.started(gone);
+        assertEquals(1, this.registry.outstanding(gone));
+
+        this.clock.addAndGet(TimeUnit.MINUTES.toNanos(3));
+        this.loadBalancer.choose(List.of(instance("a"), instance("b")));
+        assertEquals(0, this.registry.outstanding(gone));
+    }
+
+    private Map<ServiceInstance, Integer> run(List<Stub> stubs, int requests) {
+        List<ServiceInstance> instances = stubs.stream().map(Stub::instance).toList();
+        Map<ServiceInstance, Stub> byInstance = new HashMap<>();
+        stubs.forEach(stub -> byInstance.put(stub.instance(), stub));
+        Map<ServiceInstance, Integer> calls = new HashMap<>();
+        instances.forEach(instance -> calls.put(instance, 0));
+        PriorityQueue<InFlightCall> inFlight = new PriorityQueue<>((a, b) -> Long.compare(a.doneAt(), b.doneAt()));
+        for (int sent = 0; sent < requests; sent++) {
+            if (inFlight.size() == CALLERS) {
+                InFlightCall done = inFlight.poll();
+                this.clock.set(done.doneAt());
+                this.registry.completed(done.instance(), done.doneAt() - done.startedAt(), byInstance.get(done.instance()).failing());
+            }
+            ServiceInstance instance = this.loadBalancer.choose(instances).getServer();
+            this.registry.started(instance);
+            calls.merge(instance, 1, Integer::sum);
+            long now = this.clock.get();
+            inFlight.add(new InFlightCall(instance, now, now + TimeUnit.MILLISECONDS.toNanos(byInstance.get(instance).latencyMillis())));
+        }
+        while (!inFlight.isEmpty()) {
+            InFlightCall done = inFlight.poll();
+            this.clock.set(done.doneAt());
+            this.registry.completed(done.instance(), done.doneAt() - done.startedAt(), byInstance.get(done.instance()).failing());
+        }
+        return calls;
+    }
+
+    private static double share(Map<ServiceInstance, Integer> calls, String id) {
+        int total = calls.values().stream().mapToInt(Integer::intValue).sum();
+        return (double) calls.get(instance(id)) / total;
+    }
+
+    private static Stub stub(String id, long latencyMillis, boolean failing) {
+        return new Stub(instance(id), latencyMillis, failing);
+    }
+
+    private static ServiceInstance instance(String id) {
+        return new DefaultServiceInstance(id, "ACCOUNT-SERVICE", id + ".local", 8081, false);
+    }
+
+    private record Stub(ServiceInstance instance, long latencyMillis, boolean failing) {
+    }
+
+    private record InFlightCall(ServiceInstance instance, long startedAt, long doneAt) {
+    }
+}
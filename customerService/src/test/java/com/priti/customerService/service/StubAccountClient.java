@@ -0,0 +1,89 @@
+package com.priti.customerService.service;
+
+import com.priti.customerService.model.Account;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Stands in for the Feign client: one account per customer, every call recorded, and chosen customers slowed down
+// or failing. Tests swap it in with @TestBean(methodName = FACTORY).
+public class StubAccountClient implements AccountClient {
+    public static final String FACTORY = "com.priti.customerService.service.StubAccountClient#create";
+
+    private final AtomicInteger singleCalls = new AtomicInteger();
+    private final List<List<Long>> batchCalls = new CopyOnWriteArrayList<>();
+    private final Map<Long, Duration> delays = new ConcurrentHashMap<>();
+    private final Set<Long> failing = ConcurrentHashMap.newKeySet();
+
+    public static AccountClient create() {
+        return new StubAccountClient();
+    }
+
+    @Override
+    public List<Account> getAccountsOfCustomer(Long id) {
+        this.singleCalls.incrementAndGet();
+        respond(List.of(id));
+        return List.of(account(id));
+    }
+
+    @Override
+    public Map<Long, List<Account>> getAccountsOfCustomers(List<Long> customerIds) {
+        this.batchCalls.add(List.copyOf(customerIds));
+        respond(customerIds);
+        Map<Long, List<Account>> accounts = new HashMap<>();
+        customerIds.forEach(id -> accounts.put(id, List.of(account(id))));
+        return accounts;
+    }
+
+    public void delay(Long customerId, Duration delay) {
+        this.delays.put(customerId, delay);
+    }
+
+    public void fail(Long customerId) {
+        this.failing.add(customerId);
+    }
+
+    public int singleCalls() {
+        return this.singleCalls.get();
+    }
+
+    public List<List<Long>> batchCalls() {
+        return this.batchCalls;
+    }
+
+    public void reset() {
+        this.singleCalls.set(0);
+        this.batchCalls.clear();
+        this.delays.clear();
+        this.failing.clear();
+    }
+
+    private void respond(List<Long> customerIds) {
+        if (customerIds.stream().anyMatch(this.failing::contains)) {
+            throw new IllegalStateException("ACCOUNT-SERVICE unavailable");
+        }
+        long delayMillis = customerIds.stream().map(id -> this.delays.getOrDefault(id, Duration.ZERO))
+                .mapToLong(Duration::toMillis).max().orElse(0);
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted", e);
+        }
+    }
+
+    private static Account account(Long customerId) {
+        Account account = new Account();
+        account.setId(customerId * 10);
+        account.setAccountNumber("ACC" + customerId);
+        account.setCustomerId(customerId);
+        return account;
+    }
+
+}
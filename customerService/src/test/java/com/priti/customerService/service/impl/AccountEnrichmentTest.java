@@ -0,0 +1,116 @@
+package com.priti.customerService.service.impl;
+
+import com.priti.customerService.model.Customer;
+import com.priti.customerService.repository.CustomerRepository;
+import com.priti.customerService.service.AccountClient;
+import com.priti.customerService.service.CustomerService;
+import com.priti.customerService.service.StubAccountClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.convention.TestBean;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"customer.account-batch-size=2", "customer.enrichment.mode=concurrent",
+        "customer.enrichment.max-concurrency=4", "customer.enrichment.call-timeout=500ms"})
+@ActiveProfiles("test")
+class AccountEnrichmentTest {
+    private static final Duration SLOW = Duration.ofMillis(300);
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @TestBean(methodName = StubAccountClient.FACTORY)
+    private AccountClient stub;
+
+    private StubAccountClient accountClient;
+
+    @BeforeEach
+    void clear() {
+        accountClient = (StubAccountClient) stub;
+        customerRepository.deleteAll();
+        accountClient.reset();
+    }
+
+    @Test
+    void listingFetchesAccountsInBatchesOfTheConfiguredSize() {
+        List<Customer> saved = save(5);
+        List<Customer> customers = customerService.getAllCustomers();
+        assertEquals(List.of(1, 2, 2), accountClient.batchCalls().stream().map(List::size).sorted().toList());
+        assertEquals(0, accountClient.singleCalls());
+        customers.forEach(customer -> assertEquals(customer.getId(), customer.getAccounts().get(0).getCustomerId()));
+        assertEquals(saved.size(), customers.size());
+    }
+
+    @Test
+    void chunksAreFetchedConcurrently() {
+        save(8).forEach(customer -> accountClient.delay(customer.getId(), SLOW));
+        long start = System.nanoTime();
+        List<Customer> customers = customerService.getAllCustomers();
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        // Four chunks one after another would take 1200ms
+        assertTrue(elapsedMillis < 900, "took " + elapsedMillis + "ms");
+        customers.forEach(customer -> assertNotNull(customer.getAccounts()));
+    }
+
+    @Test
+    void failedAndTimedOutChunksLeaveAPartialResult() {
+        List<Customer> saved = save(6);
+        accountClient.fail(saved.get(0).getId());
+        accountClient.delay(saved.get(2).getId(), Duration.ofSeconds(3));
+        long start = System.nanoTime();
+        List<Customer> customers = customerService.getAllCustomers();
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        assertTrue(elapsedMillis < 1500, "took " + elapsedMillis + "ms");
+        for (int i = 0; i < customers.size(); i++) {
+            if (i < 4) {
+                assertNull(customers.get(i).getAccounts(), "customer " + i);
+            } else {
+                assertNotNull(customers.get(i).getAccounts(), "customer " + i);
+            }
+        }
+    }
+
+    @Test
+    void timeQueuedForASlotCountsAgainstTheTimeout() {
+        // Six chunks, four slots: the last two only get a slot once the first four finish, too late to make the deadline
+        save(12).forEach(customer -> accountClient.delay(customer.getId(), SLOW));
+        long start = System.nanoTime();
+        List<Customer> customers = customerService.getAllCustomers();
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        assertTrue(elapsedMillis < 750, "took " + elapsedMillis + "ms");
+        assertEquals(8, customers.stream().filter(customer -> customer.getAccounts() != null).count());
+    }
+
+    @Test
+    void singleCustomerIsEnrichedWithinTheTimeout() {
+        Customer customer = save(1).get(0);
+        assertEquals(1, customerService.getCustomerById(customer.getId()).getAccounts().size());
+
+        Customer slow = save(1).get(0);
+        accountClient.delay(slow.getId(), Duration.ofSeconds(3));
+        assertNull(customerService.getCustomerById(slow.getId()).getAccounts());
+    }
+
+    private List<Customer> save(int count) {
+        return customerRepository.saveAll(IntStream.range(0, count).mapToObj(i -> {
+            Customer customer = new Customer();
+            customer.setName("Customer " + i);
+            customer.setEmail("enrichment-" + System.nanoTime() + "-" + i + "@example.com");
+            return customer;
+        }).toList());
+    }
+}
@@ -2,10 +2,14 @@ package com.priti.dataseederservice.client;
 
 import com.priti.dataseederservice.dto.AccountRequest;
 import com.priti.dataseederservice.dto.AccountResponse;
+import com.priti.dataseederservice.dto.BulkCreateResponse;
+import com.priti.dataseederservice.dto.BulkDeleteResponse;
+import com.priti.dataseederservice.dto.CursorPage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
@@ -14,11 +18,14 @@ import reactor.util.retry.Retry;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AccountServiceClient {
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final WebClient.Builder webClientBuilder;
     private final ReactiveCircuitBreaker accountServiceCircuitBreaker;
 
@@ -28,11 +35,17 @@ public class AccountServiceClient {
     @Value("${services.account-service.fallback-url:http://localhost:8081}")
     private String fallbackUrl;
 
+    @Value("${seeding.read-page-size:1000}")
+    private int pageSize;
+
     public Mono<AccountResponse> createAccount(AccountRequest accountRequest) {
         WebClient webClient = webClientBuilder.build();
+        // Generated once per logical create, so the retries below reuse it and are deduplicated server-side
+        String idempotencyKey = UUID.randomUUID().toString();
 
         return webClient.post()
                 .uri("http://" + serviceName + "/account")
+                .header(IDEMPOTENCY_KEY, idempotencyKey)
                 .bodyValue(accountRequest)
                 .retrieve()
                 .bodyToMono(AccountResponse.class)
@@ -43,21 +56,56 @@ public class AccountServiceClient {
     }
 
     public Flux<AccountResponse> createAccountsBatch(List<AccountRequest> accounts) {
-        return Flux.fromIterable(accounts)
-                .flatMap(this::createAccount, 15) // Process 15 at a time
-                .doOnNext(account -> log.debug("Created account batch item: {}", account.getId()));
+        WebClient webClient = webClientBuilder.build();
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        // One bulk request per batch instead of one POST per account
+        return webClient.post()
+                .uri("http://" + serviceName + "/account/bulk")
+                .header(IDEMPOTENCY_KEY, idempotencyKey)
+                .bodyValue(accounts)
+                .retrieve()
+                .bodyToMono(BulkCreateResponse.class)
+                .transform(accountServiceCircuitBreaker::run)
+                .retryWhen(Retry.backoff(3, Duration.ofSeconds(1)))
+                .flatMapIterable(BulkCreateResponse::getResults)
+                .filter(result -> {
+                    if (result.getError() != null) {
+                        log.warn("Account batch item {} rejected: {}", result.getIndex(), result.getError());
+                    }
+                    return result.getId() != null;
+                })
+                .map(result -> toAccountResponse(result.getId(), accounts.get(result.getIndex())))
+                .doOnComplete(() -> log.debug("Created account batch of {}", accounts.size()));
+    }
+
+    private AccountResponse toAccountResponse(Long id, AccountRequest request) {
+        AccountResponse account = new AccountResponse();
+        account.setId(id);
+        account.setAccountNumber(request.getAccountNumber());
+        account.setAccountType(request.getAccountType());
+        account.setBalance(request.getBalance());
+        account.setCustomerId(request.getCustomerId());
+        return account;
     }
 
     public Flux<AccountResponse> getAllAccounts() {
+        // Walk the keyset-paginated listing so each page is retried on its own and memory stays flat
+        return getAccountsPage(0L)
+                .expand(page -> page.getNextCursor() == null ? Mono.empty() : getAccountsPage(page.getNextCursor()))
+                .flatMapIterable(CursorPage::getItems)
+                .doOnComplete(() -> log.debug("Successfully retrieved all accounts"));
+    }
+
+    private Mono<CursorPage<AccountResponse>> getAccountsPage(Long afterId) {
         WebClient webClient = webClientBuilder.build();
 
         return webClient.get()
-                .uri("http://" + serviceName + "/account")
+                .uri("http://" + serviceName + "/account/page?afterId={afterId}&size={size}", afterId, pageSize)
                 .retrieve()
-                .bodyToFlux(AccountResponse.class)
+                .bodyToMono(new ParameterizedTypeReference<CursorPage<AccountResponse>>() {})
                 .transform(accountServiceCircuitBreaker::run)
-                .retryWhen(Retry.backoff(3, Duration.ofSeconds(1)))
-                .doOnComplete(() -> log.debug("Successfully retrieved all accounts"));
+                .retryWhen(Retry.backoff(3, Duration.ofSeconds(1)));
     }
 
     public Flux<AccountResponse> getAccountsByCustomerId(Long customerId) {
@@ -73,25 +121,29 @@ public class AccountServiceClient {
     }
 
     public Mono<Long> getAccountCount() {
-        return getAllAccounts()
-                .count()
+        WebClient webClient = webClientBuilder.build();
+
+        // Server-side COUNT(*) instead of downloading every account
+        return webClient.get()
+                .uri("http://" + serviceName + "/account/count")
+                .retrieve()
+                .bodyToMono(Long.class)
+                .transform(accountServiceCircuitBreaker::run)
+                .retryWhen(Retry.backoff(3, Duration.ofSeconds(1)))
                 .doOnSuccess(count -> log.debug("Account count: {}", count));
     }
 
     public Mono<Void> deleteAllAccounts() {
-        return getAllAccounts()
-                .flatMap(account -> deleteAccount(account.getId()))
-                .then()
-                .doOnSuccess(v -> log.info("All accounts deleted"));
-    }
-
-    private Mono<Void> deleteAccount(Long accountId) {
         WebClient webClient = webClientBuilder.build();
 
+        // One admin call that truncates server-side instead of a DELETE per account
         return webClient.delete()
-                .uri("http://" + serviceName + "/account/{id}", accountId)
+                .uri("http://" + serviceName + "/admin/account/all")
                 .retrieve()
-                .bodyToMono(Void.class)
-                .doOnSuccess(v -> log.debug("Deleted account: {}", accountId));
+                .bodyToMono(BulkDeleteResponse.class)
+                .transform(accountServiceCircuitBreaker::run)
+                .retryWhen(Retry.backoff(3, Duration.ofSeconds(1)))
+                .doOnSuccess(response -> log.info("All accounts deleted ({})", response.getDeleted()))
+                .then();
     }
 }
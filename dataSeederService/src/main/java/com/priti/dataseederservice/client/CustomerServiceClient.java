@@ -1,11 +1,15 @@
 package com.priti.dataseederservice.client;
 
+import com.priti.dataseederservice.dto.BulkCreateResponse;
+import com.priti.dataseederservice.dto.BulkDeleteResponse;
 import com.priti.dataseederservice.dto.CustomerRequest;
+import com.priti.dataseederservice.dto.CursorPage;
 import com.priti.dataseederservice.dto.CustomerResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
@@ -14,11 +18,14 @@ import reactor.util.retry.Retry;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class CustomerServiceClient {
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final WebClient.Builder webClientBuilder;
     private final ReactiveCircuitBreaker customerServiceCircuitBreaker;
 
@@ -28,11 +35,17 @@ public class CustomerServiceClient {
     @Value("${services.customer-service.fallback-url:http://localhost:8080}")
     private String fallbackUrl;
 
+    @Value("${seeding.read-page-size:1000}")
+    private int pageSize;
+
     public Mono<CustomerResponse> createCustomer(CustomerRequest customerRequest) {
         WebClient webClient = webClientBuilder.build();
+        // Generated once per logical create, so the retries below reuse it and are deduplicated server-side
+        String idempotencyKey = UUID.randomUUID().toString();
 
         return webClient.post()
                 .uri("http://" + serviceName + "/customer")
+                .header(IDEMPOTENCY_KEY, idempotencyKey)
                 .bodyValue(customerRequest)
                 .retrieve()
                 .bodyToMono(CustomerResponse.class)
@@ -43,21 +56,55 @@ public class CustomerServiceClient {
     }
 
     public Flux<CustomerResponse> createCustomersBatch(List<CustomerRequest> customers) {
-        return Flux.fromIterable(customers)
-                .flatMap(this::createCustomer, 10) // Process 10 at a time
-                .doOnNext(customer -> log.debug("Created customer batch item: {}", customer.getId()));
+        WebClient webClient = webClientBuilder.build();
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        // One bulk request per batch instead of one POST per customer
+        return webClient.post()
+                .uri("http://" + serviceName + "/customer/bulk")
+                .header(IDEMPOTENCY_KEY, idempotencyKey)
+                .bodyValue(customers)
+                .retrieve()
+                .bodyToMono(BulkCreateResponse.class)
+                .transform(customerServiceCircuitBreaker::run)
+                .retryWhen(Retry.backoff(3, Duration.ofSeconds(1)))
+                .flatMapIterable(BulkCreateResponse::getResults)
+                .filter(result -> {
+                    if (result.getError() != null) {
+                        log.warn("Customer batch item {} rejected: {}", result.getIndex(), result.getError());
+                    }
+                    return result.getId() != null;
+                })
+                .map(result -> toCustomerResponse(result.getId(), customers.get(result.getIndex())))
+                .doOnComplete(() -> log.debug("Created customer batch of {}", customers.size()));
+    }
+
+    private CustomerResponse toCustomerResponse(Long id, CustomerRequest request) {
+        CustomerResponse customer = new CustomerResponse();
+        customer.setId(id);
+        customer.setName(request.getName());
+        customer.setEmail(request.getEmail());
+        customer.setPhone(request.getPhone());
+        return customer;
     }
 
     public Flux<CustomerResponse> getAllCustomers() {
+        // Walk the keyset-paginated listing so each page is retried on its own and memory stays flat
+        return getCustomersPage(0L)
+                .expand(page -> page.getNextCursor() == null ? Mono.empty() : getCustomersPage(page.getNextCursor()))
+                .flatMapIterable(CursorPage::getItems)
+                .doOnComplete(() -> log.debug("Successfully retrieved all customers"));
+    }
+
+    private Mono<CursorPage<CustomerResponse>> getCustomersPage(Long afterId) {
         WebClient webClient = webClientBuilder.build();
 
         return webClient.get()
-                .uri("http://" + serviceName + "/customer")
+                .uri("http://" + serviceName + "/customer/page?afterId={afterId}&size={size}&withAccounts=false", afterId, pageSize)
                 .retrieve()
-                .bodyToFlux(CustomerResponse.class)
+                .bodyToMono(new ParameterizedTypeReference<CursorPage<CustomerResponse>>() {})
                 .transform(customerServiceCircuitBreaker::run)
-                .retryWhen(Retry.backoff(3, Duration.ofSeconds(1)))
-                .doOnComplete(() -> log.debug("Successfully retrieved all customers"));
+                .retryWhen(Retry.backoff(3, Duration.ofSeconds(1)));
     }
 
     public Flux<Long> getAllCustomerIds() {
@@ -67,25 +114,29 @@ public class CustomerServiceClient {
     }
 
     public Mono<Long> getCustomerCount() {
-        return getAllCustomers()
-                .count()
+        WebClient webClient = webClientBuilder.build();
+
+        // Server-side COUNT(*) instead of downloading every customer
+        return webClient.get()
+                .uri("http://" + serviceName + "/customer/count")
+                .retrieve()
+                .bodyToMono(Long.class)
+                .transform(customerServiceCircuitBreaker::run)
+                .retryWhen(Retry.backoff(3, Duration.ofSeconds(1)))
                 .doOnSuccess(count -> log.debug("Customer count: {}", count));
     }
 
     public Mono<Void> deleteAllCustomers() {
-        return getAllCustomers()
-                .flatMap(customer -> deleteCustomer(customer.getId()))
-                .then()
-                .doOnSuccess(v -> log.info("All customers deleted"));
-    }
-
-    private Mono<Void> deleteCustomer(Long customerId) {
         WebClient webClient = webClientBuilder.build();
 
+        // One admin call that truncates server-side instead of a DELETE per customer
         return webClient.delete()
-                .uri("http://" + serviceName + "/customer/{id}", customerId)
+                .uri("http://" + serviceName + "/admin/customer/all")
                 .retrieve()
-                .bodyToMono(Void.class)
-                .doOnSuccess(v -> log.debug("Deleted customer: {}", customerId));
+                .bodyToMono(BulkDeleteResponse.class)
+                .transform(customerServiceCircuitBreaker::run)
+                .retryWhen(Retry.backoff(3, Duration.ofSeconds(1)))
+                .doOnSuccess(response -> log.info("All customers deleted ({})", response.getDeleted()))
+                .then();
     }
 }
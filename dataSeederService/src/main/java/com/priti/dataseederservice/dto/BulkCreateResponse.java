@@ -0,0 +1,13 @@
+package com.priti.dataseederservice.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkCreateResponse {
+    private int requested;
+    private int created;
+    private int failed;
+    private List<BulkCreateResult> results;
+}
@@ -0,0 +1,10 @@
+package com.priti.dataseederservice.dto;
+
+import lombok.Data;
+
+@Data
+public class BulkCreateResult {
+    private int index;
+    private Long id;
+    private String error;
+}
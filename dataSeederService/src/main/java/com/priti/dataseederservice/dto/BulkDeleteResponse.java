@@ -0,0 +1,8 @@
+package com.priti.dataseederservice.dto;
+
+import lombok.Data;
+
+@Data
+public class BulkDeleteResponse {
+    private long deleted;
+}
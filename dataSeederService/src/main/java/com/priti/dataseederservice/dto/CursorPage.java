@@ -0,0 +1,11 @@
+package com.priti.dataseederservice.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CursorPage<T> {
+    private List<T> items;
+    private Long nextCursor;
+}
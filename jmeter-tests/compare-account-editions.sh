@@ -0,0 +1,101 @@
+#!/bin/bash
+
+#===============================================================================
+# MicroBank360 Account Service Edition Comparison
+#===============================================================================
+# Description: Runs account-reads-comparison.jmx against the servlet/JPA edition
+#              (accountService) and the WebFlux/R2DBC edition
+#              (accountReactiveService), then prints both summaries side by side.
+#              Start each edition against its own copy of the same seeded
+#              database (never one live database shared by both), on
+#              different ports with eureka disabled, and send the load to
+#              each instance directly.
+#
+# Usage Examples:
+#   ./compare-account-editions.sh                       # 500 users, 120 s, ports 8080 and 8081
+#   ./compare-account-editions.sh 1000 300              # 1000 users, 300 seconds
+#   ./compare-account-editions.sh 1000 300 8080 8081 db-host
+#===============================================================================
+
+set -euo pipefail
+
+readonly JMX_FILE="account-reads-comparison.jmx"
+
+THREADS=${1:-500}
+DURATION=${2:-120}
+SERVLET_PORT=${3:-8080}
+REACTIVE_PORT=${4:-8081}
+BASE_URL=${5:-"localhost"}
+
+RAMP_UP=$((DURATION / 6))
+if [ $RAMP_UP -lt 10 ]; then RAMP_UP=10; fi
+
+TIMESTAMP=$(date +"%Y%m%d_%H%M%S")
+RESULT_DIR="edition-comparison-${TIMESTAMP}"
+
+if command -v jmeter >/dev/null 2>&1; then
+    JMETER_CMD="jmeter"
+else
+    JMETER_CMD="$(find . -name "jmeter" -path "*/apache-jmeter-*/bin/jmeter" | head -1)"
+fi
+if [ -z "${JMETER_CMD}" ]; then
+    echo "JMeter not found in PATH or under ./apache-jmeter-*" >&2
+    exit 1
+fi
+if [ ! -f "accounts.csv" ]; then
+    echo "accounts.csv not found (id,accountNumber,accountType,balance,customerId)" >&2
+    exit 1
+fi
+
+mkdir -p "${RESULT_DIR}"
+
+run_edition() {
+    local edition="$1"
+    local port="$2"
+    echo "Running ${edition} edition on ${BASE_URL}:${port} (${THREADS} users, ${DURATION}s)..."
+    "${JMETER_CMD}" -n -t "${JMX_FILE}" \
+        -l "${RESULT_DIR}/${edition}.jtl" \
+        -Jjmeter.save.saveservice.output_format=csv \
+        "-JTHREADS=${THREADS}" "-JDURATION=${DURATION}" "-JRAMPUP=${RAMP_UP}" \
+        "-JBASE_URL=${BASE_URL}" "-JPORT=${port}" > "${RESULT_DIR}/${edition}.log"
+}
+
+# Samples taken during ramp-up are excluded, so both editions are compared at full concurrency
+summarize() {
+    local edition="$1"
+    local steady="${RESULT_DIR}/${edition}.steady"
+    awk -F',' -v rampup_ms="$((RAMP_UP * 1000))" '
+        NR == 1 { for (i = 1; i <= NF; i++) col[$i] = i; next }
+        NR == 2 { start = $col["timeStamp"] + rampup_ms }
+        $col["timeStamp"] >= start { print $col["timeStamp"], $col["elapsed"], $col["success"] }
+    ' "${RESULT_DIR}/${edition}.jtl" > "${steady}"
+
+    local samples
+    samples=$(wc -l < "${steady}")
+    if [ "${samples}" -eq 0 ]; then
+        printf "%-10s no samples after ramp-up\n" "${edition}"
+        return
+    fi
+    local p95 p99
+    p95=$(awk '{ print $2 }' "${steady}" | sort -n | sed -n "$(( (samples * 95 + 99) / 100 ))p")
+    p99=$(awk '{ print $2 }' "${steady}" | sort -n | sed -n "$(( (samples * 99 + 99) / 100 ))p")
+    awk -v edition="${edition}" -v p95="${p95}" -v p99="${p99}" '
+        NR == 1 || $1 < first { first = $1 }
+        $1 > last { last = $1 }
+        { n++; sum += $2; if ($3 != "true") errors++ }
+        END {
+            seconds = (last - first) / 1000
+            printf "%-10s %10d %12.1f %10.1f %8d %8d %8.2f%%\n", edition, n, n / (seconds > 0 ? seconds : 1),
+                sum / n, p95, p99, 100 * errors / n
+        }' "${steady}"
+}
+
+run_edition servlet "${SERVLET_PORT}"
+run_edition reactive "${REACTIVE_PORT}"
+
+echo ""
+printf "%-10s %10s %12s %10s %8s %8s %9s\n" "edition" "samples" "requests/s" "mean ms" "p95 ms" "p99 ms" "errors"
+summarize servlet
+summarize reactive
+echo ""
+echo "Raw results: ${RESULT_DIR}/"